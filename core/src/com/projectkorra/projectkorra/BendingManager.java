@@ -1,8 +1,6 @@
 package com.projectkorra.projectkorra;
 
 import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import com.projectkorra.projectkorra.airbending.util.AirbendingManager;
@@ -11,6 +9,9 @@ import com.projectkorra.projectkorra.earthbending.util.EarthbendingManager;
 import com.projectkorra.projectkorra.event.WorldTimeEvent;
 import com.projectkorra.projectkorra.firebending.util.FirebendingManager;
 import com.projectkorra.projectkorra.util.ChatUtil;
+import com.projectkorra.projectkorra.util.CooldownQueue;
+import com.projectkorra.projectkorra.util.EntityIndex;
+import com.projectkorra.projectkorra.util.ParticleBatch;
 import com.projectkorra.projectkorra.util.TempBlock;
 import com.projectkorra.projectkorra.util.TempFallingBlock;
 import com.projectkorra.projectkorra.util.ThreadUtil;
@@ -22,7 +23,9 @@ import org.bukkit.entity.Player;
 
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.object.HorizontalVelocityTracker;
 import com.projectkorra.projectkorra.util.RevertChecker;
 import com.projectkorra.projectkorra.util.TempArmor;
@@ -37,9 +40,16 @@ public class BendingManager implements Runnable {
 	long interval;
 	private final HashMap<World, WorldTimeEvent.Time> times = new HashMap<>(); // true if day time
 	private final TempBlock.TempBlockRevertTask tempBlockRevertTask = new TempBlock.TempBlockRevertTask();
+	private final TickBudget.Deferral airRevertDeferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
+	private final TickBudget.Deferral armorDeferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
+	private final TickBudget.Deferral fallingBlockDeferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
+	private final TickBudget.Deferral tempBlockDeferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
 	public BendingManager() {
 		instance = this;
 		this.time = System.currentTimeMillis();
+		TickBudget.load();
+		ParticleBatch.load();
+		EntityIndex.load();
 
 		times.clear();
 
@@ -79,16 +89,12 @@ public class BendingManager implements Runnable {
 	}
 
 	public void handleCooldowns() {
-		for (Map.Entry<UUID, BendingPlayer> entry : BendingPlayer.getPlayers().entrySet()) {
-			BendingPlayer bPlayer = entry.getValue();
-
-			ThreadUtil.ensureEntity(bPlayer.getPlayer(), bPlayer::removeOldCooldowns);
-		}
+		CooldownQueue.run();
 	}
 
 	public void handleDayNight() {
 		for (final World world : Bukkit.getServer().getWorlds()) {
-			if (ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds").contains(world.getName())) {
+			if (ConfigSnapshot.get().isDisabledWorld(world)) {
 				continue;
 			}
 
@@ -145,17 +151,21 @@ public class BendingManager implements Runnable {
 		this.time = System.currentTimeMillis();
 		ProjectKorra.time_step = this.interval;
 
+		TickBudget.startTick();
+		EntityIndex.startTick();
 		CoreAbility.progressAll(); //Player threads. DONE.
 		TempPotionEffect.progressAll(); //Player threads. DONE.
 		this.handleDayNight(); //Global region
-		RevertChecker.revertAirBlocks(); //Complicated, needs rewriting
+		if (this.airRevertDeferral.shouldRun()) RevertChecker.revertAirBlocks(); //Complicated, needs rewriting
 		HorizontalVelocityTracker.updateAll(); //Player threads. DONE
 		this.handleCooldowns(); //Async thread
-		TempArmor.cleanup(); //Async thread
+		if (this.armorDeferral.shouldRun()) TempArmor.cleanup(); //Async thread
 
-		TempFallingBlock.manage(); //Async.
+		if (this.fallingBlockDeferral.shouldRun()) TempFallingBlock.manage(); //Async.
 
-		tempBlockRevertTask.run(); //Async thread
+		if (this.tempBlockDeferral.shouldRun()) tempBlockRevertTask.run(); //Async thread
+		EntityIndex.endTick();
+		TickBudget.endTick();
 	}
 
 	public static String getSunriseMessage() {
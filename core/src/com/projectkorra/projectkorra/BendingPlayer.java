@@ -3,11 +3,8 @@ package com.projectkorra.projectkorra;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -26,7 +23,6 @@ import com.projectkorra.projectkorra.event.PlayerStanceChangeEvent;
 import com.projectkorra.projectkorra.firebending.passive.FirePassive;
 import com.projectkorra.projectkorra.hooks.CanBendHook;
 import com.projectkorra.projectkorra.hooks.CanBindHook;
-import com.projectkorra.projectkorra.object.Preset;
 import com.projectkorra.projectkorra.region.RegionProtection;
 import com.projectkorra.projectkorra.util.ChatUtil;
 import com.projectkorra.projectkorra.ability.util.FoliaThreadChecker;
@@ -54,10 +50,13 @@ import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.board.BendingBoardManager;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.earthbending.metal.MetalClips;
 import com.projectkorra.projectkorra.event.PlayerCooldownChangeEvent;
 import com.projectkorra.projectkorra.event.PlayerCooldownChangeEvent.Result;
 import com.projectkorra.projectkorra.util.Cooldown;
+import com.projectkorra.projectkorra.util.CooldownQueue;
+import com.projectkorra.projectkorra.util.CooldownTable;
 import com.projectkorra.projectkorra.waterbending.blood.Bloodbending;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
@@ -70,7 +69,6 @@ public class BendingPlayer extends OfflineBendingPlayer {
 
 	protected static Map<JavaPlugin, CanBendHook> BEND_HOOKS = new HashMap<>();
 	protected static Map<JavaPlugin, CanBindHook> BIND_HOOKS = new HashMap<>();
-	static Set<String> DISABLED_WORLDS = new HashSet<>();
 
 	private long slowTime;
 	private final Player player;
@@ -82,6 +80,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 
 	public BendingPlayer(Player player) {
 		super(player);
+		this.cooldowns.setOwner(player.getUniqueId());
 
 		this.player = player;
 		this.tremorSense = true;
@@ -106,7 +105,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 		Bukkit.getServer().getPluginManager().callEvent(event);
 
 		if (!event.isCancelled()) {
-			this.cooldowns.put(ability, new Cooldown(event.getCooldown() + System.currentTimeMillis(), database));
+			this.cooldowns.set(ability, event.getCooldown() + System.currentTimeMillis(), database);
 
 			if (this.getBoundAbilityName() != null && this.getBoundAbilityName().equalsIgnoreCase(ability)) {
 				ChatUtil.displayMovePreview(this.player);
@@ -142,7 +141,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 
 	private boolean canBend(@NotNull final CoreAbility ability, final boolean ignoreBinds, final boolean ignoreCooldowns) {
 
-		final List<String> disabledWorlds = getConfig().getStringList("Properties.DisabledWorlds");
+		final ConfigSnapshot config = ConfigSnapshot.get();
 		final Location playerLoc = this.player.getLocation();
 
 		if (ProjectKorra.isFolia() && !Bukkit.isOwnedByCurrentRegion(this.getPlayer())) {
@@ -171,7 +170,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			return false;
 		} else if (!ignoreBinds && (!ability.getName().equals(this.getBoundAbilityName()))) {
 			return false;
-		} else if (disabledWorlds.contains(this.player.getWorld().getName())) {
+		} else if (config.isDisabledWorld(this.player.getWorld())) {
 			return false;
 		} else if (Commands.isToggledForAll || !this.isToggled() || !this.isElementToggled(ability.getElement())) {
 			return false;
@@ -179,12 +178,15 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			return false;
 		}
 
-		if (!ignoreCooldowns && this.cooldowns.containsKey(ability.getName())) {
-			if (this.cooldowns.get(ability.getName()).getCooldown() + getConfig().getLong("Properties.GlobalCooldown") >= System.currentTimeMillis()) {
-				return false;
-			}
+		if (!ignoreCooldowns) {
+			final long end = this.cooldowns.getEnd(ability.getName());
+			if (end != 0) {
+				if (end + config.getGlobalCooldown() >= System.currentTimeMillis()) {
+					return false;
+				}
 
-			this.cooldowns.remove(ability.getName());
+				this.cooldowns.remove(ability.getName());
+			}
 		}
 
 		if (this.isChiBlocked() || this.isParalyzed() || (this.isBloodbent() && !ability.getName().equalsIgnoreCase("AvatarState")) || this.isControlledByMetalClips()) {
@@ -213,12 +215,11 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			return false; // If the passive is disabled.
 		}
 		final Element element = ability.getElement();
-		if (Commands.isToggledForAll && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) {
+		final ConfigSnapshot config = ConfigSnapshot.get();
+		if (Commands.isToggledForAll && config.isTogglePassivesWithAllBending()) {
 			return false;
 		}
 
-		final List<String> disabledWorlds = getConfig().getStringList("Properties.DisabledWorlds");
-
 		if (element == null || this.player == null) {
 			return false;
 		} else if (!this.player.hasPermission("bending." + element.getName() + ".passive")) {
@@ -227,14 +228,14 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			return false;
 		} else if (!this.hasElement(element)) {
 			return false;
-		} else if (disabledWorlds.contains(this.player.getWorld().getName())) {
+		} else if (config.isDisabledWorld(this.player.getWorld())) {
 			return false;
 		} else return this.player.getGameMode() != GameMode.SPECTATOR;
 	}
 
 	public boolean canUsePassive(final CoreAbility ability) {
 		final Element element = ability.getElement();
-		if ((!this.isToggled() && ConfigManager.defaultConfig.get().getBoolean("Properties.TogglePassivesWithAllBending")) || !this.isElementToggled(element) || !this.isPassiveToggled(element) || !this.isToggledPassives()) {
+		if ((!this.isToggled() && ConfigSnapshot.get().isTogglePassivesWithAllBending()) || !this.isElementToggled(element) || !this.isPassiveToggled(element) || !this.isToggledPassives()) {
 			return false;
 		} else if (this.isChiBlocked() || this.isParalyzed() || this.isBloodbent()) {
 			return false;
@@ -269,7 +270,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	 * Check if the {@link BendingPlayer} can bend in the world they are in
 	 */
 	public boolean canBendInWorld() {
-		return !DISABLED_WORLDS.contains(this.getPlayer().getWorld().getName());
+		return !ConfigSnapshot.get().isDisabledWorld(this.getPlayer().getWorld());
 	}
 
 	/**
@@ -525,11 +526,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	 */
 	@Override
 	public boolean isOnCooldown(final String ability) {
-		if (this.cooldowns.containsKey(ability)) {
-			return System.currentTimeMillis() < this.cooldowns.get(ability).getCooldown();
-		}
-
-		return false;
+		return System.currentTimeMillis() < this.cooldowns.getEnd(ability);
 	}
 
 	public boolean isParalyzed() {
@@ -592,7 +589,7 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	 * @return True if bending is disabled in the world
 	 */
 	public static boolean isWorldDisabled(World world) {
-		return DISABLED_WORLDS.contains(world.getName());
+		return ConfigSnapshot.get().isDisabledWorld(world);
 	}
 
 	/**
@@ -621,32 +618,52 @@ public class BendingPlayer extends OfflineBendingPlayer {
 	/**
 	 * Removes all cooldowns that have expired.
 	 *
-	 * We cannot call the {@link #removeCooldown(String)} method here because it
-	 * would cause a ConcurrentModificationException. That's why we have to copy
-	 * most of the method here so the event is still called, but we remove from
-	 * the iterator instead of the map like we do in {@link #removeCooldown(String)}
+	 * Cooldowns of online players are removed by the {@link CooldownQueue} the
+	 * moment they end, so this is only needed for cooldowns that ended while
+	 * the player was offline.
 	 */
 	@Override
 	protected void removeOldCooldowns() {
-		Iterator<Entry<String, Cooldown>> iterator = this.cooldowns.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Map.Entry<String, Cooldown> entry = iterator.next();
-			if (System.currentTimeMillis() >= entry.getValue().getCooldown()) {
-				final PlayerCooldownChangeEvent event = new PlayerCooldownChangeEvent(this.player, entry.getKey(), 0, Result.REMOVED);
-				Bukkit.getServer().getPluginManager().callEvent(event);
-				if (!event.isCancelled()) {
-					iterator.remove();
+		final long now = System.currentTimeMillis();
+		for (final Map.Entry<String, Cooldown> entry : this.cooldowns.entrySet()) {
+			final long end = entry.getValue().getCooldown();
+			if (now >= end) {
+				this.expireCooldown(CooldownTable.idOf(entry.getKey()), end);
+			}
+		}
+	}
 
-					final String abilityName = event.getAbility();
+	/**
+	 * Removes a cooldown that ended while firing a
+	 * {@link PlayerCooldownChangeEvent}. Does nothing if the cooldown was
+	 * replaced or removed since. If the event is cancelled, the cooldown is
+	 * checked again on the next tick.
+	 *
+	 * @param id The id of the cooldown name, see {@link CooldownTable#idOf(String)}
+	 * @param end The time in milliseconds the cooldown ended
+	 */
+	public void expireCooldown(final int id, final long end) {
+		if (this.cooldowns.getEnd(id) != end) {
+			return;
+		}
 
-					if (this.getBoundAbility() != null && this.getBoundAbilityName().equals(abilityName)) {
-						ChatUtil.displayMovePreview(this.player);
-					}
+		final PlayerCooldownChangeEvent event = new PlayerCooldownChangeEvent(this.player, CooldownTable.nameOf(id), 0, Result.REMOVED);
+		Bukkit.getServer().getPluginManager().callEvent(event);
+		if (event.isCancelled()) {
+			CooldownQueue.schedule(this.player.getUniqueId(), id, end);
+			return;
+		}
+		if (!this.cooldowns.clear(id, end)) {
+			return;
+		}
 
-					BendingBoardManager.updateBoard(this.player, event.getAbility(), false, 0);
-				}
-			}
+		final String abilityName = event.getAbility();
+
+		if (this.getBoundAbility() != null && this.getBoundAbilityName().equals(abilityName)) {
+			ChatUtil.displayMovePreview(this.player);
 		}
+
+		BendingBoardManager.updateBoard(this.player, event.getAbility(), false, 0);
 	}
 
 	/**
@@ -859,8 +876,6 @@ public class BendingPlayer extends OfflineBendingPlayer {
 			ChatUtil.sendBrandingMessage(this.player, ChatColor.YELLOW + ConfigManager.languageConfig.get().getString("Command.Toggle.Reminder"));
 		}
 
-		Preset.loadPresets(this.player);
-
 		final boolean chatEnabled = ConfigManager.languageConfig.get().getBoolean("Chat.Enable");
 
 		String prefix = ChatColor.WHITE + ChatColor.translateAlternateColorCodes('&', ConfigManager.languageConfig.get().getString("Chat.Prefixes.Nonbender", "")) + " ";
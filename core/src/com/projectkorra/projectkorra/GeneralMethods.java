@@ -26,6 +26,7 @@ import com.projectkorra.projectkorra.board.BendingBoardManager;
 import com.projectkorra.projectkorra.chiblocking.util.ChiblockingManager;
 import com.projectkorra.projectkorra.command.PKCommand;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.earthbending.EarthBlast;
 import com.projectkorra.projectkorra.earthbending.EarthTunnel;
 import com.projectkorra.projectkorra.earthbending.passive.EarthPassive;
@@ -71,6 +72,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.MainHand;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 
 import java.io.File;
@@ -89,9 +91,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 public class GeneralMethods {
@@ -521,7 +525,10 @@ public class GeneralMethods {
 
 	/**
 	 * Gets a {@code List<Blocks>} within the specified radius around the
-	 * specified location.
+	 * specified location. Use
+	 * {@link BlockNeighbourhood#forEach(Location, double, java.util.function.Consumer)}
+	 * or {@link BlockNeighbourhood#anyMatch(Location, double, Predicate)} to
+	 * go through them without building a list.
 	 *
 	 * @param location The base location
 	 * @param radius The block radius from location to include within the list
@@ -529,25 +536,7 @@ public class GeneralMethods {
 	 * @return The list of Blocks
 	 */
 	public static List<Block> getBlocksAroundPoint(final Location location, final double radius) {
-		final List<Block> blocks = new ArrayList<Block>();
-
-		final int xorg = location.getBlockX();
-		final int yorg = location.getBlockY();
-		final int zorg = location.getBlockZ();
-
-		final int r = (int) radius * 4;
-
-		for (int x = xorg - r; x <= xorg + r; x++) {
-			for (int y = yorg - r; y <= yorg + r; y++) {
-				for (int z = zorg - r; z <= zorg + r; z++) {
-					final Block block = location.getWorld().getBlockAt(x, y, z);
-					if (block.getLocation().distanceSquared(location) <= radius * radius) {
-						blocks.add(block);
-					}
-				}
-			}
-		}
-		return blocks;
+		return BlockNeighbourhood.getBlocks(location, radius);
 	}
 
 	public static BlockFace getCardinalDirection(final Vector vector) {
@@ -708,7 +697,7 @@ public class GeneralMethods {
 	 * @return A list of entities around a point
 	 */
 	public static List<Entity> getEntitiesAroundPoint(final Location location, final double radius, Predicate<Entity> acceptable) {
-		return new ArrayList<>(location.getWorld().getNearbyEntities(location, radius, radius, radius, acceptable));
+		return EntityIndex.getNearbyEntities(location, radius, acceptable);
 	}
 
 	/**
@@ -720,7 +709,7 @@ public class GeneralMethods {
 	 * @return A list of entities around a point
 	 */
 	public static List<Entity> getEntitiesAroundPoint(final Location location, final double radius) {
-		return getEntitiesAroundPoint(location, radius, getEntityFilter());
+		return EntityIndex.getNearbyEntities(location, radius);
 	}
 
 	/**
@@ -734,7 +723,7 @@ public class GeneralMethods {
 	}
 
 	public static long getGlobalCooldown() {
-		return ConfigManager.defaultConfig.get().getLong("Properties.GlobalCooldown");
+		return ConfigSnapshot.get().getGlobalCooldown();
 	}
 
 	/**
@@ -939,7 +928,12 @@ public class GeneralMethods {
 		Entity target = null;
 		final Location origin = player.getEyeLocation();
 		final Vector direction = player.getEyeLocation().getDirection().normalize();
-		for (final Entity entity : getEntitiesAroundPoint(origin, range)) {
+		// Only entities near the line of sight can be targeted, and they have to be within range on every axis
+		final BoundingBox area = BoundingBox.of(origin, range, range, range);
+		for (final Entity entity : EntityIndex.getEntitiesInCapsule(origin, origin.clone().add(direction.clone().multiply(range + 1)), 2)) {
+			if (!entity.getBoundingBox().overlaps(area)) {
+				continue;
+			}
 			if (entity instanceof Player) {
 				if (((Player) entity).isDead() || ((Player) entity).getGameMode().equals(GameMode.SPECTATOR)) {
 					continue;
@@ -948,11 +942,16 @@ public class GeneralMethods {
 			if (avoid.contains(entity)) {
 				continue;
 			}
-			if (entity.getWorld().equals(origin.getWorld())) {
-				if (entity.getLocation().distanceSquared(origin) < longestr * longestr && getDistanceFromLine(direction, origin, entity.getLocation()) < 2 && (entity instanceof LivingEntity) && entity.getEntityId() != player.getEntityId() && entity.getLocation().distanceSquared(origin.clone().add(direction)) < entity.getLocation().distanceSquared(origin.clone().add(direction.clone().multiply(-1)))) {
-					target = entity;
-					longestr = entity.getLocation().distance(origin);
-				}
+			if (!(entity instanceof LivingEntity) || entity.getEntityId() == player.getEntityId() || !entity.getWorld().equals(origin.getWorld())) {
+				continue;
+			}
+			final Location location = entity.getLocation();
+			final double distanceSquared = location.distanceSquared(origin);
+			// In front of the player if the entity is closer to the point one block ahead than to the one behind
+			final double ahead = (location.getX() - origin.getX()) * direction.getX() + (location.getY() - origin.getY()) * direction.getY() + (location.getZ() - origin.getZ()) * direction.getZ();
+			if (distanceSquared < longestr * longestr && ahead > 0 && getDistanceFromLine(direction, origin, location) < 2) {
+				target = entity;
+				longestr = Math.sqrt(distanceSquared);
 			}
 		}
 		if (target != null) {
@@ -969,41 +968,38 @@ public class GeneralMethods {
 
 	public static Location getTargetedLocation(final Player player, final double range, final boolean ignoreTempBlocks, final boolean checkDiagonals, final Material... nonOpaque2) {
 		final Location origin = player.getEyeLocation();
-		final Vector direction = origin.getDirection();
-
-		final HashSet<Material> trans = new HashSet<Material>();
-		trans.add(Material.AIR);
-		trans.add(Material.CAVE_AIR);
-		trans.add(Material.VOID_AIR);
 
+		final Set<Material> trans = EnumSet.noneOf(Material.class);
 		if (nonOpaque2 != null) {
-			Collections.addAll(trans, nonOpaque2);
+			for (final Material material : nonOpaque2) {
+				if (material != null) {
+					trans.add(material);
+				}
+			}
 		}
 
-		final Location location = origin.clone();
-		final Vector vec = direction.normalize().multiply(0.2);
-
-		for (double i = 0; i < range; i += 0.2) {
-			location.add(vec);
-
-			if (checkDiagonals && checkDiagonalWall(location, vec)) {
-				location.subtract(vec);
+		final BlockRaycast ray = new BlockRaycast(origin, range);
+		double distance = range;
+		while (ray.next()) {
+			if (checkDiagonals && ray.isDiagonalWall()) {
+				distance = ray.getDistanceBefore();
 				break;
 			}
 
-			final Block block = location.getBlock();
+			final Block block = ray.getBlock();
+			final Material type = block.getType();
 
-			if (trans.contains(block.getType())) {
+			if (type == Material.AIR || type == Material.CAVE_AIR || type == Material.VOID_AIR || trans.contains(type)) {
 				continue;
 			} else if (ignoreTempBlocks && (TempBlock.isTempBlock(block) && !WaterAbility.isBendableWaterTempBlock(block) && !EarthAbility.isBendableEarthTempBlock(block))) {
 				continue;
 			} else {
-				location.subtract(vec);
+				distance = ray.getDistanceBefore();
 				break;
 			}
 		}
 
-		return location;
+		return origin.add(origin.getDirection().multiply(distance));
 	}
 
 	public static Location getTargetedLocation(final Player player, final double range, final boolean ignoreTempBlocks, final Material... nonOpaque2) {
@@ -1191,23 +1187,20 @@ public class GeneralMethods {
 	}
 
 	public static boolean isObstructed(final Location location1, final Location location2) {
-		final Vector loc1 = location1.toVector();
-		final Vector loc2 = location2.toVector();
-
-		final Vector direction = loc2.subtract(loc1);
-		direction.normalize();
-
-		Location loc;
-
 		double max = 0;
 		if (location1.getWorld().equals(location2.getWorld())) {
 			max = location1.distance(location2);
 		}
 
-		for (double i = 0; i <= max; i++) {
-			loc = location1.clone().add(direction.clone().multiply(i));
-			final Material type = loc.getBlock().getType();
-			if (type != Material.AIR && !(ElementalAbility.getTransparentMaterialSet().contains(type) || ElementalAbility.isWater(loc.getBlock()))) {
+		final int endX = location2.getBlockX(), endY = location2.getBlockY(), endZ = location2.getBlockZ();
+		final BlockRaycast ray = new BlockRaycast(location1, location2.toVector().subtract(location1.toVector()), max);
+		while (ray.next()) {
+			if (ray.getX() == endX && ray.getY() == endY && ray.getZ() == endZ) {
+				break; //The block the end is in, such as the slab an entity is standing on, doesn't block it
+			}
+			final Block block = ray.getBlock();
+			final Material type = block.getType();
+			if (type != Material.AIR && !(MaterialTraits.has(type, MaterialTraits.TRANSPARENT) || ElementalAbility.isWater(block))) {
 				return true;
 			}
 		}
@@ -1253,7 +1246,7 @@ public class GeneralMethods {
 	}
 
 	public static boolean isSolid(final Material material) {
-		return material.isSolid();
+		return MaterialTraits.has(material, MaterialTraits.SOLID);
 	}
 
 	public static boolean isTransparent(final Block block) {
@@ -1261,7 +1254,7 @@ public class GeneralMethods {
 	}
 
 	public static boolean isTransparent(final Material material) {
-		return !material.isOccluding() && !material.isSolid();
+		return MaterialTraits.has(material, MaterialTraits.TRANSPARENT);
 	}
 
 	public static boolean isFakeEvent(final EntityDamageEvent event) {
@@ -1368,18 +1361,20 @@ public class GeneralMethods {
         }
 
         // Revert and restart lights safely.
-        // LightManager internally uses ThreadUtil.ensureLocation for sending block changes, so we can call restart().
+        // LightManager sends block changes on the thread of each player, so we can call restart().
         try {
-            LightManager.get().restart(); // this reverts all active lights and restarts the scheduler
+            LightManager.get().restart(); // this reverts all active lights and stops the light task
         } catch (Exception ex) {
             ProjectKorra.log.warning("Error restarting LightManager during reload: " + ex.getMessage());
         }
 
         // Reload config files
         ConfigManager.defaultConfig.reload();
+        ConfigSnapshot.reload(); //Before the abilities are registered, so they see the new Enabled values
         ConfigManager.languageConfig.reload();
         ConfigManager.presetConfig.reload();
         ConfigManager.avatarStateConfig.reload();
+        RegionProtection.configureCache(ConfigManager.getConfig().getLong("Properties.RegionProtection.CacheBlockTime"), ConfigManager.getConfig().getInt("Properties.RegionProtection.CacheSize"));
 
         // Reset element colors
         Arrays.stream(Element.getElements()).forEach(e -> { e.setColor(null); e.setSubColor(null); });
@@ -1427,7 +1422,10 @@ public class GeneralMethods {
         ThreadUtil.ensureLocation(Bukkit.getWorlds().get(0).getSpawnLocation(),
                 () -> ProjectKorra.collisionManager.startCollisionDetection());
 
-        // Re-init DB connection
+        // Re-init DB connection, committing any queued writes first so the reloaded players see them
+        if (DBConnection.sql != null) {
+            DBConnection.sql.close();
+        }
         DBConnection.init();
         if (!DBConnection.isOpen()) {
             ProjectKorra.log.severe("Unable to enable ProjectKorra due to the database not being open");
@@ -1439,7 +1437,6 @@ public class GeneralMethods {
         BendingPlayer.getOfflinePlayers().clear();
         BendingPlayer.getPlayers().clear();
         OfflineBendingPlayer.TEMP_ELEMENTS.clear();
-        BendingPlayer.DISABLED_WORLDS = new HashSet<>(ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds"));
         BendingBoardManager.reload();
 
 
@@ -1910,12 +1907,15 @@ public class GeneralMethods {
 	}
 	
 	public static void setVelocity(Ability ability, Entity entity, Vector vector) {
-		final AbilityVelocityAffectEntityEvent event = new AbilityVelocityAffectEntityEvent(ability, entity, vector);
-		Bukkit.getServer().getPluginManager().callEvent(event);
-		if (event.isCancelled()) 
-			return;
-		
-		Vector velocity = event.getVelocity();
+		Vector velocity = vector;
+		if (AbilityVelocityAffectEntityEvent.hasListeners()) {
+			final AbilityVelocityAffectEntityEvent event = new AbilityVelocityAffectEntityEvent(ability, entity, vector);
+			Bukkit.getServer().getPluginManager().callEvent(event);
+			if (event.isCancelled())
+				return;
+
+			velocity = event.getVelocity();
+		}
 		if(velocity == null || Double.isNaN(velocity.length()))
 		    return;
 		
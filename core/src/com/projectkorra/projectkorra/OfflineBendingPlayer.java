@@ -9,9 +9,14 @@ import com.projectkorra.projectkorra.event.BendingPlayerLoadEvent;
 import com.projectkorra.projectkorra.event.PlayerBindChangeEvent;
 import com.projectkorra.projectkorra.event.PlayerChangeElementEvent;
 import com.projectkorra.projectkorra.event.PlayerChangeSubElementEvent;
+import com.projectkorra.projectkorra.object.Preset;
 import com.projectkorra.projectkorra.storage.DBConnection;
+import com.projectkorra.projectkorra.storage.PlayerProfile;
+import com.projectkorra.projectkorra.storage.WriteQueue;
 import com.projectkorra.projectkorra.util.ChatUtil;
 import com.projectkorra.projectkorra.util.Cooldown;
+import com.projectkorra.projectkorra.util.CooldownTable;
+import com.projectkorra.projectkorra.util.StatisticsManager;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -20,8 +25,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -34,6 +37,7 @@ import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
@@ -84,7 +88,7 @@ public class OfflineBendingPlayer {
     protected Map<Element, Long> tempElements = new HashMap<>();
     protected Map<SubElement, Long> tempSubElements = new HashMap<>();
     protected HashMap<Integer, String> abilities = new HashMap<>();
-    protected final Map<String, Cooldown> cooldowns = new HashMap<>();
+    protected final CooldownTable cooldowns = new CooldownTable();
     protected final Set<Element> toggledElements = new HashSet<>();
     protected final Set<Element> toggledPassives = new HashSet<>();
 
@@ -94,6 +98,7 @@ public class OfflineBendingPlayer {
     private long lastAccessed;
     private long uncacheTime = 30_000; //This is the default time to unload after when the data is accessed by code, NOT when logging out
     private Object uncache;
+    private PlayerProfile profile; //What an offline instance was loaded from, used once when the player joins
 
     public OfflineBendingPlayer(@NotNull OfflinePlayer player) {
         this.player = player;
@@ -121,7 +126,17 @@ public class OfflineBendingPlayer {
         if (PLAYERS.get(uuid) != null) {
             OfflineBendingPlayer oBendingPlayer = PLAYERS.get(uuid); //Get cached instance
             if (offlinePlayer.isOnline() && !(oBendingPlayer instanceof BendingPlayer)) {
+                final PlayerProfile profile = oBendingPlayer.profile;
+                oBendingPlayer.profile = null;
                 oBendingPlayer = convertToOnline(oBendingPlayer); //Convert to online instance
+                if (profile != null) { //Loaded during login, so the presets and stats don't need to be read again
+                    Preset.loadPresets(uuid, profile.getPresets());
+                    if (ProjectKorra.isStatisticsEnabled()) {
+                        Manager.getManager(StatisticsManager.class).prefetch(uuid, profile.getStatistics());
+                    }
+                } else {
+                    Preset.loadPresets(((BendingPlayer) oBendingPlayer).getPlayer());
+                }
                 ((BendingPlayer)oBendingPlayer).postLoad();
             }
             if (!(oBendingPlayer instanceof BendingPlayer)) {
@@ -133,6 +148,9 @@ public class OfflineBendingPlayer {
 
         LOADING.put(uuid, future); //Put the future in the loading map
 
+        //Read every table in a single round trip
+        final CompletableFuture<PlayerProfile> profileFuture = PlayerProfile.load(uuid);
+
         Runnable runnable = () -> {
             OfflineBendingPlayer bPlayer = new OfflineBendingPlayer(offlinePlayer);
             if (offlinePlayer.isOnline()) {
@@ -142,10 +160,11 @@ public class OfflineBendingPlayer {
 
             PLAYERS.put(uuid, bPlayer);
 
-            final ResultSet rs2 = DBConnection.sql.readQuery("SELECT * FROM pk_players WHERE uuid = '" + uuid.toString() + "'");
             try {
-                if (!rs2.next()) { // Data doesn't exist, we want a completely new player.
-                    DBConnection.sql.modifyQuery("INSERT INTO pk_players (uuid, player, slot1, slot2, slot3, slot4, slot5, slot6, slot7, slot8, slot9) VALUES ('" + uuid.toString() + "', '" + offlinePlayer.getName() + "', 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null')");
+                final PlayerProfile profile = profileFuture.join();
+                final Map<String, String> playerData = profile.getPlayerData();
+                if (playerData == null) { // Data doesn't exist, we want a completely new player.
+                    DBConnection.sql.getWriteQueue().queue("pk_players", uuid.toString(), "INSERT INTO pk_players (uuid, player, slot1, slot2, slot3, slot4, slot5, slot6, slot7, slot8, slot9) VALUES (?, ?, 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null', 'null')", uuid.toString(), offlinePlayer.getName());
                     ProjectKorra.log.info("Created new BendingPlayer for " + offlinePlayer.getName());
                     OfflineBendingPlayer newPlayer;
                     if (offlinePlayer.isOnline()) {
@@ -160,19 +179,21 @@ public class OfflineBendingPlayer {
                     }
                     PLAYERS.put(uuid, newPlayer);
                     ThreadUtil.runSync(() -> Bukkit.getPluginManager().callEvent(new BendingPlayerLoadEvent(newPlayer)));
+                    profile.markBuilt();
+                    logProfileTimings(offlinePlayer, profile);
                     future.complete(newPlayer);
                     LOADING.remove(uuid);
                 } else {
                     // The player has at least played before.
-                    final String player2 = rs2.getString("player");
-                    if (!offlinePlayer.getName().equalsIgnoreCase(player2)) {
-                        DBConnection.sql.modifyQuery("UPDATE pk_players SET player = '" + offlinePlayer.getName() + "' WHERE uuid = '" + uuid.toString() + "'");
+                    final String player2 = playerData.get("player");
+                    if (offlinePlayer.getName() != null && !offlinePlayer.getName().equalsIgnoreCase(player2)) {
+                        DBConnection.sql.getWriteQueue().queue("pk_players", uuid + ":player", "UPDATE pk_players SET player = ? WHERE uuid = ?", offlinePlayer.getName(), uuid.toString());
                         // They have changed names.
                         ProjectKorra.log.info("Updating Player Name for " + offlinePlayer.getName());
                     }
-                    final String subelementField = rs2.getString("subelement");
-                    final String elementField = rs2.getString("element");
-                    final String permaremovedField = rs2.getString("permaremoved");
+                    final String subelementField = playerData.get("subelement");
+                    final String elementField = playerData.get("element");
+                    final String permaremovedField = playerData.get("permaremoved");
 
                     //Load the elements
                     if (elementField != null && !elementField.equalsIgnoreCase("NULL")) {
@@ -334,7 +355,7 @@ public class OfflineBendingPlayer {
                     //Load the abilities
                     final ConcurrentHashMap<Integer, String> abilitiesClone = new ConcurrentHashMap<>();
                     for (int i = 1; i <= 9; i++) {
-                        final String ability = rs2.getString("slot" + i);
+                        final String ability = playerData.get("slot" + i);
                         abilitiesClone.put(i, ability);
                     }
                     final long startTime = System.currentTimeMillis();
@@ -370,39 +391,33 @@ public class OfflineBendingPlayer {
                     if (permaremovedField != null && permaremovedField.equalsIgnoreCase("true")) bPlayer.permaRemoved = true;
 
                     //Load cooldowns
-                    if (ProjectKorra.isDatabaseCooldownsEnabled()) {
-                        try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_cooldowns WHERE uuid = '" + uuid.toString() + "'")) {
-                            while (rs.next()) {
-                                final String name = rs.getString("cooldown");
-                                final long value = rs.getLong("value");
-                                bPlayer.cooldowns.put(name, new Cooldown(value, true));
-                            }
-                        } catch (final SQLException e) {
-                            e.printStackTrace();
-                        }
+                    for (final Map.Entry<String, Long> entry : profile.getCooldowns().entrySet()) {
+                        bPlayer.cooldowns.put(entry.getKey(), new Cooldown(entry.getValue(), true));
                     }
 
                     //Load tempelements from the database
-                   try (ResultSet rs3 = DBConnection.sql.readQuery("SELECT * FROM pk_temp_elements WHERE uuid = '" + uuid.toString() + "'")) {
-                       Map<Element, Long> elements = new HashMap<>();
-                       Map<SubElement, Long> subElements = new HashMap<>();
+                    Map<Element, Long> elements = new HashMap<>();
+                    Map<SubElement, Long> subElements = new HashMap<>();
 
-                       while (rs3.next()) {
-                            Element element = Element.getElement(rs3.getString("element"));
-                            long time = rs3.getLong("expiry");
+                    for (final Map.Entry<String, Long> entry : profile.getTempElements().entrySet()) {
+                        Element element = Element.getElement(entry.getKey());
+                        long time = entry.getValue();
 
-                            if (element instanceof SubElement) subElements.put((SubElement) element, time);
-                            else elements.put(element, time);
-                       }
+                        if (element instanceof SubElement) subElements.put((SubElement) element, time);
+                        else elements.put(element, time);
+                    }
+
+                    bPlayer.tempElements = elements;
+                    bPlayer.tempSubElements = subElements;
 
-                       bPlayer.tempElements = elements;
-                       bPlayer.tempSubElements = subElements;
-                   } catch (SQLException e) {
-                       e.printStackTrace();
-                   }
 
+                    //Load presets
+                    if (bPlayer instanceof BendingPlayer) Preset.loadPresets(uuid, profile.getPresets());
+                    else bPlayer.profile = profile;
 
                     bPlayer.loading = false;
+                    profile.markBuilt();
+                    logProfileTimings(offlinePlayer, profile);
                     //Call postLoad() on the main thread and wait for it to complete
                     if (bPlayer instanceof BendingPlayer) {
                         BendingPlayer finalBPlayer3 = (BendingPlayer) bPlayer;
@@ -420,18 +435,42 @@ public class OfflineBendingPlayer {
                         future.complete(finalBPlayer4);
                     });
                 }
-            } catch (final SQLException ex) {
+            } catch (final CompletionException ex) {
                 ex.printStackTrace();
                 LOADING.remove(uuid);
                 future.cancel(true);
             }
         };
 
-        ThreadUtil.runAsync(runnable);
+        //Build the player as soon as the profile has been read
+        profileFuture.whenComplete((profile, e) -> runnable.run());
 
         return future;
     }
 
+    private static void logProfileTimings(final OfflinePlayer player, final PlayerProfile profile) {
+        if (ConfigManager.getConfig().getBoolean("debug")) {
+            ProjectKorra.log.info(String.format("Loaded %s in %.2fms (fetch: %.2fms, build: %.2fms)", player.getName(), profile.getFetchTime() + profile.getBuildTime(), profile.getFetchTime(), profile.getBuildTime()));
+        }
+    }
+
+    /**
+     * Loads the data of a player that is about to join, so it is cached by the
+     * time they do. If the player never joins, e.g. because their login was
+     * denied, the data is uncached again after the provided time.
+     * @param uuid The UUID of the player logging in
+     * @param unloadTime The amount of milliseconds to keep the data cached for
+     * @return A CompletableFuture of the loaded instance
+     */
+    protected static CompletableFuture<OfflineBendingPlayer> prefetch(@NotNull final UUID uuid, final long unloadTime) {
+        return loadAsync(uuid, false).thenApply(bPlayer -> {
+            if (!(bPlayer instanceof BendingPlayer)) {
+                bPlayer.uncacheAfter(unloadTime);
+            }
+            return bPlayer;
+        });
+    }
+
     /**
      * Saves the subelements of a BendingPlayer to the database.
      */
@@ -490,7 +529,7 @@ public class OfflineBendingPlayer {
                 subs.append("NULL");
             }
 
-            DBConnection.sql.modifyQuery("UPDATE pk_players SET subelement = '" + subs.toString() + "' WHERE uuid = '" + uuid + "'");
+            DBConnection.sql.getWriteQueue().queue("pk_players", uuid + ":subelement", "UPDATE pk_players SET subelement = ? WHERE uuid = ?", subs.toString(), uuid.toString());
         }, 1L);
     }
 
@@ -531,7 +570,7 @@ public class OfflineBendingPlayer {
                 elements.append("NULL");
             }
 
-            DBConnection.sql.modifyQuery("UPDATE pk_players SET element = '" + elements.toString() + "' WHERE uuid = '" + uuid + "'");
+            DBConnection.sql.getWriteQueue().queue("pk_players", uuid + ":element", "UPDATE pk_players SET element = ? WHERE uuid = ?", elements.toString(), uuid.toString());
         }, 1L);
     }
 
@@ -540,24 +579,16 @@ public class OfflineBendingPlayer {
      */
     public void saveTempElements() {
         ThreadUtil.runAsyncLater(() -> {
-
-            try {
-                DBConnection.sql.getConnection().setAutoCommit(false);
-                DBConnection.sql.modifyQuery("DELETE FROM pk_temp_elements WHERE uuid = '" + uuid + "'");
-                DBConnection.sql.getConnection().commit(); //Force the delete statement to go through before the next SQL statement
-                for (Element e : this.tempElements.keySet()) {
-                    DBConnection.sql.modifyQuery("INSERT INTO pk_temp_elements (uuid, element, expiry) VALUES ('" + uuid + "', '" + e.getName() + "', " + this.tempElements.get(e) + ")");
-                }
-                for (Element e : this.tempSubElements.keySet()) {
-                    DBConnection.sql.modifyQuery("INSERT INTO pk_temp_elements (uuid, element, expiry) VALUES ('" + uuid + "', '" + e.getName() + "', " + this.tempSubElements.get(e) + ")");
-                }
-                DBConnection.sql.getConnection().commit(); //Force the delete statement to go through before the next SQL statement
-                DBConnection.sql.getConnection().setAutoCommit(true);
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
+            //The delete and inserts are queued as one group, so they are always committed together and in order
+            final List<WriteQueue.Write> writes = new ArrayList<>();
+            writes.add(new WriteQueue.Write("DELETE FROM pk_temp_elements WHERE uuid = ?", uuid.toString()));
+            for (Element e : this.tempElements.keySet()) {
+                writes.add(new WriteQueue.Write("INSERT INTO pk_temp_elements (uuid, element, expiry) VALUES (?, ?, ?)", uuid.toString(), e.getName(), this.tempElements.get(e)));
             }
-
-
+            for (Element e : this.tempSubElements.keySet()) {
+                writes.add(new WriteQueue.Write("INSERT INTO pk_temp_elements (uuid, element, expiry) VALUES (?, ?, ?)", uuid.toString(), e.getName(), this.tempSubElements.get(e)));
+            }
+            DBConnection.sql.getWriteQueue().queue("pk_temp_elements", uuid.toString(), writes.toArray(new WriteQueue.Write[0]));
         }, 1L);
     }
 
@@ -615,7 +646,7 @@ public class OfflineBendingPlayer {
             return;
         }
 
-        DBConnection.sql.modifyQuery("UPDATE pk_players SET slot" + slot + " = '" + (this.abilities.get(slot) == null ? null : abilities.get(slot)) + "' WHERE uuid = '" + uuid + "'");
+        DBConnection.sql.getWriteQueue().queue("pk_players", uuid + ":slot" + slot, "UPDATE pk_players SET slot" + slot + " = ? WHERE uuid = ?", String.valueOf(this.abilities.get(slot)), uuid.toString());
     }
 
     /**
@@ -763,11 +794,8 @@ public class OfflineBendingPlayer {
      *         </p>
      */
     public long getCooldown(final String ability) {
-        if (this.cooldowns.containsKey(ability)) {
-            return this.cooldowns.get(ability).getCooldown();
-        }
-
-        return -1;
+        final long end = this.cooldowns.getEnd(ability);
+        return end == 0 ? -1 : end;
     }
 
     /**
@@ -803,6 +831,16 @@ public class OfflineBendingPlayer {
         return this.cooldowns;
     }
 
+    /**
+     * Gets the cooldowns of the {@link BendingPlayer} without creating a
+     * {@link Cooldown} for each of them.
+     *
+     * @return table of cooldowns
+     */
+    public CooldownTable getCooldownTable() {
+        return this.cooldowns;
+    }
+
     public boolean isOnCooldown(@NotNull final Ability ability) {
         return this.isOnCooldown(ability.getName());
     }
@@ -814,11 +852,7 @@ public class OfflineBendingPlayer {
      * @return true if the cooldown map contains the ability
      */
     public boolean isOnCooldown(final String ability) {
-        if (this.cooldowns.containsKey(ability)) {
-            return true;
-        }
-
-        return false;
+        return this.cooldowns.getEnd(ability) != 0;
     }
 
     public void addCooldown(final Ability ability, final long cooldown, final boolean database) {
@@ -852,35 +886,33 @@ public class OfflineBendingPlayer {
             return;
         }
 
-        this.cooldowns.put(ability, new Cooldown(cooldown + System.currentTimeMillis(), database));
+        this.cooldowns.set(ability, cooldown + System.currentTimeMillis(), database);
 
         CooldownCommand.addCooldownType(ability);
     }
 
     /**
-     * Commits cooldowns to the database
+     * Queues the database cooldowns to be committed to the database
      */
-    private void saveCooldownsForce() {
-        DBConnection.sql.modifyQuery("DELETE FROM pk_cooldowns WHERE uuid = '" + this.uuid.toString() + "'", false);
+    private void queueCooldowns() {
+        //The delete and inserts are queued as one group, so they are always committed together and in order
+        final List<WriteQueue.Write> writes = new ArrayList<>();
+        writes.add(new WriteQueue.Write("DELETE FROM pk_cooldowns WHERE uuid = ?", this.uuid.toString()));
         for (final Map.Entry<String, Cooldown> entry : this.cooldowns.entrySet()) {
-            final String name = entry.getKey();
             final Cooldown cooldown = entry.getValue();
             if (!cooldown.isDatabase()) continue;
-            try (ResultSet rs = DBConnection.sql.readQuery("SELECT value FROM pk_cooldowns WHERE uuid = '" + this.uuid.toString() + "' AND cooldown = '" + name + "'")) {
-                if (rs.next()) {
-                    DBConnection.sql.modifyQuery("UPDATE pk_cooldowns SET value = " + cooldown.getCooldown() + " WHERE uuid = '" + this.uuid.toString() + "' AND cooldown = '" + name + "'", false);
-                } else {
-                    DBConnection.sql.modifyQuery("INSERT INTO  pk_cooldowns (uuid, cooldown, value) VALUES ('" + this.uuid.toString() + "', '" + name + "', " + cooldown.getCooldown() + ")", false);
-                }
-            } catch (final SQLException e) {
-                e.printStackTrace();
-            }
+            writes.add(new WriteQueue.Write("INSERT INTO pk_cooldowns (uuid, cooldown, value) VALUES (?, ?, ?)", this.uuid.toString(), entry.getKey(), cooldown.getCooldown()));
         }
+        DBConnection.sql.getWriteQueue().queue("pk_cooldowns", this.uuid.toString(), writes.toArray(new WriteQueue.Write[0]));
     }
 
+    /**
+     * Commits cooldowns to the database
+     * @param async If false, this blocks until the cooldowns are committed
+     */
     public void saveCooldowns(boolean async) {
-        if (async) ThreadUtil.runAsync(this::saveCooldownsForce);
-        else this.saveCooldownsForce();
+        this.queueCooldowns();
+        if (!async) DBConnection.sql.flush();
     }
 
     public void saveCooldowns() {
@@ -1087,7 +1119,7 @@ public class OfflineBendingPlayer {
         this.abilities = abilities;
 
         for (int i = 1; i <= 9; i++) {
-            DBConnection.sql.modifyQuery("UPDATE pk_players SET slot" + i + " = '" + abilities.get(i) + "' WHERE uuid = '" + this.uuid + "'");
+            DBConnection.sql.getWriteQueue().queue("pk_players", this.uuid + ":slot" + i, "UPDATE pk_players SET slot" + i + " = ? WHERE uuid = ?", String.valueOf(abilities.get(i)), this.uuid.toString());
         }
     }
 
@@ -1109,7 +1141,7 @@ public class OfflineBendingPlayer {
      */
     public void setPermaRemoved(final boolean permaRemoved) {
         this.permaRemoved = permaRemoved;
-        DBConnection.sql.modifyQuery("UPDATE pk_players SET permaremoved = '" + (permaRemoved ? "true" : "false") + "' WHERE uuid = '" + uuid + "'");
+        DBConnection.sql.getWriteQueue().queue("pk_players", uuid + ":permaremoved", "UPDATE pk_players SET permaremoved = ? WHERE uuid = ?", permaRemoved ? "true" : "false", uuid.toString());
     }
 
     public void toggleBending() {
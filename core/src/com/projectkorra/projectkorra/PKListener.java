@@ -8,6 +8,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import com.projectkorra.projectkorra.Element.SubElement;
@@ -15,13 +20,13 @@ import com.projectkorra.projectkorra.ability.Ability;
 import com.projectkorra.projectkorra.ability.AddonAbility;
 import com.projectkorra.projectkorra.ability.AirAbility;
 import com.projectkorra.projectkorra.ability.AvatarAbility;
-import com.projectkorra.projectkorra.ability.BlueFireAbility;
 import com.projectkorra.projectkorra.ability.ChiAbility;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.WaterAbility;
+import com.projectkorra.projectkorra.ability.util.ActivationRegistry;
 import com.projectkorra.projectkorra.ability.util.ComboManager;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager;
 import com.projectkorra.projectkorra.ability.util.PassiveManager;
@@ -36,11 +41,6 @@ import com.projectkorra.projectkorra.airbending.Suffocate;
 import com.projectkorra.projectkorra.airbending.Tornado;
 import com.projectkorra.projectkorra.airbending.flight.FlightMultiAbility;
 import com.projectkorra.projectkorra.airbending.passive.GracefulDescent;
-import com.projectkorra.projectkorra.attribute.Attribute;
-import com.projectkorra.projectkorra.attribute.AttributeCache;
-import com.projectkorra.projectkorra.attribute.AttributeModification;
-import com.projectkorra.projectkorra.attribute.AttributeModifier;
-import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
 import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.board.BendingBoardManager;
 import com.projectkorra.projectkorra.chiblocking.AcrobatStance;
@@ -77,7 +77,6 @@ import com.projectkorra.projectkorra.earthbending.metal.MetalClips;
 import com.projectkorra.projectkorra.earthbending.passive.DensityShift;
 import com.projectkorra.projectkorra.earthbending.passive.EarthPassive;
 import com.projectkorra.projectkorra.earthbending.passive.FerroControl;
-import com.projectkorra.projectkorra.event.AbilityRecalculateAttributeEvent;
 import com.projectkorra.projectkorra.event.EntityBendingDeathEvent;
 import com.projectkorra.projectkorra.event.HorizontalVelocityChangeEvent;
 import com.projectkorra.projectkorra.event.PlayerBindChangeEvent;
@@ -115,6 +114,7 @@ import com.projectkorra.projectkorra.util.FlightHandler;
 import com.projectkorra.projectkorra.util.FlightHandler.Flight;
 import com.projectkorra.projectkorra.util.MovementHandler;
 import com.projectkorra.projectkorra.util.PassiveHandler;
+import com.projectkorra.projectkorra.util.Profiler;
 import com.projectkorra.projectkorra.util.StatisticsManager;
 import com.projectkorra.projectkorra.util.StatisticsMethods;
 import com.projectkorra.projectkorra.util.TempArmor;
@@ -192,6 +192,7 @@ import org.bukkit.event.entity.SlimeSplitEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryPickupItemEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerGameModeChangeEvent;
@@ -207,6 +208,7 @@ import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.event.player.PlayerToggleFlightEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
@@ -226,6 +228,204 @@ public class PKListener implements Listener {
 
 	public PKListener(final ProjectKorra plugin) {
 		this.plugin = plugin;
+		registerActivations();
+	}
+
+	/**
+	 * Registers what the core abilities do when they are clicked or sneaked with
+	 */
+	private static void registerActivations() {
+		//Air
+		ActivationRegistry.register("AirBlast", ClickType.LEFT_CLICK, (player, bPlayer) -> new AirBlast(player));
+		ActivationRegistry.register("AirBlast", ClickType.SHIFT_DOWN, (player, bPlayer) -> AirBlast.setOrigin(player));
+		ActivationRegistry.register("AirSuction", ClickType.LEFT_CLICK, (player, bPlayer) -> AirSuction.shoot(player));
+		ActivationRegistry.register("AirSuction", ClickType.SHIFT_DOWN, (player, bPlayer) -> new AirSuction(player));
+		ActivationRegistry.register("AirBurst", ClickType.LEFT_CLICK, (player, bPlayer) -> AirBurst.coneBurst(player));
+		ActivationRegistry.register("AirBurst", ClickType.SHIFT_DOWN, (player, bPlayer) -> new AirBurst(player, false));
+		ActivationRegistry.register("AirScooter", ClickType.LEFT_CLICK, (player, bPlayer) -> new AirScooter(player));
+		ActivationRegistry.register("AirSpout", ClickType.LEFT_CLICK, (player, bPlayer) -> new AirSpout(player));
+		ActivationRegistry.register("AirSwipe", ClickType.LEFT_CLICK, (player, bPlayer) -> new AirSwipe(player));
+		ActivationRegistry.register("AirSwipe", ClickType.SHIFT_DOWN, (player, bPlayer) -> new AirSwipe(player, true));
+		ActivationRegistry.register("Flight", ClickType.LEFT_CLICK, (player, bPlayer) -> new FlightMultiAbility(player));
+		ActivationRegistry.register("Tornado", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Tornado(player));
+		ActivationRegistry.register("AirShield", ClickType.SHIFT_DOWN, (player, bPlayer) -> new AirShield(player));
+		ActivationRegistry.register("Suffocate", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Suffocate(player));
+
+		//Water
+		ActivationRegistry.register("Bloodbending", ClickType.LEFT_CLICK, (player, bPlayer) -> Bloodbending.launch(player));
+		ActivationRegistry.register("Bloodbending", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Bloodbending(player));
+		ActivationRegistry.register("IceBlast", ClickType.LEFT_CLICK, (player, bPlayer) -> IceBlast.activate(player));
+		ActivationRegistry.register("IceBlast", ClickType.SHIFT_DOWN, (player, bPlayer) -> new IceBlast(player));
+		ActivationRegistry.register("IceSpike", ClickType.LEFT_CLICK, (player, bPlayer) -> IceSpikeBlast.activate(player));
+		ActivationRegistry.register("IceSpike", ClickType.SHIFT_DOWN, (player, bPlayer) -> new IceSpikeBlast(player));
+		ActivationRegistry.register("OctopusForm", ClickType.LEFT_CLICK, (player, bPlayer) -> new OctopusForm(player));
+		ActivationRegistry.register("OctopusForm", ClickType.SHIFT_DOWN, (player, bPlayer) -> OctopusForm.form(player));
+		ActivationRegistry.register("PhaseChange", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
+				new PhaseChange(player, PhaseChangeType.FREEZE);
+			} else {
+				final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
+				pc.startNewType(PhaseChangeType.FREEZE);
+			}
+		});
+		ActivationRegistry.register("PhaseChange", ClickType.SHIFT_DOWN, (player, bPlayer) -> {
+			if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
+				new PhaseChange(player, PhaseChangeType.MELT);
+			} else {
+				final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
+				pc.startNewType(PhaseChangeType.MELT);
+			}
+		});
+		ActivationRegistry.register("WaterBubble", ClickType.LEFT_CLICK, (player, bPlayer) -> new WaterBubble(player, false));
+		ActivationRegistry.register("WaterBubble", ClickType.SHIFT_DOWN, (player, bPlayer) -> new WaterBubble(player, true));
+		ActivationRegistry.register("WaterSpout", ClickType.LEFT_CLICK, (player, bPlayer) -> new WaterSpout(player));
+		ActivationRegistry.register("WaterManipulation", ClickType.LEFT_CLICK, (player, bPlayer) -> WaterManipulation.moveWater(player));
+		ActivationRegistry.register("WaterManipulation", ClickType.SHIFT_DOWN, (player, bPlayer) -> new WaterManipulation(player));
+		ActivationRegistry.register("Surge", ClickType.LEFT_CLICK, (player, bPlayer) -> new SurgeWall(player));
+		ActivationRegistry.register("Surge", ClickType.SHIFT_DOWN, (player, bPlayer) -> SurgeWall.form(player));
+		ActivationRegistry.register("Torrent", ClickType.LEFT_CLICK, (player, bPlayer) -> new Torrent(player));
+		ActivationRegistry.register("Torrent", ClickType.SHIFT_DOWN, (player, bPlayer) -> Torrent.create(player));
+		ActivationRegistry.register("WaterArms", ClickType.SHIFT_DOWN, (player, bPlayer) -> new WaterArms(player));
+		ActivationRegistry.register("HealingWaters", ClickType.SHIFT_DOWN, (player, bPlayer) -> new HealingWaters(player));
+
+		//Earth
+		ActivationRegistry.register("Catapult", ClickType.LEFT_CLICK, (player, bPlayer) -> new Catapult(player, false));
+		ActivationRegistry.register("Catapult", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Catapult(player, true));
+		ActivationRegistry.register("EarthBlast", ClickType.LEFT_CLICK, (player, bPlayer) -> EarthBlast.throwEarth(player));
+		ActivationRegistry.register("EarthBlast", ClickType.SHIFT_DOWN, (player, bPlayer) -> new EarthBlast(player));
+		ActivationRegistry.register("RaiseEarth", ClickType.LEFT_CLICK, (player, bPlayer) -> new RaiseEarth(player));
+		ActivationRegistry.register("RaiseEarth", ClickType.SHIFT_DOWN, (player, bPlayer) -> new RaiseEarthWall(player));
+		ActivationRegistry.register("Collapse", ClickType.LEFT_CLICK, (player, bPlayer) -> new Collapse(player));
+		ActivationRegistry.register("Collapse", ClickType.SHIFT_DOWN, (player, bPlayer) -> new CollapseWall(player));
+		ActivationRegistry.register("Shockwave", ClickType.LEFT_CLICK, (player, bPlayer) -> Shockwave.coneShockwave(player));
+		ActivationRegistry.register("Shockwave", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Shockwave(player, false));
+		ActivationRegistry.register("EarthArmor", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			final EarthArmor armor = CoreAbility.getAbility(player, EarthArmor.class);
+			if (armor != null && armor.isFormed()) {
+				armor.click();
+			}
+		});
+		ActivationRegistry.register("EarthArmor", ClickType.SHIFT_DOWN, (player, bPlayer) -> new EarthArmor(player));
+		ActivationRegistry.register("EarthTunnel", ClickType.SHIFT_DOWN, (player, bPlayer) -> new EarthTunnel(player));
+		ActivationRegistry.register("Tremorsense", ClickType.LEFT_CLICK, (player, bPlayer) -> new Tremorsense(player, true));
+		ActivationRegistry.register("Tremorsense", ClickType.SHIFT_DOWN, (player, bPlayer) -> {
+			bPlayer.toggleTremorSense();
+			ChatUtil.displayMovePreview(player);
+			BendingBoardManager.updateAllSlots(player);
+		});
+		ActivationRegistry.register("Extraction", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Extraction(player));
+		ActivationRegistry.register("MetalClips", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
+			if (clips == null) {
+				new MetalClips(player, 0);
+			} else if (clips.getMetalClipsCount() < (player.hasPermission("bending.ability.MetalClips.4clips") ? 4 : 3)) {
+				clips.shootMetal();
+			} else if (clips.getMetalClipsCount() == 4 && clips.isCanUse4Clips()) {
+				clips.crush();
+			}
+		});
+		ActivationRegistry.register("MetalClips", ClickType.SHIFT_DOWN, (player, bPlayer) -> {
+			final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
+			if (clips != null) {
+				if (clips.getTargetEntity() == null) {
+					clips.setMagnetized(true);
+				} else {
+					clips.setControlling(true);
+				}
+			} else {
+				new MetalClips(player, 1);
+			}
+		});
+		ActivationRegistry.register("LavaSurge", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			final LavaSurge surge = CoreAbility.getAbility(player, LavaSurge.class);
+			if (surge != null) {
+				surge.launch();
+			}
+		});
+		ActivationRegistry.register("LavaFlow", ClickType.LEFT_CLICK, (player, bPlayer) -> new LavaFlow(player, AbilityType.CLICK));
+		ActivationRegistry.register("LavaFlow", ClickType.SHIFT_DOWN, (player, bPlayer) -> new LavaFlow(player, LavaFlow.AbilityType.SHIFT));
+		ActivationRegistry.register("EarthSmash", ClickType.LEFT_CLICK, (player, bPlayer) -> new EarthSmash(player, ClickType.LEFT_CLICK));
+		ActivationRegistry.register("EarthSmash", ClickType.SHIFT_DOWN, (player, bPlayer) -> new EarthSmash(player, ClickType.SHIFT_DOWN));
+		ActivationRegistry.register("EarthGrab", ClickType.LEFT_CLICK, (player, bPlayer) -> new EarthGrab(player, GrabMode.PROJECTING));
+		ActivationRegistry.register("EarthGrab", ClickType.SHIFT_DOWN, (player, bPlayer) -> new EarthGrab(player, GrabMode.DRAG));
+
+		//Fire
+		ActivationRegistry.register("Blaze", ClickType.LEFT_CLICK, (player, bPlayer) -> new Blaze(player));
+		ActivationRegistry.register("Blaze", ClickType.SHIFT_DOWN, (player, bPlayer) -> new BlazeRing(player));
+		ActivationRegistry.register("FireBlast", ClickType.LEFT_CLICK, (player, bPlayer) -> new FireBlast(player));
+		ActivationRegistry.register("FireBlast", ClickType.SHIFT_DOWN, (player, bPlayer) -> new FireBlastCharged(player));
+		ActivationRegistry.register("FireJet", ClickType.LEFT_CLICK, (player, bPlayer) -> new FireJet(player));
+		ActivationRegistry.register("HeatControl", ClickType.LEFT_CLICK, (player, bPlayer) -> new HeatControl(player, HeatControlType.MELT));
+		ActivationRegistry.register("HeatControl", ClickType.SHIFT_DOWN, (player, bPlayer) -> new HeatControl(player, HeatControlType.COOK));
+		ActivationRegistry.register("Illumination", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			if (ConfigManager.defaultConfig.get().getBoolean("Abilities.Fire.Illumination.Passive")) {
+				bPlayer.toggleIllumination();
+				ChatUtil.displayMovePreview(player);
+				BendingBoardManager.updateAllSlots(player);
+			} else {
+				new Illumination(player);
+			}
+		});
+		ActivationRegistry.register("FireBurst", ClickType.LEFT_CLICK, (player, bPlayer) -> FireBurst.coneBurst(player));
+		ActivationRegistry.register("FireBurst", ClickType.SHIFT_DOWN, (player, bPlayer) -> new FireBurst(player));
+		ActivationRegistry.register("FireShield", ClickType.LEFT_CLICK, (player, bPlayer) -> new FireShield(player));
+		ActivationRegistry.register("FireShield", ClickType.SHIFT_DOWN, (player, bPlayer) -> new FireShield(player, true));
+		ActivationRegistry.register("WallOfFire", ClickType.LEFT_CLICK, (player, bPlayer) -> new WallOfFire(player));
+		ActivationRegistry.register("Lightning", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Lightning(player));
+		ActivationRegistry.register("Combustion", ClickType.LEFT_CLICK, (player, bPlayer) -> Combustion.explode(player));
+		ActivationRegistry.register("Combustion", ClickType.SHIFT_DOWN, (player, bPlayer) -> new Combustion(player));
+		ActivationRegistry.register("FireManipulation", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			if (CoreAbility.hasAbility(player, FireManipulation.class)) {
+				final FireManipulation fireManip = CoreAbility.getAbility(player, FireManipulation.class);
+				if (fireManip.getFireManipulationType() == FireManipulationType.SHIFT) {
+					fireManip.click();
+				}
+			} else {
+				new FireManipulation(player, FireManipulationType.CLICK);
+			}
+		});
+		ActivationRegistry.register("FireManipulation", ClickType.SHIFT_DOWN, (player, bPlayer) -> new FireManipulation(player, FireManipulationType.SHIFT));
+
+		//Chi
+		ActivationRegistry.register("HighJump", ClickType.LEFT_CLICK, (player, bPlayer) -> new HighJump(player));
+		ActivationRegistry.register("Smokescreen", ClickType.LEFT_CLICK, (player, bPlayer) -> new Smokescreen(player));
+		ActivationRegistry.register("WarriorStance", ClickType.LEFT_CLICK, (player, bPlayer) -> new WarriorStance(player));
+		ActivationRegistry.register("AcrobatStance", ClickType.LEFT_CLICK, (player, bPlayer) -> new AcrobatStance(player));
+
+		//Avatar
+		ActivationRegistry.register("AvatarState", ClickType.LEFT_CLICK, (player, bPlayer) -> {
+			new AvatarState(player);
+			ChatUtil.displayMovePreview(player);
+			BendingBoardManager.updateAllSlots(player);
+		});
+	}
+
+	/**
+	 * Checks if the element of an ability is toggled on and whether the player can bend with what they are holding,
+	 * which is required before a click or sneak can activate the ability
+	 */
+	private static boolean canActivate(final BendingPlayer bPlayer, final CoreAbility coreAbil) {
+		if (coreAbil instanceof AddonAbility) {
+			return bPlayer.canCurrentlyBendWithWeapons();
+		} else if (coreAbil instanceof AvatarAbility) {
+			return true;
+		}
+
+		final Element element;
+		if (coreAbil instanceof AirAbility) {
+			element = Element.AIR;
+		} else if (coreAbil instanceof WaterAbility) {
+			element = Element.WATER;
+		} else if (coreAbil instanceof EarthAbility) {
+			element = Element.EARTH;
+		} else if (coreAbil instanceof FireAbility) {
+			element = Element.FIRE;
+		} else if (coreAbil instanceof ChiAbility) {
+			element = Element.CHI;
+		} else {
+			return false;
+		}
+		return bPlayer.isElementToggled(element) && bPlayer.canCurrentlyBendWithWeapons();
 	}
 
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
@@ -402,6 +602,15 @@ public class PKListener implements Listener {
 
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onBlockPhysics(final BlockPhysicsEvent event) {
+		final boolean profiling = Profiler.start("listener", "BlockPhysicsEvent");
+		try {
+			this.handleBlockPhysics(event);
+		} finally {
+			if (profiling) Profiler.stop();
+		}
+	}
+
+	private void handleBlockPhysics(final BlockPhysicsEvent event) {
 		final Block block = event.getBlock();
 
 		//try (MCTiming timing = TimingPhysicsWaterManipulationCheck.startTiming()) {
@@ -1281,13 +1490,43 @@ public class PKListener implements Listener {
 		}
 	}
 
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerPreLogin(final AsyncPlayerPreLoginEvent event) {
+		if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED || !ConfigManager.getConfig().getBoolean("Properties.PlayerDataPrefetch.Enabled")) {
+			return;
+		}
+
+		final OfflinePlayer oPlayer = Bukkit.getOfflinePlayer(event.getUniqueId());
+		if (!oPlayer.hasPlayedBefore()) { //New players have nothing to load
+			return;
+		}
+
+		//Load the player's bending data while they log in, so it is ready when they join
+		final CompletableFuture<OfflineBendingPlayer> future = OfflineBendingPlayer.prefetch(event.getUniqueId(), ConfigManager.getConfig().getLong("Properties.PlayerDataPrefetch.UnloadTime"));
+		try {
+			//This thread only handles this login, so hold it until the data is ready, within reason
+			future.get(ConfigManager.getConfig().getLong("Properties.PlayerDataPrefetch.Timeout"), TimeUnit.MILLISECONDS);
+		} catch (final TimeoutException e) {
+			ProjectKorra.log.warning("Bending data for " + event.getName() + " is taking long to load, they may join before it is ready.");
+		} catch (final ExecutionException | CancellationException e) {
+			ProjectKorra.log.warning("Failed to prefetch the bending data of " + event.getName() + ".");
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	@EventHandler
 	public void onPlayerJoin(final PlayerJoinEvent event) {
 		final Player player = event.getPlayer();
 		JUMPS.put(player, player.getStatistic(Statistic.JUMP));
 
-		//Load the player's bending data from the database
-		BendingPlayer.getOrLoadOfflineAsync(player);
+		//Load the player's bending data from the database, or convert the data prefetched during login
+		BendingPlayer.getOrLoadOfflineAsync(player).thenAccept(bPlayer -> {
+			//The prefetch finished loading after they joined but before it noticed, so convert it now
+			if (!(bPlayer instanceof BendingPlayer) && player.isOnline()) {
+				ThreadUtil.ensureEntity(player, () -> BendingPlayer.getOrLoadOfflineAsync(player));
+			}
+		});
 
 		if (ProjectKorra.isStatisticsEnabled()) {
 			Manager.getManager(StatisticsManager.class).load(player.getUniqueId());
@@ -1329,6 +1568,15 @@ public class PKListener implements Listener {
 
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onPlayerMove(final PlayerMoveEvent event) {
+		final boolean profiling = Profiler.start("listener", "PlayerMoveEvent");
+		try {
+			this.handlePlayerMove(event);
+		} finally {
+			if (profiling) Profiler.stop();
+		}
+	}
+
+	private void handlePlayerMove(final PlayerMoveEvent event) {
 		if (BendingPlayer.isWorldDisabled(event.getPlayer().getWorld())) {
 			return;
 		}
@@ -1443,6 +1691,8 @@ public class PKListener implements Listener {
 		Commands.invincible.remove(player.getName());
 
 		Preset.unloadPreset(player);
+		RegionProtection.clearCache(player);
+		BlockSource.remove(player);
 
 		if (TempArmor.hasTempArmor(player)) {
 			for (final TempArmor armor : TempArmor.getTempArmorList(player)) {
@@ -1527,7 +1777,6 @@ public class PKListener implements Listener {
 		}
 
 		final CoreAbility coreAbil = bPlayer.getBoundAbility();
-		final String abil = bPlayer.getBoundAbilityName();
 
 		if (coreAbil == null || !coreAbil.isSneakAbility()) {
 			if (PassiveManager.hasPassive(player, CoreAbility.getAbility(FerroControl.class))) {
@@ -1543,137 +1792,8 @@ public class PKListener implements Listener {
 			return;
 		}
 
-		if (!player.isSneaking() && bPlayer.canBendIgnoreCooldowns(coreAbil)) {
-			if (coreAbil instanceof AddonAbility) {
-				return;
-			}
-
-			if (coreAbil instanceof AirAbility && bPlayer.isElementToggled(Element.AIR)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Tornado")) {
-						new Tornado(player);
-					} else if (abil.equalsIgnoreCase("AirBlast")) {
-						AirBlast.setOrigin(player);
-					} else if (abil.equalsIgnoreCase("AirBurst")) {
-						new AirBurst(player, false);
-					} else if (abil.equalsIgnoreCase("AirSuction")) {
-						new AirSuction(player);
-					} else if (abil.equalsIgnoreCase("AirSwipe")) {
-						new AirSwipe(player, true);
-					} else if (abil.equalsIgnoreCase("AirShield")) {
-						new AirShield(player);
-					} else if (abil.equalsIgnoreCase("Suffocate")) {
-						new Suffocate(player);
-					}
-				}
-			}
-
-			if (coreAbil instanceof WaterAbility && bPlayer.isElementToggled(Element.WATER)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Bloodbending")) {
-						new Bloodbending(player);
-					} else if (abil.equalsIgnoreCase("IceBlast")) {
-						new IceBlast(player);
-					} else if (abil.equalsIgnoreCase("IceSpike")) {
-						new IceSpikeBlast(player);
-					} else if (abil.equalsIgnoreCase("OctopusForm")) {
-						OctopusForm.form(player);
-					} else if (abil.equalsIgnoreCase("PhaseChange")) {
-						if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
-							new PhaseChange(player, PhaseChangeType.MELT);
-						} else {
-							final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
-							pc.startNewType(PhaseChangeType.MELT);
-						}
-					} else if (abil.equalsIgnoreCase("WaterManipulation")) {
-						new WaterManipulation(player);
-					} else if (abil.equalsIgnoreCase("WaterBubble")) {
-						new WaterBubble(player, true);
-					} else if (abil.equalsIgnoreCase("Surge")) {
-						SurgeWall.form(player);
-					} else if (abil.equalsIgnoreCase("Torrent")) {
-						Torrent.create(player);
-					} else if (abil.equalsIgnoreCase("WaterArms")) {
-						new WaterArms(player);
-					} else if (abil.equalsIgnoreCase("HealingWaters")) {
-						new HealingWaters(player);
-//					} else if (abil.equalsIgnoreCase("PlantTether")) {
-//						if (CoreAbility.hasAbility(player, PlantTether.class)) {
-//							final PlantTether pt = CoreAbility.getAbility(player, PlantTether.class);
-//							if (pt.isInitial()) {
-//								pt.searchForEntity();
-//							}
-//						} else {
-//							new PlantTether(player);
-//						}
-					}
-				}
-			}
-
-			if (coreAbil instanceof EarthAbility && bPlayer.isElementToggled(Element.EARTH)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Catapult")) {
-						new Catapult(player, true);
-					} else if (abil.equalsIgnoreCase("EarthBlast")) {
-						new EarthBlast(player);
-					} else if (abil.equalsIgnoreCase("EarthArmor")) {
-						new EarthArmor(player);
-					} else if (abil.equalsIgnoreCase("RaiseEarth")) {
-						new RaiseEarthWall(player);
-					} else if (abil.equalsIgnoreCase("Collapse")) {
-						new CollapseWall(player);
-					} else if (abil.equalsIgnoreCase("Shockwave")) {
-						new Shockwave(player, false);
-					} else if (abil.equalsIgnoreCase("EarthTunnel")) {
-						new EarthTunnel(player);
-					} else if (abil.equalsIgnoreCase("Tremorsense")) {
-						bPlayer.toggleTremorSense();
-						ChatUtil.displayMovePreview(player);
-						BendingBoardManager.updateAllSlots(player);
-					} else if (abil.equalsIgnoreCase("Extraction")) {
-						new Extraction(player);
-					} else if (abil.equalsIgnoreCase("LavaFlow")) {
-						new LavaFlow(player, LavaFlow.AbilityType.SHIFT);
-					} else if (abil.equalsIgnoreCase("EarthSmash")) {
-						new EarthSmash(player, ClickType.SHIFT_DOWN);
-					} else if (abil.equalsIgnoreCase("MetalClips")) {
-						final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
-						if (clips != null) {
-							if (clips.getTargetEntity() == null) {
-								clips.setMagnetized(true);
-							} else {
-								clips.setControlling(true);
-							}
-						} else {
-							new MetalClips(player, 1);
-						}
-					} else if (abil.equalsIgnoreCase("EarthGrab")) {
-						new EarthGrab(player, GrabMode.DRAG);
-					}
-				}
-			}
-
-			if (coreAbil instanceof FireAbility && bPlayer.isElementToggled(Element.FIRE)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Blaze")) {
-						new BlazeRing(player);
-					} else if (abil.equalsIgnoreCase("FireBlast")) {
-						new FireBlastCharged(player);
-					} else if (abil.equalsIgnoreCase("HeatControl")) {
-						new HeatControl(player, HeatControlType.COOK);
-					} else if (abil.equalsIgnoreCase("FireBurst")) {
-						new FireBurst(player);
-					} else if (abil.equalsIgnoreCase("FireShield")) {
-						new FireShield(player, true);
-					} else if (abil.equalsIgnoreCase("Lightning")) {
-						new Lightning(player);
-					} else if (abil.equalsIgnoreCase("Combustion")) {
-						new Combustion(player);
-					} else if (abil.equalsIgnoreCase("FireManipulation")) {
-						new FireManipulation(player, FireManipulationType.SHIFT);
-					}
-				}
-			}
+		if (!player.isSneaking() && bPlayer.canBendIgnoreCooldowns(coreAbil) && canActivate(bPlayer, coreAbil)) {
+			ActivationRegistry.activate(coreAbil, ClickType.SHIFT_DOWN, player, bPlayer);
 		}
 	}
 
@@ -1793,178 +1913,24 @@ public class PKListener implements Listener {
 		}
 		BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
 
-		String abil = bPlayer.getBoundAbilityName();
 		final CoreAbility coreAbil = bPlayer.getBoundAbility();
 
 		if (coreAbil == null && !MultiAbilityManager.hasMultiAbilityBound(player)) {
 			return;
-		} else if (bPlayer.canBendIgnoreCooldowns(coreAbil)) {
-			if (coreAbil instanceof AddonAbility) {
-				return;
-			}
-
-			if (coreAbil instanceof AirAbility && bPlayer.isElementToggled(Element.AIR)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("AirBlast")) {
-						new AirBlast(player);
-					} else if (abil.equalsIgnoreCase("AirSuction")) {
-						AirSuction.shoot(player);
-					} else if (abil.equalsIgnoreCase("AirBurst")) {
-						AirBurst.coneBurst(player);
-					} else if (abil.equalsIgnoreCase("AirScooter")) {
-						new AirScooter(player);
-					} else if (abil.equalsIgnoreCase("AirSpout")) {
-						new AirSpout(player);
-					} else if (abil.equalsIgnoreCase("AirSwipe")) {
-						new AirSwipe(player);
-					} else if (abil.equalsIgnoreCase("Flight")) {
-						new FlightMultiAbility(player);
-						return;
-					}
-				}
-			}
-
-			if (coreAbil instanceof WaterAbility && bPlayer.isElementToggled(Element.WATER)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (CoreAbility.hasAbility(player, IceBullet.class)) {
-						CoreAbility.getAbility(player, IceBullet.class).doLeftClick();
-					}
-
-					if (abil.equalsIgnoreCase("Bloodbending")) {
-						Bloodbending.launch(player);
-					} else if (abil.equalsIgnoreCase("IceBlast")) {
-						IceBlast.activate(player);
-					} else if (abil.equalsIgnoreCase("IceSpike")) {
-						IceSpikeBlast.activate(player);
-					} else if (abil.equalsIgnoreCase("OctopusForm")) {
-						new OctopusForm(player);
-					} else if (abil.equalsIgnoreCase("PhaseChange")) {
-						if (!CoreAbility.hasAbility(player, PhaseChange.class)) {
-							new PhaseChange(player, PhaseChangeType.FREEZE);
-						} else {
-							final PhaseChange pc = CoreAbility.getAbility(player, PhaseChange.class);
-							pc.startNewType(PhaseChangeType.FREEZE);
-						}
-					} else if (abil.equalsIgnoreCase("WaterBubble")) {
-						new WaterBubble(player, false);
-					} else if (abil.equalsIgnoreCase("WaterSpout")) {
-						new WaterSpout(player);
-					} else if (abil.equalsIgnoreCase("WaterManipulation")) {
-						WaterManipulation.moveWater(player);
-					} else if (abil.equalsIgnoreCase("Surge")) {
-						new SurgeWall(player);
-					} else if (abil.equalsIgnoreCase("Torrent")) {
-						new Torrent(player);
-					}
-				}
-			}
-
-			if (coreAbil instanceof EarthAbility && bPlayer.isElementToggled(Element.EARTH)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Catapult")) {
-						new Catapult(player, false);
-					} else if (abil.equalsIgnoreCase("EarthBlast")) {
-						EarthBlast.throwEarth(player);
-					} else if (abil.equalsIgnoreCase("RaiseEarth")) {
-						new RaiseEarth(player);
-					} else if (abil.equalsIgnoreCase("Collapse")) {
-						new Collapse(player);
-					} else if (abil.equalsIgnoreCase("Shockwave")) {
-						Shockwave.coneShockwave(player);
-					} else if (abil.equalsIgnoreCase("EarthArmor")) {
-						final EarthArmor armor = CoreAbility.getAbility(player, EarthArmor.class);
-						if (armor != null && armor.isFormed()) {
-							armor.click();
-						}
-					} else if (abil.equalsIgnoreCase("Tremorsense")) {
-						new Tremorsense(player, true);
-					} else if (abil.equalsIgnoreCase("MetalClips")) {
-						final MetalClips clips = CoreAbility.getAbility(player, MetalClips.class);
-						if (clips == null) {
-							new MetalClips(player, 0);
-						} else if (clips.getMetalClipsCount() < (player.hasPermission("bending.ability.MetalClips.4clips") ? 4 : 3)) {
-							clips.shootMetal();
-						} else if (clips.getMetalClipsCount() == 4 && clips.isCanUse4Clips()) {
-							clips.crush();
-						}
-					} else if (abil.equalsIgnoreCase("LavaSurge")) {
-						final LavaSurge surge = CoreAbility.getAbility(player, LavaSurge.class);
-						if (surge != null) {
-							surge.launch();
-						}
-					} else if (abil.equalsIgnoreCase("LavaFlow")) {
-						new LavaFlow(player, AbilityType.CLICK);
-					} else if (abil.equalsIgnoreCase("EarthSmash")) {
-						new EarthSmash(player, ClickType.LEFT_CLICK);
-					} else if (abil.equalsIgnoreCase("EarthGrab")) {
-						new EarthGrab(player, GrabMode.PROJECTING);
-					}
-				}
-			}
+		}
 
-			if (coreAbil instanceof FireAbility && bPlayer.isElementToggled(Element.FIRE)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("Blaze")) {
-						new Blaze(player);
-					} else if (abil.equalsIgnoreCase("FireBlast")) {
-						new FireBlast(player);
-					} else if (abil.equalsIgnoreCase("FireJet")) {
-						new FireJet(player);
-					} else if (abil.equalsIgnoreCase("HeatControl")) {
-						new HeatControl(player, HeatControlType.MELT);
-					} else if (abil.equalsIgnoreCase("Illumination")) {
-						if (ConfigManager.defaultConfig.get().getBoolean("Abilities.Fire.Illumination.Passive")) {
-							bPlayer.toggleIllumination();
-							ChatUtil.displayMovePreview(player);
-							BendingBoardManager.updateAllSlots(player);
-						} else {
-							new Illumination(player);
-						}
-					} else if (abil.equalsIgnoreCase("FireBurst")) {
-						FireBurst.coneBurst(player);
-					} else if (abil.equalsIgnoreCase("FireShield")) {
-						new FireShield(player);
-					} else if (abil.equalsIgnoreCase("WallOfFire")) {
-						new WallOfFire(player);
-					} else if (abil.equalsIgnoreCase("Combustion")) {
-						Combustion.explode(player);
-					} else if (abil.equalsIgnoreCase("FireManipulation")) {
-						if (CoreAbility.hasAbility(player, FireManipulation.class)) {
-							final FireManipulation fireManip = CoreAbility.getAbility(player, FireManipulation.class);
-							if (fireManip.getFireManipulationType() == FireManipulationType.SHIFT) {
-								fireManip.click();
-							}
-						} else {
-							new FireManipulation(player, FireManipulationType.CLICK);
-						}
-					}
-				}
-			}
+		//Activating an ability can bind a multi ability, which shouldn't be triggered by the same click
+		final boolean multiAbilityBound = MultiAbilityManager.hasMultiAbilityBound(player);
 
-			if (coreAbil instanceof ChiAbility && bPlayer.isElementToggled(Element.CHI)) {
-				if (bPlayer.canCurrentlyBendWithWeapons()) {
-					if (abil.equalsIgnoreCase("HighJump")) {
-						new HighJump(player);
-					} else if (abil.equalsIgnoreCase("Smokescreen")) {
-						new Smokescreen(player);
-					} else if (abil.equalsIgnoreCase("WarriorStance")) {
-						new WarriorStance(player);
-					} else if (abil.equalsIgnoreCase("AcrobatStance")) {
-						new AcrobatStance(player);
-					}
-				}
+		if (bPlayer.canBendIgnoreCooldowns(coreAbil) && canActivate(bPlayer, coreAbil)) {
+			if (coreAbil instanceof WaterAbility && !(coreAbil instanceof AddonAbility) && CoreAbility.hasAbility(player, IceBullet.class)) {
+				CoreAbility.getAbility(player, IceBullet.class).doLeftClick();
 			}
 
-			if (coreAbil instanceof AvatarAbility) {
-				if (abil.equalsIgnoreCase("AvatarState")) {
-					new AvatarState(player);
-					ChatUtil.displayMovePreview(player);
-					BendingBoardManager.updateAllSlots(player);
-				}
-			}
+			ActivationRegistry.activate(coreAbil, ClickType.LEFT_CLICK, player, bPlayer);
 		}
-		if (MultiAbilityManager.hasMultiAbilityBound(player)) {
-			abil = MultiAbilityManager.getBoundMultiAbility(player);
+		if (multiAbilityBound) {
+			final String abil = MultiAbilityManager.getBoundMultiAbility(player);
 			if (abil.equalsIgnoreCase("WaterArms")) {
 				new WaterArms(player);
 			} else if (abil.equalsIgnoreCase("Flight")) {
@@ -2086,57 +2052,6 @@ public class PKListener implements Listener {
 		}
 	}
 
-	@EventHandler(priority = EventPriority.LOW)
-	public void onAttributeRecalc(AbilityRecalculateAttributeEvent event) {
-		if (event.hasMarker(DayNightFactor.class) && event.getAbility().getLocation() != null) {
-			boolean day = FireAbility.isDay(event.getAbility().getLocation().getWorld());
-			boolean night = WaterAbility.isNight(event.getAbility().getLocation().getWorld());
-			if (event.getAbility() instanceof WaterAbility && night && event.getAbility().getPlayer().hasPermission("bending.water.nightfactor")) {
-				double factor = WaterAbility.getNightFactor();
-
-				DayNightFactor dayNightFactor = event.getMarker(DayNightFactor.class);
-				if (dayNightFactor.factor() != -1) factor = dayNightFactor.factor(); //If the factor isn't the default, use the one in the annotation
-
-				AttributeModifier modifier = dayNightFactor.invert() ? AttributeModifier.DIVISION : AttributeModifier.MULTIPLICATION;
-				AttributeModification mod = AttributeModification.of(modifier, factor, AttributeModification.PRIORITY_NORMAL,
-						AttributeModification.NIGHT_FACTOR);
-				event.addModification(mod);
-			} else if (event.getAbility() instanceof FireAbility && day && event.getAbility().getPlayer().hasPermission("bending.fire.dayfactor")) {
-				double factor = FireAbility.getDayFactor();
-
-				DayNightFactor dayNightFactor = event.getMarker(DayNightFactor.class);
-				if (dayNightFactor.factor() != -1) factor = dayNightFactor.factor(); //If the factor isn't the default, use the one in the annotation
-
-				AttributeModifier modifier = dayNightFactor.invert() ? AttributeModifier.DIVISION : AttributeModifier.MULTIPLICATION;
-				AttributeModification mod = AttributeModification.of(modifier, factor, AttributeModification.PRIORITY_NORMAL, AttributeModification.DAY_FACTOR);
-				event.addModification(mod);
-			}
-		}
-
-		//Blue fire has factors for a few attributes. But only do it for pure fire abilities and not combustion/lightning
-		if ((event.getAbility().getElement() == Element.FIRE || event.getAbility().getElement() == Element.BLUE_FIRE) && event.getAbility().getBendingPlayer().hasElement(Element.BLUE_FIRE) && event.getAbility().getPlayer().hasPermission("bending.fire.bluefirefactor")) {
-			if (event.getAttribute().equals(Attribute.DAMAGE)) {
-				double factor = BlueFireAbility.getDamageFactor();
-				event.addModification(AttributeModification.of(AttributeModifier.MULTIPLICATION, factor, AttributeModification.PRIORITY_NORMAL - 50, AttributeModification.BLUE_FIRE_DAMAGE));
-			} else if (event.getAttribute().equals(Attribute.COOLDOWN)) {
-				double factor = BlueFireAbility.getCooldownFactor();
-				event.addModification(AttributeModification.of(AttributeModifier.MULTIPLICATION, factor, AttributeModification.PRIORITY_NORMAL - 50, AttributeModification.BLUE_FIRE_COOLDOWN));
-			} else if (event.getAttribute().equals(Attribute.RANGE)) {
-				double factor = BlueFireAbility.getRangeFactor();
-				event.addModification(AttributeModification.of(AttributeModifier.MULTIPLICATION, factor, AttributeModification.PRIORITY_NORMAL - 50, AttributeModification.BLUE_FIRE_RANGE));
-			}
-		}
-
-		//AvatarState factors if the avatarstate is active
-		if (event.getAbility().getBendingPlayer().isAvatarState()) {
-			AttributeCache cache = CoreAbility.getAttributeCache(event.getAbility()).get(event.getAttribute());
-
-			if (cache != null && cache.getAvatarStateModifier().isPresent()) { //Check if there is a cached avatarstate modifier for this attribute
-				event.addModification(cache.getAvatarStateModifier().get());
-			}
-		}
-	}
-
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onItemMerge(final ItemMergeEvent event) {
 		if (BendingPlayer.isWorldDisabled(event.getEntity().getWorld())) {
@@ -2224,6 +2139,11 @@ public class PKListener implements Listener {
 		TempBlock.removeAllInWorld(event.getWorld());
 	}
 
+	@EventHandler
+	public void onChunkUnload(ChunkUnloadEvent event) {
+		TempBlock.removeAllInChunk(event.getChunk());
+	}
+
 	@EventHandler
 	private void preventArmorSwap(PlayerInteractEvent event) {
 		//Prevents swapping armor pieces using right click while having TempArmor active, this will prevent Armor pieces from being duped/deleted.
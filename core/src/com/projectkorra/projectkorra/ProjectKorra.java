@@ -1,7 +1,6 @@
 package com.projectkorra.projectkorra;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.logging.Logger;
 
 import com.projectkorra.projectkorra.hooks.PlanExtension;
@@ -22,6 +21,7 @@ import com.projectkorra.projectkorra.board.BendingBoardManager;
 import com.projectkorra.projectkorra.chiblocking.util.ChiblockingManager;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.earthbending.util.EarthbendingManager;
 import com.projectkorra.projectkorra.firebending.util.FirebendingManager;
 import com.projectkorra.projectkorra.hooks.PlaceholderAPIHook;
@@ -81,6 +81,7 @@ public class ProjectKorra extends JavaPlugin {
 		new RegionProtection();
 		collisionManager = new CollisionManager();
 		collisionInitializer = new CollisionInitializer(collisionManager);
+		ConfigSnapshot.reload();
 		CoreAbility.registerAbilities();
 		collisionInitializer.initializeDefaultCollisions();
 		collisionManager.startCollisionDetection();
@@ -94,7 +95,6 @@ public class ProjectKorra extends JavaPlugin {
 
 		Manager.startup();
 		BendingBoardManager.setup();
-		BendingPlayer.DISABLED_WORLDS = new HashSet<>(ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds"));
 
 		this.getServer().getPluginManager().registerEvents(new PKListener(this), this);
 		BendingManager bendingManager = new BendingManager();
@@ -134,9 +134,7 @@ public class ProjectKorra extends JavaPlugin {
 			return valueMap;
 		}));
 
-		final double cacheTime = ConfigManager.getConfig().getDouble("Properties.RegionProtection.CacheBlockTime");
-
-		RegionProtection.startCleanCacheTask(cacheTime);
+		RegionProtection.configureCache(ConfigManager.getConfig().getLong("Properties.RegionProtection.CacheBlockTime"), ConfigManager.getConfig().getInt("Properties.RegionProtection.CacheSize"));
 
 		if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
 			papiHook = new PlaceholderAPIHook(this);
@@ -154,15 +152,16 @@ public class ProjectKorra extends JavaPlugin {
 		GeneralMethods.stopBending();
 		for (final Player player : this.getServer().getOnlinePlayers()) {
 			if (isStatisticsEnabled()) {
-				Manager.getManager(StatisticsManager.class).save(player.getUniqueId(), false);
+				Manager.getManager(StatisticsManager.class).save(player.getUniqueId(), true);
 			}
 			final BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
 			if (bPlayer != null && isDatabaseCooldownsEnabled()) {
-				bPlayer.saveCooldowns(false);
+				bPlayer.saveCooldowns(true);
 			}
 		}
 		Manager.shutdown();
 		if (DBConnection.isOpen()) {
+			DBConnection.sql.flush(); //Commit everything queued above in as few batches as possible
 			DBConnection.sql.close();
 		}
 
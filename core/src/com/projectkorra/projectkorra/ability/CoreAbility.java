@@ -5,6 +5,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -22,8 +23,8 @@ import com.projectkorra.projectkorra.ability.util.FoliaCollisionManager;
 import com.projectkorra.projectkorra.attribute.*;
 import com.projectkorra.projectkorra.command.CooldownCommand;
 import com.projectkorra.projectkorra.event.AbilityRecalculateAttributeEvent;
+import com.projectkorra.projectkorra.event.AbilityRecalculateAttributesEvent;
 import com.projectkorra.projectkorra.util.ThreadUtil;
-import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import org.bukkit.permissions.Permission;
 
 import org.bukkit.Bukkit;
@@ -46,11 +47,14 @@ import com.projectkorra.projectkorra.ability.util.ComboManager;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager.MultiAbilityInfo;
 import com.projectkorra.projectkorra.ability.util.PassiveManager;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.event.AbilityEndEvent;
 import com.projectkorra.projectkorra.event.AbilityProgressEvent;
 import com.projectkorra.projectkorra.event.AbilityStartEvent;
 import com.projectkorra.projectkorra.util.FlightHandler;
+import com.projectkorra.projectkorra.util.Profiler;
 import com.projectkorra.projectkorra.util.TimeUtil;
 
 /**
@@ -78,7 +82,7 @@ public abstract class CoreAbility implements Ability {
 	private static final Map<Class<? extends CoreAbility>, CoreAbility> ABILITIES_BY_CLASS = new ConcurrentHashMap<>();
 	private static final double DEFAULT_COLLISION_RADIUS = 0.3;
 	private static final List<String> ADDON_PLUGINS = new ArrayList<>();
-	private static final Map<Class<? extends CoreAbility>, Map<String, AttributeCache>> ATTRIBUTE_FIELDS = new HashMap<>();
+	private static final Map<Class<? extends CoreAbility>, Map<String, AttributeCache>> ATTRIBUTE_FIELDS = new ConcurrentHashMap<>();
 
 	private static int idCounter;
 	private static long currentTick;
@@ -97,10 +101,12 @@ public abstract class CoreAbility implements Ability {
 	private boolean attributesModified;
 	private boolean recalculatingAttributes;
 	private boolean attributeValuesCached;
+	private int deferredTicks;
 
 	//The following are only for Folia servers!
 	private long _foliaCurrentTick;
-	private Object _foliaTask;
+	FoliaTickDriver _foliaDriver;
+	int _foliaSlot;
 	private Location _foliaLastLocation;
 
 	/**
@@ -115,14 +121,21 @@ public abstract class CoreAbility implements Ability {
 	 * @see #getAbility(String)
 	 */
 	public CoreAbility() {
-		if (!ATTRIBUTE_FIELDS.containsKey(this.getClass())) {
-			ATTRIBUTE_FIELDS.put(this.getClass(), new HashMap<>());
+		if (!ATTRIBUTE_FIELDS.containsKey(this.getClass())) { //Only look for attributes the first time a class is created
+			ATTRIBUTE_FIELDS.putIfAbsent(this.getClass(), findAttributes(this));
 		}
-		for (final Field field : this.getClass().getDeclaredFields()) { //Iterate over all fields in the class
+	}
+
+	/**
+	 * Finds every field marked with an {@link Attribute} in the class of an
+	 * ability and prepares a shared {@link AttributeCache} for it.
+	 */
+	private static Map<String, AttributeCache> findAttributes(final CoreAbility ability) {
+		final Map<String, AttributeCache> caches = new HashMap<>();
+		for (final Field field : ability.getClass().getDeclaredFields()) { //Iterate over all fields in the class
 			if (field.isAnnotationPresent(Attribute.class)) { //Check if they are marked with an attribute annotation
 				final Attribute attribute = field.getAnnotation(Attribute.class);
-				AttributeCache cache = new AttributeCache(field, attribute.value());
-				field.setAccessible(true);
+				final AttributeCache cache = new AttributeCache(field, attribute.value());
 
 				for (Annotation annotation : field.getDeclaredAnnotations()) { //Get all annotations on the field, and check if they are attribute markers
 					if (annotation.annotationType().isAnnotationPresent(AttributeMarker.class)) {
@@ -130,10 +143,25 @@ public abstract class CoreAbility implements Ability {
 					}
 				}
 
-				cache.calculateAvatarStateModifier(this); //Pull values from the AvatarState config
-				ATTRIBUTE_FIELDS.get(this.getClass()).put(attribute.value(), cache); //Store a cache value for the field and the attribute
+				cache.calculateAvatarStateModifier(ability); //Pull values from the AvatarState config
+				caches.put(attribute.value(), cache); //Store a cache value for the field and the attribute
 			}
 		}
+		return caches;
+	}
+
+	/**
+	 * Pulls the AvatarState modifiers of an ability's attributes from the
+	 * config again, for when the config was reloaded.
+	 */
+	private static void refreshAttributes(final CoreAbility ability) {
+		final Map<String, AttributeCache> caches = ATTRIBUTE_FIELDS.get(ability.getClass());
+		if (caches == null) {
+			return;
+		}
+		for (final AttributeCache cache : caches.values()) {
+			cache.calculateAvatarStateModifier(ability);
+		}
 	}
 
 	/**
@@ -210,15 +238,12 @@ public abstract class CoreAbility implements Ability {
 		INSTANCES.add(this);
 
 		if (ProjectKorra.isFolia()) {
-			//In Folia, we don't call CoreAbility#progressAll(), so instead we make a repeating task
-			//that runs every tick and calls progressSelf()
+			//In Folia, we don't call CoreAbility#progressAll(), so instead the ability is ticked
+			//together with the other abilities in its region
 
 			//ProjectKorra.log.info("[Debug] " + this.getName() + " was started on Thread " + Thread.currentThread().getName() + " (#" + Thread.currentThread().getId() + ")");
 
-			this._foliaTask = Bukkit.getRegionScheduler().runAtFixedRate(ProjectKorra.plugin, player.getLocation(), (task) -> {
-				this._foliaCurrentTick++;
-				this.progressSelf();
-			}, 1L, 1L);
+			FoliaTickDriver.track(this);
 
 			if (ProjectKorra.isLuminol()) { //Luminol is required for collisions right now, until Folia implements API that we can use
 				FoliaCollisionManager.startTracking(this);
@@ -272,7 +297,7 @@ public abstract class CoreAbility implements Ability {
 		INSTANCES.remove(this);
 
 		if (ProjectKorra.isFolia()) {
-			((ScheduledTask) this._foliaTask).cancel(); //Cancel the task if it exists
+			FoliaTickDriver.untrack(this);
 
 			if (ProjectKorra.isLuminol()) {
 				FoliaCollisionManager.stopTracking(this);
@@ -285,14 +310,50 @@ public abstract class CoreAbility implements Ability {
 	 * that has been started and has not been removed.
 	 */
 	public static void progressAll() {
-		for (final Set<CoreAbility> setAbils : INSTANCES_BY_CLASS.values()) {
-			for (final CoreAbility abil : setAbils) {
-				abil.progressSelf();
+		if (TickBudget.isEnabled()) {
+			progressAllBudgeted();
+		} else {
+			for (final Set<CoreAbility> setAbils : INSTANCES_BY_CLASS.values()) {
+				for (final CoreAbility abil : setAbils) {
+					abil.progressSelf();
+				}
 			}
 		}
 		currentTick++;
 	}
 
+	/**
+	 * Progresses the instances one priority at a time, so that once the
+	 * {@link TickBudget} is used up only the lower priority instances are
+	 * skipped.
+	 */
+	private static void progressAllBudgeted() {
+		for (final TickBudget.Priority priority : TickBudget.Priority.values()) {
+			for (final Set<CoreAbility> setAbils : INSTANCES_BY_CLASS.values()) {
+				for (final CoreAbility abil : setAbils) {
+					if (abil.getTickPriority() != priority) {
+						continue;
+					} else if (TickBudget.shouldDefer(priority, abil.deferredTicks)) {
+						abil.deferredTicks++;
+						TickBudget.recordDeferredProgress();
+						continue;
+					}
+					abil.deferredTicks = 0;
+					abil.progressSelf();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Progresses the ability on Folia, called every tick by its
+	 * {@link FoliaTickDriver}
+	 */
+	void tickFolia() {
+		this._foliaCurrentTick++;
+		this.progressSelf();
+	}
+
 	private void progressSelf() {
 		if (this instanceof PassiveAbility) {
 			if (!((PassiveAbility) this).isProgressable()) {
@@ -317,6 +378,7 @@ public abstract class CoreAbility implements Ability {
 			return;
 		}
 
+		final boolean profiling = Profiler.start("progress", this.getName());
 		try {
 			this.progress();
 
@@ -324,7 +386,9 @@ public abstract class CoreAbility implements Ability {
 				//this._foliaCollisions();
 			}
 
-			Bukkit.getServer().getPluginManager().callEvent(new AbilityProgressEvent(this));
+			if (AbilityProgressEvent.hasListeners(this.getClass())) { //Don't create an event every tick for every ability if nothing wants it
+				Bukkit.getServer().getPluginManager().callEvent(new AbilityProgressEvent(this));
+			}
 		} catch (final Throwable e) {
 			if (e instanceof NoSuchMethodError || e instanceof NoSuchFieldError || e instanceof NoClassDefFoundError) {
 				ProjectKorra.log.severe("The addon ability" + this.getName() + " is not compatible with either your Spigot version or ProjectKorra version.");
@@ -342,6 +406,8 @@ public abstract class CoreAbility implements Ability {
 			} catch (final Exception re) {
 				ProjectKorra.log.severe("Unable to fully remove ability due to the above error");
 			}
+		} finally {
+			if (profiling) Profiler.stop();
 		}
 	}
 
@@ -628,6 +694,8 @@ public abstract class CoreAbility implements Ability {
 		}
 
 		for (final CoreAbility coreAbil : loadedAbilities) {
+			refreshAttributes(coreAbil);
+
 			if (!coreAbil.isEnabled()) {
 				//plugin.getLogger().info(coreAbil.getName() + " is disabled");
 				ABILITIES_BY_CLASS.put(coreAbil.getClass(), coreAbil);
@@ -695,6 +763,8 @@ public abstract class CoreAbility implements Ability {
 		final Permission bendingPlayerPerm = Bukkit.getPluginManager().getPermission("bending.player");
 
 		for (final CoreAbility coreAbil : loadedAbilities) {
+			refreshAttributes(coreAbil);
+
 			if (!(coreAbil instanceof AddonAbility)) {
 				plugin.getLogger().warning(coreAbil.getName() + " is an addon ability and must implement the AddonAbility interface");
 				continue;
@@ -815,24 +885,7 @@ public abstract class CoreAbility implements Ability {
 		if (this instanceof AddonAbility) {
 			return true;
 		}
-
-		String elementName = this.getElement().getName();
-		if (this.getElement() instanceof SubElement) {
-			elementName = ((SubElement) this.getElement()).getParentElement().getName();
-		}
-
-		String tag = null;
-		if (this instanceof PassiveAbility) {
-			tag = "Abilities." + elementName + ".Passive." + this.getName() + ".Enabled";
-		} else {
-			tag = "Abilities." + elementName + "." + this.getName() + ".Enabled";
-		}
-
-		if (getConfig().isBoolean(tag)) {
-			return getConfig().getBoolean(tag);
-		} else {
-			return true;
-		}
+		return ConfigSnapshot.get().getAbility(this).isEnabled();
 	}
 
 	@Override
@@ -957,6 +1010,19 @@ public abstract class CoreAbility implements Ability {
 		}
 	}
 
+	/**
+	 * How important it is that the instance is progressed every tick. When the
+	 * {@link TickBudget} is enabled and a tick runs out of time, instances
+	 * with a lower priority are progressed less often. Abilities that move
+	 * the player should return {@link TickBudget.Priority#MOVEMENT}, abilities
+	 * that only display something {@link TickBudget.Priority#COSMETIC}.
+	 *
+	 * @return the priority of the instance
+	 */
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.NORMAL;
+	}
+
 	/**
 	 * Used by the CollisionManager to check if two instances can collide with
 	 * each other. For example, an EarthBlast is not collidable right when the
@@ -1067,38 +1133,65 @@ public abstract class CoreAbility implements Ability {
 		recalculatingAttributes = true;
 
 		if (!attributeValuesCached) { //Cache initial values
-			try {
-				for (AttributeCache cache : ATTRIBUTE_FIELDS.get(this.getClass()).values()) { //Get all attributes for this ability and cache initial values
-					cache.getInitialValues().put(this, cache.getField().get(this));
+			for (AttributeCache cache : ATTRIBUTE_FIELDS.get(this.getClass()).values()) { //Get all attributes for this ability and cache initial values
+				final Object value = cache.getValue(this);
+				if (value != null) {
+					cache.getInitialValues().put(this, value);
 				}
-			} catch (IllegalAccessException e) {
-				e.printStackTrace();
 			}
 			attributeValuesCached = true;
 		}
 
-		attribute_loop:
-		for (AttributeCache cache : ATTRIBUTE_FIELDS.get(this.getClass()).values()) {
-			String attribute = cache.getAttribute();
+		final Collection<AttributeCache> caches = ATTRIBUTE_FIELDS.get(this.getClass()).values();
+		final AttributeCache[] attributes = new AttributeCache[caches.size()];
+		final Object[] initialValues = new Object[caches.size()];
+		int size = 0;
+		for (AttributeCache cache : caches) {
 			Object initialValue = cache.getInitialValues().get(this);
 
 			if (initialValue == null) {
-				ProjectKorra.log.severe("Initial value for " + attribute + " is null for " + this.getName() + "! Please report this to PK!");
+				ProjectKorra.log.severe("Initial value for " + cache.getAttribute() + " is null for " + this.getName() + "! Please report this to PK!");
 				continue;
 			}
+			attributes[size] = cache;
+			initialValues[size++] = initialValue;
+		}
 
-			AbilityRecalculateAttributeEvent event = new AbilityRecalculateAttributeEvent(this, attribute, initialValue);
+		//All attributes are modified in a single event, and our own modifications are added without calling it at all
+		final AbilityRecalculateAttributesEvent event = new AbilityRecalculateAttributesEvent(this, Arrays.copyOf(attributes, size), Arrays.copyOf(initialValues, size));
+		DefaultModifications.apply(event);
+		if (AbilityRecalculateAttributesEvent.hasListeners()) {
 			Bukkit.getServer().getPluginManager().callEvent(event);
+		}
+
+		//Addons can still modify one attribute at a time, but the event is only called if something listens to it
+		final boolean singleEvents = AbilityRecalculateAttributeEvent.getHandlerList().getRegisteredListeners().length > 0;
+
+		attribute_loop:
+		for (int i = 0; i < event.size(); i++) {
+			AttributeCache cache = event.getCache(i);
+			String attribute = cache.getAttribute();
+			Object initialValue = event.getOriginalValue(i);
+			Set<AttributeModification> modifications = event.getModifications(i);
+
+			if (singleEvents) {
+				AbilityRecalculateAttributeEvent single = new AbilityRecalculateAttributeEvent(this, attribute, initialValue);
+				for (AttributeModification mod : modifications) {
+					single.addModification(mod);
+				}
+				Bukkit.getServer().getPluginManager().callEvent(single);
+				modifications = single.getModifications();
+			}
 
-			cache.getCurrentModifications().put(this, event.getModifications());
+			cache.getCurrentModifications().put(this, modifications);
 
 			try {
-				for (AttributeModification mod : event.getModifications()) {
+				for (AttributeModification mod : modifications) {
 					if (mod.getModifier() == AttributeModifier.SET) {
 						if (initialValue instanceof Number) { //For numbers, we continue to loop through the remainder modifiers like normal
 							initialValue = mod.getModification();
 						} else { //For booleans, set it and then continue to the next attribute
-							cache.getField().set(this, mod.getModification());
+							cache.setValue(this, mod.getModification());
 							continue attribute_loop;
 						}
 					} else {
@@ -1108,8 +1201,8 @@ public abstract class CoreAbility implements Ability {
 					}
 				}
 
-				cache.getField().set(this, initialValue);
-			} catch (IllegalArgumentException | IllegalAccessException e) {
+				cache.setValue(this, initialValue);
+			} catch (IllegalArgumentException e) {
 				ProjectKorra.log.severe("Failed to recalculate attribute " + attribute + " for " + this.getName() + "!");
 				e.printStackTrace();
 			}
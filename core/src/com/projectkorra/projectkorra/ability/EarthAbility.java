@@ -30,8 +30,10 @@ import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.earthbending.RaiseEarth;
 import com.projectkorra.projectkorra.earthbending.lava.LavaFlow;
 import com.projectkorra.projectkorra.earthbending.passive.DensityShift;
+import com.projectkorra.projectkorra.util.BlockRaycast;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.Information;
+import com.projectkorra.projectkorra.util.MaterialTraits;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
 
@@ -316,7 +318,7 @@ public abstract class EarthAbility extends ElementalAbility {
 	 */
 	public static Block getEarthSourceBlock(final Player player, final String abilityName, final double range) {
 		final BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
-		final Block testBlock = player.getTargetBlock(getTransparentMaterialSet(), Math.max((int) range, 1));
+		final Block testBlock = player.getTargetBlock(MaterialTraits.getTransparentSet(), Math.max((int) range, 1));
 		if (bPlayer == null) {
 			return null;
 		} else if (isEarthbendable(testBlock.getType(), true, true, true)) {
@@ -326,13 +328,14 @@ public abstract class EarthAbility extends ElementalAbility {
 		}
 
 		final Location location = player.getEyeLocation();
-		final Vector vector = location.getDirection().clone().normalize();
+		if (RegionProtection.isRegionProtected(player, location, CoreAbility.getAbility(abilityName))) {
+			return null;
+		}
 
-		for (double i = 0; i <= range; i++) {
-			final Block block = location.clone().add(vector.clone().multiply(i)).getBlock();
-			if (RegionProtection.isRegionProtected(player, location, CoreAbility.getAbility(abilityName))) {
-				continue;
-			} else if (isEarthbendable(player, block)) {
+		final BlockRaycast ray = new BlockRaycast(location, range);
+		while (ray.next()) {
+			final Block block = ray.getBlock();
+			if (isEarthbendable(player, block)) {
 				return block;
 			}
 		}
@@ -354,13 +357,13 @@ public abstract class EarthAbility extends ElementalAbility {
 	 */
 	public static Block getLavaSourceBlock(final Player player, final String abilityName, final double range) {
 		final Location location = player.getEyeLocation();
-		final Vector vector = location.getDirection().clone().normalize();
+		if (RegionProtection.isRegionProtected(player, location, CoreAbility.getAbility(abilityName))) {
+			return null;
+		}
 
-		for (double i = 0; i <= range; i++) {
-			final Block block = location.clone().add(vector.clone().multiply(i)).getBlock();
-			if (RegionProtection.isRegionProtected(player, location, CoreAbility.getAbility(abilityName))) {
-				continue;
-			}
+		final BlockRaycast ray = new BlockRaycast(location, range);
+		while (ray.next()) {
+			final Block block = ray.getBlock();
 			if (isLavabendable(player, block)) {
 				return block;
 			}
@@ -419,7 +422,7 @@ public abstract class EarthAbility extends ElementalAbility {
 	}
 
 	public static Block getTargetEarthBlock(final Player player, final int range) {
-		return player.getTargetBlock(getTransparentMaterialSet(), Math.max(range, 1));
+		return player.getTargetBlock(MaterialTraits.getTransparentSet(), Math.max(range, 1));
 	}
 
 	public static Map<Integer, Information> getTempAirLocations() {
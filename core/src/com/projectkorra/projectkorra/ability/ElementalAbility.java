@@ -21,7 +21,7 @@ import org.bukkit.block.data.Waterlogged;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffectType;
 
-import com.projectkorra.projectkorra.GeneralMethods;
+import com.projectkorra.projectkorra.util.MaterialTraits;
 
 /**
  * ElementalAbility is used to hold methods that should be accessible by every
@@ -29,17 +29,9 @@ import com.projectkorra.projectkorra.GeneralMethods;
  * keep CoreAbility from becoming too cluttered.
  */
 public abstract class ElementalAbility extends CoreAbility {
-	private static final PotionEffectType[] POSITIVE_EFFECTS = { PotionEffectType.ABSORPTION, PotionEffectType.DAMAGE_RESISTANCE, PotionEffectType.FAST_DIGGING, PotionEffectType.FIRE_RESISTANCE, PotionEffectType.HEAL, PotionEffectType.HEALTH_BOOST, PotionEffectType.INCREASE_DAMAGE, PotionEffectType.JUMP, PotionEffectType.NIGHT_VISION, PotionEffectType.REGENERATION, PotionEffectType.SATURATION, PotionEffectType.SPEED, PotionEffectType.WATER_BREATHING };
-	private static final PotionEffectType[] NEUTRAL_EFFECTS = { PotionEffectType.INVISIBILITY };
-	private static final PotionEffectType[] NEGATIVE_EFFECTS = { PotionEffectType.POISON, PotionEffectType.BLINDNESS, PotionEffectType.CONFUSION, PotionEffectType.HARM, PotionEffectType.HUNGER, PotionEffectType.SLOW, PotionEffectType.SLOW_DIGGING, PotionEffectType.WEAKNESS, PotionEffectType.WITHER };
-	private static final Set<Material> TRANSPARENT = new HashSet<>();
-
-	private static final Set<String> EARTH_BLOCKS = new HashSet<String>();
-	private static final Set<String> ICE_BLOCKS = new HashSet<String>();
-	private static final Set<String> METAL_BLOCKS = new HashSet<String>();
-	private static final Set<String> PLANT_BLOCKS = new HashSet<String>();
-	private static final Set<String> SAND_BLOCKS = new HashSet<String>();
-	private static final Set<String> SNOW_BLOCKS = new HashSet<String>();
+	private static final Set<PotionEffectType> POSITIVE_EFFECTS = new HashSet<>(Arrays.asList(PotionEffectType.ABSORPTION, PotionEffectType.DAMAGE_RESISTANCE, PotionEffectType.FAST_DIGGING, PotionEffectType.FIRE_RESISTANCE, PotionEffectType.HEAL, PotionEffectType.HEALTH_BOOST, PotionEffectType.INCREASE_DAMAGE, PotionEffectType.JUMP, PotionEffectType.NIGHT_VISION, PotionEffectType.REGENERATION, PotionEffectType.SATURATION, PotionEffectType.SPEED, PotionEffectType.WATER_BREATHING));
+	private static final Set<PotionEffectType> NEUTRAL_EFFECTS = new HashSet<>(Arrays.asList(PotionEffectType.INVISIBILITY));
+	private static final Set<PotionEffectType> NEGATIVE_EFFECTS = new HashSet<>(Arrays.asList(PotionEffectType.POISON, PotionEffectType.BLINDNESS, PotionEffectType.CONFUSION, PotionEffectType.HARM, PotionEffectType.HUNGER, PotionEffectType.SLOW, PotionEffectType.SLOW_DIGGING, PotionEffectType.WEAKNESS, PotionEffectType.WITHER));
 
 	// Once 1.16.5 no longer becomes LTS, this becomes obsolete and
 	// we can remove the version check and reference these materials directly instead of doing standard lookups.
@@ -53,17 +45,6 @@ public abstract class ElementalAbility extends CoreAbility {
 		return mudBlocks;
 	}
 
-	static {
-		TRANSPARENT.clear();
-		for (final Material mat : Material.values()) {
-			if (GeneralMethods.isTransparent(mat)) {
-				TRANSPARENT.add(mat);
-			}
-		}
-		clearBendableMaterials();
-		setupBendableMaterials();
-	}
-
 	public ElementalAbility(final Player player) {
 		super(player);
 	}
@@ -73,16 +54,15 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static void clearBendableMaterials() {
-		EARTH_BLOCKS.clear();
-		ICE_BLOCKS.clear();
-		METAL_BLOCKS.clear();
-		PLANT_BLOCKS.clear();
-		SAND_BLOCKS.clear();
-		SNOW_BLOCKS.clear();
+		MaterialTraits.clear();
 	}
 
 	public static List<String> getEarthbendableBlocks() {
-		return new ArrayList<String>(EARTH_BLOCKS);
+		final List<String> blocks = new ArrayList<String>();
+		for (final Material material : MaterialTraits.getMaterials(MaterialTraits.EARTH)) {
+			blocks.add(material.toString());
+		}
+		return blocks;
 	}
 
 	public static void addTags(Set<String> outputSet, List<String> configList) {
@@ -100,16 +80,20 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static Material[] getTransparentMaterials() {
-		return TRANSPARENT.toArray(new Material[TRANSPARENT.size()]);
+		return MaterialTraits.getTransparentArray();
 	}
 
+	/**
+	 * @return A new set of the transparent materials. Use
+	 *         {@link MaterialTraits#getTransparentSet()} if the set isn't
+	 *         changed
+	 */
 	public static HashSet<Material> getTransparentMaterialSet() {
-		return new HashSet<>(TRANSPARENT);
+		return new HashSet<>(MaterialTraits.getTransparentSet());
 	}
 
 	public static boolean isAir(final Material material) {
-		return material == Material.AIR || material == Material.CAVE_AIR || material == Material.VOID_AIR ||
-				(GeneralMethods.getMCVersion() >= 1170 && material == LIGHT);
+		return MaterialTraits.has(material, MaterialTraits.AIR);
 	}
 
 	public static boolean isDay(final World world) {
@@ -153,7 +137,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isEarth(final Material material) {
-		return EARTH_BLOCKS.contains(material.toString());
+		return MaterialTraits.has(material, MaterialTraits.EARTH);
 	}
 
 	public static boolean isFire(final Block block) {
@@ -161,7 +145,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isFire(final Material material) {
-		return material == Material.SOUL_FIRE || material == Material.FIRE;
+		return MaterialTraits.has(material, MaterialTraits.FIRE);
 	}
 
 	public static boolean isFullMoon(final World world) {
@@ -173,7 +157,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isIce(final Material material) {
-		return ICE_BLOCKS.contains(material.toString());
+		return MaterialTraits.has(material, MaterialTraits.ICE);
 	}
 
 	public static boolean isLava(final Block block) {
@@ -181,7 +165,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isLava(final Material material) {
-		return material == Material.LAVA;
+		return MaterialTraits.has(material, MaterialTraits.LAVA);
 	}
 
 	public static boolean isSnow(final Block block) {
@@ -189,7 +173,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isSnow(final Material material) {
-		return SNOW_BLOCKS.contains(material.toString());
+		return MaterialTraits.has(material, MaterialTraits.SNOW);
 	}
 
 	public static boolean isMeltable(final Block block) {
@@ -201,7 +185,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isMetal(final Material material) {
-		return METAL_BLOCKS.contains(material.toString());
+		return MaterialTraits.has(material, MaterialTraits.METAL);
 	}
 
 	public static boolean isMetalBlock(final Block block) {
@@ -213,27 +197,15 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isMud(final Material material) {
-		return GeneralMethods.getMCVersion() >= 1190 && MUD_BLOCKS.contains(material);
+		return MaterialTraits.has(material, MaterialTraits.MUD);
 	}
 
 	public static boolean isNegativeEffect(final PotionEffectType effect) {
-		for (final PotionEffectType effect2 : NEGATIVE_EFFECTS) {
-			if (effect2.equals(effect)) {
-				return true;
-			}
-		}
-
-		return false;
+		return NEGATIVE_EFFECTS.contains(effect);
 	}
 
 	public static boolean isNeutralEffect(final PotionEffectType effect) {
-		for (final PotionEffectType effect2 : NEUTRAL_EFFECTS) {
-			if (effect2.equals(effect)) {
-				return true;
-			}
-		}
-
-		return false;
+		return NEUTRAL_EFFECTS.contains(effect);
 	}
 
 
@@ -243,17 +215,11 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isPlant(final Material material) {
-		return PLANT_BLOCKS.contains(material.toString());
+		return MaterialTraits.has(material, MaterialTraits.PLANT);
 	}
 
 	public static boolean isPositiveEffect(final PotionEffectType effect) {
-		for (final PotionEffectType effect2 : POSITIVE_EFFECTS) {
-			if (effect2.equals(effect)) {
-				return true;
-			}
-		}
-
-		return false;
+		return POSITIVE_EFFECTS.contains(effect);
 	}
 
 	public static boolean isSand(final Block block) {
@@ -261,7 +227,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isSand(final Material material) {
-		return SAND_BLOCKS.contains(material.toString());
+		return MaterialTraits.has(material, MaterialTraits.SAND);
 	}
 
 	public static boolean isTransparent(final Player player, final Block block) {
@@ -269,7 +235,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isTransparent(final Player player, final String abilityName, final Block block) {
-		return Arrays.asList(getTransparentMaterials()).contains(block.getType()) && !RegionProtection.isRegionProtected(player, block.getLocation(), CoreAbility.getAbility(abilityName));
+		return MaterialTraits.has(block.getType(), MaterialTraits.TRANSPARENT) && !RegionProtection.isRegionProtected(player, block.getLocation(), CoreAbility.getAbility(abilityName));
 	}
 
 	public static boolean isWater(final Block block) {
@@ -287,7 +253,7 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static boolean isWater(final Material material) {
-		return material == Material.WATER || material == Material.SEAGRASS || material == Material.TALL_SEAGRASS || material == Material.KELP_PLANT || material == Material.KELP || material == Material.BUBBLE_COLUMN;
+		return MaterialTraits.has(material, MaterialTraits.WATER);
 	}
 
 	public double applyModifiers(double value) {
@@ -295,11 +261,6 @@ public abstract class ElementalAbility extends CoreAbility {
 	}
 
 	public static void setupBendableMaterials() {
-		addTags(EARTH_BLOCKS, getConfig().getStringList( "Properties.Earth.EarthBlocks"));
-		addTags(ICE_BLOCKS, getConfig().getStringList("Properties.Water.IceBlocks"));
-		addTags(METAL_BLOCKS, getConfig().getStringList("Properties.Earth.MetalBlocks"));
-		addTags(PLANT_BLOCKS, getConfig().getStringList("Properties.Water.PlantBlocks"));
-		addTags(SAND_BLOCKS, getConfig().getStringList("Properties.Earth.SandBlocks"));
-		addTags(SNOW_BLOCKS, getConfig().getStringList("Properties.Water.SnowBlocks"));
+		MaterialTraits.reload();
 	}
 }
@@ -0,0 +1,183 @@
+package com.projectkorra.projectkorra.ability;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.util.ThreadUtil;
+import com.projectkorra.projectkorra.versions.LuminolIntermediate;
+
+/**
+ * Progresses abilities on Folia. Instead of every ability scheduling its own
+ * repeating task, the abilities that run in the same place share a driver
+ * that ticks all of them from a single task.
+ * <p>
+ * On Luminol, where the region of a location can be looked up, there is one
+ * driver per region. When a player leaves the region, their abilities are
+ * handed to the driver of the region they entered. On other Folia servers
+ * there is one driver per player, which runs on the player's scheduler and
+ * so follows the player between regions by itself.
+ */
+class FoliaTickDriver {
+
+	private static final Map<Object, FoliaTickDriver> DRIVERS = new ConcurrentHashMap<>();
+
+	private final Object key;
+	private Object task;
+	private CoreAbility[] abilities = new CoreAbility[16];
+	private CoreAbility[] ticking = new CoreAbility[16];
+	private int size;
+
+	private FoliaTickDriver(final Object key) {
+		this.key = key;
+	}
+
+	/**
+	 * Starts progressing an ability every tick. Must be called from the thread
+	 * that owns the ability's player.
+	 */
+	static void track(final CoreAbility ability) {
+		final Player player = ability.getPlayer();
+		final Object key = keyOf(player);
+		DRIVERS.compute(key, (k, driver) -> {
+			if (driver == null) {
+				driver = new FoliaTickDriver(k);
+				driver.schedule(player);
+			}
+			driver.add(ability);
+			return driver;
+		});
+	}
+
+	/**
+	 * Stops progressing an ability.
+	 */
+	static void untrack(final CoreAbility ability) {
+		final FoliaTickDriver driver = ability._foliaDriver;
+		if (driver != null) {
+			driver.remove(ability);
+		}
+	}
+
+	/**
+	 * @return The amount of drivers, which is the amount of tasks used to
+	 *         progress abilities
+	 */
+	static int getDriverCount() {
+		return DRIVERS.size();
+	}
+
+	private static Object keyOf(final Player player) {
+		if (ProjectKorra.isLuminol()) {
+			final Object region = LuminolIntermediate.getRegion(player.getLocation());
+			if (region != null) {
+				return LuminolIntermediate.getRegionId(region);
+			}
+		}
+		return player.getUniqueId();
+	}
+
+	private void schedule(final Player player) {
+		if (this.key instanceof Long) {
+			this.task = ThreadUtil.ensureLocationTimer(player.getLocation(), this::tick, 1, 1);
+		} else {
+			this.task = player.getScheduler().runAtFixedRate(ProjectKorra.plugin, (t) -> this.tick(), this::retire, 1L, 1L);
+		}
+	}
+
+	private synchronized void add(final CoreAbility ability) {
+		if (this.size == this.abilities.length) {
+			this.abilities = Arrays.copyOf(this.abilities, this.size * 2);
+		}
+		ability._foliaDriver = this;
+		ability._foliaSlot = this.size;
+		this.abilities[this.size++] = ability;
+	}
+
+	private synchronized void remove(final CoreAbility ability) {
+		if (ability._foliaDriver != this) {
+			return;
+		}
+		final int slot = ability._foliaSlot;
+		final CoreAbility last = this.abilities[--this.size];
+		this.abilities[slot] = last;
+		last._foliaSlot = slot;
+		this.abilities[this.size] = null;
+		ability._foliaDriver = null;
+	}
+
+	private void tick() {
+		final CoreAbility[] ticking;
+		final int count;
+		synchronized (this) {
+			if (this.ticking.length < this.size) {
+				this.ticking = new CoreAbility[this.abilities.length];
+			}
+			ticking = this.ticking;
+			count = this.size;
+			System.arraycopy(this.abilities, 0, ticking, 0, count);
+		}
+
+		for (int i = 0; i < count; i++) {
+			final CoreAbility ability = ticking[i];
+			ticking[i] = null;
+			if (ability._foliaDriver != this) { //Removed by an ability that ticked before it
+				continue;
+			}
+
+			final Player player = ability.getPlayer();
+			if (this.key instanceof Long && !Bukkit.isOwnedByCurrentRegion(player)) {
+				this.handOver(ability, player);
+				continue;
+			}
+			ability.tickFolia();
+		}
+
+		if (count == 0) {
+			this.stopIfEmpty();
+		}
+	}
+
+	/**
+	 * Moves an ability to the driver of the region its player is in now.
+	 */
+	private void handOver(final CoreAbility ability, final Player player) {
+		this.remove(ability);
+		player.getScheduler().execute(ProjectKorra.plugin, () -> {
+			if (!ability.isRemoved()) {
+				track(ability);
+			}
+		}, ability::remove, 1L);
+	}
+
+	private void stopIfEmpty() {
+		DRIVERS.computeIfPresent(this.key, (k, driver) -> driver == this && this.size == 0 ? null : driver);
+		if (DRIVERS.get(this.key) != this) {
+			ThreadUtil.cancelTimerTask(this.task);
+		}
+	}
+
+	/**
+	 * Called when the player of a per player driver is no longer valid, which
+	 * means their abilities will never be progressed again.
+	 */
+	private void retire() {
+		DRIVERS.remove(this.key, this);
+		final CoreAbility[] abilities;
+		synchronized (this) {
+			abilities = Arrays.copyOf(this.abilities, this.size);
+		}
+		for (final CoreAbility ability : abilities) {
+			try {
+				ability.remove();
+			} catch (final Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+}
@@ -1,7 +1,6 @@
 package com.projectkorra.projectkorra.ability;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -16,15 +15,17 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.Levelled;
 import org.bukkit.entity.Player;
-import org.bukkit.util.Vector;
 
 import com.projectkorra.projectkorra.BendingPlayer;
 import com.projectkorra.projectkorra.Element;
 import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.util.Collision;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.firebending.HeatControl;
+import com.projectkorra.projectkorra.util.BlockRaycast;
 import com.projectkorra.projectkorra.util.BlockSource;
+import com.projectkorra.projectkorra.util.MaterialTraits;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
 import com.projectkorra.projectkorra.waterbending.SurgeWall;
@@ -42,11 +43,11 @@ public abstract class WaterAbility extends ElementalAbility {
 	}
 
 	public boolean canAutoSource() {
-		return getConfig().getBoolean("Abilities." + this.getElement() + "." + this.getName() + ".CanAutoSource");
+		return ConfigSnapshot.get().getAbility(this).canAutoSource();
 	}
 
 	public boolean canDynamicSource() {
-		return getConfig().getBoolean("Abilities." + this.getElement() + "." + this.getName() + ".CanDynamicSource");
+		return ConfigSnapshot.get().getAbility(this).canDynamicSource();
 	}
 
 	@Override
@@ -139,12 +140,13 @@ public abstract class WaterAbility extends ElementalAbility {
 
 	public static Block getIceSourceBlock(final Player player, final double range) {
 		final Location location = player.getEyeLocation();
-		final Vector vector = location.getDirection().clone().normalize();
-		for (double i = 0; i <= range; i++) {
-			final Block block = location.clone().add(vector.clone().multiply(i)).getBlock();
-			if (RegionProtection.isRegionProtected(player, location,"IceBlast")) {
-				continue;
-			}
+		if (RegionProtection.isRegionProtected(player, location, "IceBlast")) {
+			return null;
+		}
+
+		final BlockRaycast ray = new BlockRaycast(location, range);
+		while (ray.next()) {
+			final Block block = ray.getBlock();
 			if (isIcebendable(player, block.getType(), false)) {
 				if (TempBlock.isTempBlock(block) && !isBendableWaterTempBlock(block)) {
 					continue;
@@ -173,13 +175,14 @@ public abstract class WaterAbility extends ElementalAbility {
 
 	public static Block getPlantSourceBlock(final Player player, final double range, final boolean onlyLeaves) {
 		final Location location = player.getEyeLocation();
-		final Vector vector = location.getDirection().clone().normalize();
+		if (RegionProtection.isRegionProtected(player, location, "PlantDisc")) {
+			return null;
+		}
 
-		for (double i = 0; i <= range; i++) {
-			final Block block = location.clone().add(vector.clone().multiply(i)).getBlock();
-			if (RegionProtection.isRegionProtected(player, location, "PlantDisc")) {
-				continue;
-			} else if (isPlantbendable(player, block.getType(), onlyLeaves)) {
+		final BlockRaycast ray = new BlockRaycast(location, range);
+		while (ray.next()) {
+			final Block block = ray.getBlock();
+			if (isPlantbendable(player, block.getType(), onlyLeaves)) {
 				if (TempBlock.isTempBlock(block) && !isBendableWaterTempBlock(block)) {
 					continue;
 				}
@@ -202,19 +205,13 @@ public abstract class WaterAbility extends ElementalAbility {
 	 */
 	public static Block getWaterSourceBlock(final Player player, final double range, final boolean plantbending) {
 		final Location location = player.getEyeLocation();
-		final Vector vector = location.getDirection().clone().normalize();
 
 		final BendingPlayer bPlayer = BendingPlayer.getBendingPlayer(player);
-		final Set<Material> trans = getTransparentMaterialSet();
+		Set<Material> trans = MaterialTraits.getTransparentSet();
 
 		if (plantbending) {
-			final Set<Material> remove = new HashSet<>();
-			for (final Material m : trans) {
-				if (isPlant(m)) {
-					remove.add(m);
-				}
-			}
-			trans.removeAll(remove);
+			trans = getTransparentMaterialSet();
+			trans.removeIf(ElementalAbility::isPlant);
 		}
 
 		final Block testBlock = player.getTargetBlock(trans, Math.max(1, Math.min(3, (int)range)));
@@ -224,9 +221,14 @@ public abstract class WaterAbility extends ElementalAbility {
 			return testBlock;
 		}
 
-		for (double i = 0; i <= range; i++) {
-			final Block block = location.clone().add(vector.clone().multiply(i)).getBlock();
-			if ((!isTransparent(player, block) && !isIce(block) && !isPlant(block) && !isSnow(block) && !isCauldron(block) && !isMud(block) && !isSponge(block)) || RegionProtection.isRegionProtected(player, location, "WaterManipulation")) {
+		if (RegionProtection.isRegionProtected(player, location, "WaterManipulation")) {
+			return null;
+		}
+
+		final BlockRaycast ray = new BlockRaycast(location, range);
+		while (ray.next()) {
+			final Block block = ray.getBlock();
+			if (!isTransparent(player, block) && !isIce(block) && !isPlant(block) && !isSnow(block) && !isCauldron(block) && !isMud(block) && !isSponge(block)) {
 				continue;
 			} else if (isWaterbendable(player, null, block) && (!isPlant(block) || plantbending)) {
 				if (TempBlock.isTempBlock(block) && !isBendableWaterTempBlock(block)) {
@@ -0,0 +1,96 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.BendingPlayer;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.util.ClickType;
+
+/**
+ * Maps an ability and the way it was triggered to the code that activates it,
+ * so a click or sneak only needs a single lookup to find what to do.
+ * <p>
+ * Activations are registered once, under the name of the ability. The core
+ * abilities are registered by the listener, and addons can register their
+ * own abilities here instead of listening for clicks themselves. Addon
+ * abilities are only activated if the player can currently bend with the
+ * item they are holding.
+ *
+ * <pre>
+ * ActivationRegistry.register("MyAbility", ClickType.LEFT_CLICK, (player, bPlayer) -&gt; new MyAbility(player));
+ * </pre>
+ */
+public class ActivationRegistry {
+
+	/**
+	 * Activates an ability for a player.
+	 */
+	@FunctionalInterface
+	public interface Activation {
+		void activate(Player player, BendingPlayer bPlayer);
+	}
+
+	private static final Map<String, Activation[]> ACTIVATIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers the activation of an ability for a click type, replacing any
+	 * previously registered activation for that pair.
+	 *
+	 * @param ability The name of the ability, as returned by
+	 *            {@link CoreAbility#getName()}
+	 * @param type The way the ability is triggered
+	 * @param activation The code that activates the ability
+	 */
+	public static void register(final String ability, final ClickType type, final Activation activation) {
+		ACTIVATIONS.compute(ability, (name, activations) -> {
+			final Activation[] updated = activations == null ? new Activation[ClickType.values().length] : activations.clone();
+			updated[type.ordinal()] = activation;
+			return updated;
+		});
+	}
+
+	/**
+	 * Removes every activation registered for an ability.
+	 *
+	 * @param ability The name of the ability
+	 */
+	public static void unregister(final String ability) {
+		ACTIVATIONS.remove(ability);
+	}
+
+	/**
+	 * @param ability The name of the ability
+	 * @param type The way the ability is triggered
+	 * @return The registered activation, or null if there is none
+	 */
+	public static Activation get(final String ability, final ClickType type) {
+		final Activation[] activations = ACTIVATIONS.get(ability);
+		return activations == null ? null : activations[type.ordinal()];
+	}
+
+	/**
+	 * Activates an ability if an activation is registered for it.
+	 *
+	 * @param ability The ability bound by the player
+	 * @param type The way the ability was triggered
+	 * @param player The player triggering the ability
+	 * @param bPlayer The BendingPlayer of the player
+	 * @return True if an activation was registered and run
+	 */
+	public static boolean activate(final CoreAbility ability, final ClickType type, final Player player, final BendingPlayer bPlayer) {
+		if (ability == null) {
+			return false;
+		}
+
+		final Activation activation = get(ability.getName(), type);
+		if (activation == null) {
+			return false;
+		}
+		activation.activate(player, bPlayer);
+		return true;
+	}
+
+}
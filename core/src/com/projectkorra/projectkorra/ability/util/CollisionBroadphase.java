@@ -0,0 +1,140 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import com.projectkorra.projectkorra.ability.CoreAbility;
+
+/**
+ * A sparse voxel hash used by the {@link CollisionManager} to avoid comparing
+ * every instance of two colliding abilities against each other.
+ * <p>
+ * Every location of every collidable ability is bucketed into a uniform,
+ * per-world grid once per detection pass. Two abilities can only collide if
+ * one of their locations share or neighbour a cell, as long as the cell size
+ * is at least the largest possible sum of two collision radii.
+ */
+public class CollisionBroadphase {
+
+	private final double cellSize;
+	private final Map<World, Map<Long, List<CoreAbility>>> cells;
+	private final Map<CoreAbility, List<Location>> locations;
+	private final Map<CoreAbility, Set<CoreAbility>> nearbyCache;
+
+	public CollisionBroadphase(final double cellSize) {
+		this.cellSize = cellSize;
+		this.cells = new HashMap<>();
+		this.locations = new HashMap<>();
+		this.nearbyCache = new HashMap<>();
+	}
+
+	/**
+	 * Buckets every location of an ability into the grid.
+	 *
+	 * @param ability the ability that occupies the locations
+	 * @param abilityLocations the locations returned by
+	 *            {@link CoreAbility#getLocations()}
+	 */
+	public void insert(final CoreAbility ability, final List<Location> abilityLocations) {
+		this.locations.put(ability, abilityLocations);
+
+		for (int i = 0; i < abilityLocations.size(); i++) {
+			final Location location = abilityLocations.get(i);
+			if (location == null || location.getWorld() == null) {
+				continue;
+			}
+
+			final long key = pack(this.toCell(location.getX()), this.toCell(location.getY()), this.toCell(location.getZ()));
+			final List<CoreAbility> bucket = this.cells.computeIfAbsent(location.getWorld(), k -> new HashMap<>()).computeIfAbsent(key, k -> new ArrayList<>(4));
+
+			// Locations of an ability are inserted together, so checking the
+			// last entry is enough to keep each ability once per cell.
+			if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != ability) {
+				bucket.add(ability);
+			}
+		}
+	}
+
+	/**
+	 * Returns every inserted ability that occupies the same or a neighbouring
+	 * cell as the given ability, including the ability itself.
+	 *
+	 * @param ability an ability previously passed to
+	 *            {@link #insert(CoreAbility, List)}
+	 * @return the abilities that could possibly collide with the ability
+	 */
+	public Set<CoreAbility> getNearby(final CoreAbility ability) {
+		final Set<CoreAbility> cached = this.nearbyCache.get(ability);
+		if (cached != null) {
+			return cached;
+		}
+
+		final List<Location> abilityLocations = this.locations.get(ability);
+		if (abilityLocations == null) {
+			return Collections.emptySet();
+		}
+
+		final Set<CoreAbility> nearby = new LinkedHashSet<>();
+		World lastWorld = null;
+		long lastKey = 0;
+
+		for (int i = 0; i < abilityLocations.size(); i++) {
+			final Location location = abilityLocations.get(i);
+			if (location == null || location.getWorld() == null) {
+				continue;
+			}
+
+			final int cellX = this.toCell(location.getX());
+			final int cellY = this.toCell(location.getY());
+			final int cellZ = this.toCell(location.getZ());
+			final long key = pack(cellX, cellY, cellZ);
+
+			// Consecutive locations usually fall into the same cell.
+			if (location.getWorld() == lastWorld && key == lastKey) {
+				continue;
+			}
+			lastWorld = location.getWorld();
+			lastKey = key;
+
+			final Map<Long, List<CoreAbility>> worldCells = this.cells.get(lastWorld);
+			if (worldCells == null) {
+				continue;
+			}
+
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					for (int dz = -1; dz <= 1; dz++) {
+						final List<CoreAbility> bucket = worldCells.get(pack(cellX + dx, cellY + dy, cellZ + dz));
+						if (bucket != null) {
+							nearby.addAll(bucket);
+						}
+					}
+				}
+			}
+		}
+
+		this.nearbyCache.put(ability, nearby);
+		return nearby;
+	}
+
+	public double getCellSize() {
+		return this.cellSize;
+	}
+
+	private int toCell(final double coordinate) {
+		return (int) Math.floor(coordinate / this.cellSize);
+	}
+
+	private static long pack(final int x, final int y, final int z) {
+		return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+	}
+
+}
@@ -5,6 +5,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -13,7 +15,9 @@ import org.bukkit.scheduler.BukkitRunnable;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.PassiveAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.event.AbilityCollisionEvent;
+import com.projectkorra.projectkorra.util.Profiler;
 
 /**
  * A CollisionManager is used to monitor possible collisions between all
@@ -56,6 +60,26 @@ public class CollisionManager {
 	 */
 	private double certainNoCollisionDistance;
 
+	/*
+	 * If true the locations of all collidable abilities are bucketed into a
+	 * spatial hash before comparing them, so that only abilities that are near
+	 * each other are checked. Set to false to compare every pair of instances.
+	 */
+	private boolean broadphase;
+
+	/*
+	 * The minimum size of a broadphase cell in blocks. The actual size is
+	 * raised to twice the largest collision radius of a pass if needed.
+	 */
+	private double broadphaseCellSize;
+
+	/*
+	 * Statistics of the last detection pass, useful for comparing the
+	 * broadphase against the brute force path.
+	 */
+	private long lastDetectionTime;
+	private int narrowphaseTests;
+
 	private ArrayList<Collision> collisions;
 	private BukkitRunnable detectionRunnable;
 
@@ -63,6 +87,8 @@ public class CollisionManager {
 		this.removeMultipleInstances = true;
 		this.detectionDelay = 1;
 		this.certainNoCollisionDistance = 100;
+		this.broadphase = ConfigManager.getConfig().getBoolean("Properties.Collisions.Broadphase.Enabled", true);
+		this.broadphaseCellSize = ConfigManager.getConfig().getDouble("Properties.Collisions.Broadphase.CellSize", 4.0);
 		this.collisions = new ArrayList<>();
 	}
 
@@ -81,6 +107,28 @@ public class CollisionManager {
 			return;
 		}
 
+		final long startTime = System.nanoTime();
+		this.narrowphaseTests = 0;
+
+		final boolean profiling = Profiler.start("collision", this.broadphase ? "broadphase" : "bruteforce");
+		try {
+			if (this.broadphase) {
+				this.detectCollisionsBroadphase();
+			} else {
+				this.detectCollisionsBruteForce();
+			}
+		} finally {
+			if (profiling) Profiler.stop();
+		}
+
+		this.lastDetectionTime = System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Compares every instance of the first ability of each Collision against
+	 * every instance of the second ability.
+	 */
+	private void detectCollisionsBruteForce() {
 		final HashMap<CoreAbility, List<Location>> locationsCache = new HashMap<>();
 
 		for (final Collision collision : this.collisions) {
@@ -93,7 +141,6 @@ public class CollisionManager {
 				continue;
 			}
 			final HashSet<CoreAbility> alreadyCollided = new HashSet<CoreAbility>();
-			final double certainNoCollisionDistSquared = Math.pow(this.certainNoCollisionDistance, 2);
 
 			for (final CoreAbility abilityFirst : instancesFirst) {
 				if (abilityFirst.getPlayer() == null || alreadyCollided.contains(abilityFirst) || !abilityFirst.isCollidable()) {
@@ -123,62 +170,156 @@ public class CollisionManager {
 						continue;
 					}
 
-					boolean collided = false;
-					boolean certainNoCollision = false; // Used for efficiency.
-					Location locationFirst = null;
-					Location locationSecond = null;
-					final double requiredDist = abilityFirst.getCollisionRadius() + abilitySecond.getCollisionRadius();
-					final double requiredDistSquared = Math.pow(requiredDist, 2);
-
-					for (int i = 0; i < locationsFirst.size(); i++) {
-						locationFirst = locationsFirst.get(i);
-						if (locationFirst == null) {
-							continue;
-						}
-						for (int j = 0; j < locationsSecond.size(); j++) {
-							locationSecond = locationsSecond.get(j);
-							if (locationSecond == null) {
-								continue;
-							}
-
-							if (locationFirst.getWorld() != locationSecond.getWorld()) {
-								continue;
-							}
-							final double distSquared = locationFirst.distanceSquared(locationSecond);
-							if (distSquared <= requiredDistSquared) {
-								collided = true;
-								break;
-							} else if (distSquared >= certainNoCollisionDistSquared) {
-								certainNoCollision = true;
-								break;
-							}
-						}
-						if (collided || certainNoCollision) {
-							break;
-						}
+					if (this.handlePotentialCollision(collision, abilityFirst, abilitySecond, locationsFirst, locationsSecond) && !this.removeMultipleInstances) {
+						alreadyCollided.add(abilityFirst);
+						alreadyCollided.add(abilitySecond);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Buckets the locations of every collidable instance into a
+	 * {@link CollisionBroadphase} once, then only compares instances that share
+	 * or neighbour a cell.
+	 */
+	private void detectCollisionsBroadphase() {
+		final Set<Class<? extends CoreAbility>> collidingClasses = new HashSet<>();
+		for (final Collision collision : this.collisions) {
+			collidingClasses.add(collision.getAbilityFirst().getClass());
+			collidingClasses.add(collision.getAbilitySecond().getClass());
+		}
+
+		final HashMap<CoreAbility, List<Location>> locationsCache = new HashMap<>();
+		double maxCollisionRadius = 0;
+
+		for (final Class<? extends CoreAbility> clazz : collidingClasses) {
+			for (final CoreAbility ability : CoreAbility.getAbilities(clazz)) {
+				if (ability.getPlayer() == null || !ability.isCollidable()) {
+					continue;
+				}
+
+				final List<Location> locations = ability.getLocations();
+				if (locations.isEmpty()) {
+					continue;
+				}
+
+				locationsCache.put(ability, locations);
+				maxCollisionRadius = Math.max(maxCollisionRadius, ability.getCollisionRadius());
+			}
+		}
+
+		if (locationsCache.size() < 2) {
+			return;
+		}
+
+		// Two locations can only collide if they are within the sum of both
+		// radii, so a cell this large guarantees they share or neighbour a cell.
+		final CollisionBroadphase grid = new CollisionBroadphase(Math.max(this.broadphaseCellSize, maxCollisionRadius * 2));
+		for (final Map.Entry<CoreAbility, List<Location>> entry : locationsCache.entrySet()) {
+			grid.insert(entry.getKey(), entry.getValue());
+		}
+
+		for (final Collision collision : this.collisions) {
+			final Collection<? extends CoreAbility> instancesFirst = CoreAbility.getAbilities(collision.getAbilityFirst().getClass());
+			if (instancesFirst.isEmpty()) {
+				continue;
+			}
+			final Class<? extends CoreAbility> classSecond = collision.getAbilitySecond().getClass();
+			if (CoreAbility.getAbilities(classSecond).isEmpty()) {
+				continue;
+			}
+			final HashSet<CoreAbility> alreadyCollided = new HashSet<CoreAbility>();
+
+			for (final CoreAbility abilityFirst : instancesFirst) {
+				final List<Location> locationsFirst = locationsCache.get(abilityFirst);
+				if (locationsFirst == null || alreadyCollided.contains(abilityFirst)) {
+					continue;
+				}
+
+				for (final CoreAbility abilitySecond : grid.getNearby(abilityFirst)) {
+					if (abilitySecond.getClass() != classSecond || alreadyCollided.contains(abilitySecond)) {
+						continue;
+					} else if (abilityFirst.getPlayer().equals(abilitySecond.getPlayer())) {
+						continue;
 					}
 
-					if (collided) {
-						final Collision forwardCollision = new Collision(abilityFirst, abilitySecond, collision.isRemovingFirst(), collision.isRemovingSecond(), locationFirst, locationSecond);
-						final Collision reverseCollision = new Collision(abilitySecond, abilityFirst, collision.isRemovingSecond(), collision.isRemovingFirst(), locationSecond, locationFirst);
-						final AbilityCollisionEvent event = new AbilityCollisionEvent(forwardCollision);
-						Bukkit.getServer().getPluginManager().callEvent(event);
-						if (event.isCancelled()) {
-							continue;
-						}
-						abilityFirst.handleCollision(forwardCollision);
-						abilitySecond.handleCollision(reverseCollision);
-						if (!this.removeMultipleInstances) {
-							alreadyCollided.add(abilityFirst);
-							alreadyCollided.add(abilitySecond);
-							break;
-						}
+					if (this.handlePotentialCollision(collision, abilityFirst, abilitySecond, locationsFirst, locationsCache.get(abilitySecond)) && !this.removeMultipleInstances) {
+						alreadyCollided.add(abilityFirst);
+						alreadyCollided.add(abilitySecond);
+						break;
 					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Compares the locations of two ability instances and, if they are close
+	 * enough, calls the {@link AbilityCollisionEvent} and both
+	 * {@link CoreAbility#handleCollision(Collision)} methods.
+	 *
+	 * @return true if the abilities collided and the event was not cancelled
+	 */
+	private boolean handlePotentialCollision(final Collision collision, final CoreAbility abilityFirst, final CoreAbility abilitySecond, final List<Location> locationsFirst, final List<Location> locationsSecond) {
+		this.narrowphaseTests++;
+
+		final double certainNoCollisionDistSquared = Math.pow(this.certainNoCollisionDistance, 2);
+		boolean collided = false;
+		boolean certainNoCollision = false; // Used for efficiency.
+		Location locationFirst = null;
+		Location locationSecond = null;
+		final double requiredDist = abilityFirst.getCollisionRadius() + abilitySecond.getCollisionRadius();
+		final double requiredDistSquared = Math.pow(requiredDist, 2);
+
+		for (int i = 0; i < locationsFirst.size(); i++) {
+			locationFirst = locationsFirst.get(i);
+			if (locationFirst == null) {
+				continue;
+			}
+			for (int j = 0; j < locationsSecond.size(); j++) {
+				locationSecond = locationsSecond.get(j);
+				if (locationSecond == null) {
+					continue;
+				}
+
+				if (locationFirst.getWorld() != locationSecond.getWorld()) {
+					continue;
+				}
+				final double distSquared = locationFirst.distanceSquared(locationSecond);
+				if (distSquared <= requiredDistSquared) {
+					collided = true;
+					break;
+				} else if (distSquared >= certainNoCollisionDistSquared) {
+					certainNoCollision = true;
+					break;
+				}
+			}
+			if (collided || certainNoCollision) {
+				break;
+			}
+		}
+
+		if (!collided) {
+			return false;
+		}
+
+		final Collision forwardCollision = new Collision(abilityFirst, abilitySecond, collision.isRemovingFirst(), collision.isRemovingSecond(), locationFirst, locationSecond);
+		final Collision reverseCollision = new Collision(abilitySecond, abilityFirst, collision.isRemovingSecond(), collision.isRemovingFirst(), locationSecond, locationFirst);
+		if (AbilityCollisionEvent.hasListeners()) {
+			final AbilityCollisionEvent event = new AbilityCollisionEvent(forwardCollision);
+			Bukkit.getServer().getPluginManager().callEvent(event);
+			if (event.isCancelled()) {
+				return false;
+			}
+		}
+		abilityFirst.handleCollision(forwardCollision);
+		abilitySecond.handleCollision(reverseCollision);
+		return true;
+	}
+
 	/**
 	 * Adds a "fake" Collision to the CollisionManager so that two abilities can
 	 * be checked for collisions. This Collision only needs to define the
@@ -252,6 +393,37 @@ public class CollisionManager {
 		this.certainNoCollisionDistance = certainNoCollisionDistance;
 	}
 
+	public boolean isBroadphase() {
+		return this.broadphase;
+	}
+
+	public void setBroadphase(final boolean broadphase) {
+		this.broadphase = broadphase;
+	}
+
+	public double getBroadphaseCellSize() {
+		return this.broadphaseCellSize;
+	}
+
+	public void setBroadphaseCellSize(final double broadphaseCellSize) {
+		this.broadphaseCellSize = broadphaseCellSize;
+	}
+
+	/**
+	 * @return the time in nanoseconds the last detection pass took
+	 */
+	public long getLastDetectionTime() {
+		return this.lastDetectionTime;
+	}
+
+	/**
+	 * @return the amount of ability pairs whose locations were compared in the
+	 *         last detection pass
+	 */
+	public int getNarrowphaseTests() {
+		return this.narrowphaseTests;
+	}
+
 	public ArrayList<Collision> getCollisions() {
 		return this.collisions;
 	}
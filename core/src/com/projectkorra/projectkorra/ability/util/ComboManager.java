@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.projectkorra.projectkorra.util.ThreadUtil;
@@ -23,8 +24,43 @@ import com.projectkorra.projectkorra.util.ReflectionHandler;
 
 public class ComboManager {
 	private static final long CLEANUP_DELAY = 20 * 60;
-	private static final Map<String, ArrayList<AbilityInformation>> RECENTLY_USED = new ConcurrentHashMap<>();
-	private static final HashMap<String, ComboAbilityInfo> COMBO_ABILITIES = new HashMap<>();
+	/**
+	 * The amount of recent abilities remembered per player, and so the longest
+	 * combo that can be performed
+	 */
+	private static final int HISTORY_SIZE = 8;
+	private static final Map<UUID, ComboHistory> RECENTLY_USED = new ConcurrentHashMap<>();
+	private static final HashMap<String, ComboAbilityInfo> COMBO_ABILITIES = new HashMap<String, ComboAbilityInfo>() {
+		// Combos can be added through getComboAbilities(), so rebuild the trie whenever the map changes
+		@Override
+		public ComboAbilityInfo put(final String key, final ComboAbilityInfo value) {
+			comboTrie = null;
+			return super.put(key, value);
+		}
+
+		@Override
+		public void putAll(final Map<? extends String, ? extends ComboAbilityInfo> m) {
+			comboTrie = null;
+			super.putAll(m);
+		}
+
+		@Override
+		public ComboAbilityInfo remove(final Object key) {
+			comboTrie = null;
+			return super.remove(key);
+		}
+
+		@Override
+		public void clear() {
+			comboTrie = null;
+			super.clear();
+		}
+	};
+	/**
+	 * Every combo, stored as a trie of their abilities from the last to the
+	 * first. Built when first needed after the combos change.
+	 */
+	private static volatile ComboNode comboTrie;
 	private static final HashMap<String, String> AUTHORS = new HashMap<>();
 	private static final HashMap<String, String> DESCRIPTIONS = new HashMap<>();
 	private static final HashMap<String, String> INSTRUCTIONS = new HashMap<>();
@@ -91,16 +127,7 @@ public class ComboManager {
 	 * @param info The AbilityInformation to add
 	 */
 	public static void addRecentAbility(final Player player, final AbilityInformation info) {
-		ArrayList<AbilityInformation> list;
-		final String name = player.getName();
-		if (RECENTLY_USED.containsKey(name)) {
-			list = RECENTLY_USED.get(name);
-		} else {
-			list = new ArrayList<AbilityInformation>();
-		}
-
-		list.add(info);
-		RECENTLY_USED.put(name, list);
+		RECENTLY_USED.computeIfAbsent(player.getUniqueId(), uuid -> new ComboHistory()).add(info.getAbilityName(), info.getClickType(), info.getTime());
 	}
 
 	/**
@@ -109,15 +136,9 @@ public class ComboManager {
 	 * @param type The type of combo to remove
 	 */
 	public static void removeRecentType(final Player player, ClickType type) {
-		if (RECENTLY_USED.containsKey(player.getName())) {
-			ArrayList<AbilityInformation> list = RECENTLY_USED.get(player.getName());
-
-			if (list.size() > 0) {
-				AbilityInformation last = list.get(list.size() - 1);
-				if (last.getTime() > System.currentTimeMillis() - 50 && last.getClickType() == type) { //If the ability was within the last tick
-					list.remove(last);
-				}
-			}
+		final ComboHistory history = RECENTLY_USED.get(player.getUniqueId());
+		if (history != null) {
+			history.removeLast(type, System.currentTimeMillis() - 50); //If the ability was within the last tick
 		}
 	}
 
@@ -132,38 +153,82 @@ public class ComboManager {
 	 *         no valid combo was found
 	 */
 	public static ComboAbilityInfo checkForValidCombo(final Player player) {
-		final ArrayList<AbilityInformation> playerCombo = getRecentlyUsedAbilities(player, 8);
-		for (final String ability : COMBO_ABILITIES.keySet()) {
-			final ComboAbilityInfo customAbility = COMBO_ABILITIES.get(ability);
-			final ArrayList<AbilityInformation> abilityCombo = customAbility.getAbilities();
-			final int size = abilityCombo.size();
+		final ComboHistory history = RECENTLY_USED.get(player.getUniqueId());
+		if (history == null) {
+			return null;
+		}
 
-			if (playerCombo.size() < size) {
-				continue;
-			}
+		ComboNode trie = comboTrie;
+		if (trie == null) {
+			trie = buildComboTrie();
+		}
 
-			boolean isValid = true;
-			for (int i = 1; i <= size; i++) {
-				final AbilityInformation playerInfo = playerCombo.get(playerCombo.size() - i);
-				final AbilityInformation comboInfo = abilityCombo.get(abilityCombo.size() - i);
-				if (playerInfo.getAbilityName().equals(comboInfo.getAbilityName()) && playerInfo.getClickType() == ClickType.LEFT_CLICK_ENTITY && comboInfo.getClickType() == ClickType.LEFT_CLICK) {
-					continue;
-				} else if (!playerInfo.equalsWithoutTime(comboInfo)) {
-					isValid = false;
-					break;
+		synchronized (history) {
+			return match(trie, history, 0, System.currentTimeMillis() - CLEANUP_DELAY * 50);
+		}
+	}
+
+	/**
+	 * Walks the trie along the player's recent abilities, newest first, and
+	 * returns the longest combo found.
+	 */
+	private static ComboAbilityInfo match(final ComboNode node, final ComboHistory history, final int age, final long expiry) {
+		if (age < history.size && history.getTime(age) >= expiry) {
+			final String name = history.getName(age);
+			final ClickType type = history.getClickType(age);
+
+			ComboAbilityInfo longest = null;
+			final ComboNode next = node.getChild(name, type);
+			if (next != null) {
+				longest = match(next, history, age + 1, expiry);
+			}
+			// Hitting an entity also counts as a left click
+			if (longest == null && type == ClickType.LEFT_CLICK_ENTITY) {
+				final ComboNode leftClick = node.getChild(name, ClickType.LEFT_CLICK);
+				if (leftClick != null) {
+					longest = match(leftClick, history, age + 1, expiry);
 				}
 			}
+			if (longest != null) {
+				return longest;
+			}
+		}
+		return node.combo;
+	}
+
+	private static synchronized ComboNode buildComboTrie() {
+		if (comboTrie != null) {
+			return comboTrie;
+		}
+
+		final ComboNode root = new ComboNode();
+		for (final ComboAbilityInfo info : COMBO_ABILITIES.values()) {
+			final ArrayList<AbilityInformation> combination = info.getAbilities();
+			if (combination == null || combination.isEmpty() || combination.size() > HISTORY_SIZE) {
+				continue;
+			}
 
-			if (isValid) {
-				return customAbility;
+			ComboNode node = root;
+			for (int i = combination.size() - 1; i >= 0 && node != null; i--) {
+				final AbilityInformation step = combination.get(i);
+				node = step.getClickType() == null ? null : node.getOrCreateChild(step.getAbilityName(), step.getClickType());
+			}
+			if (node != null && node.combo == null) {
+				node.combo = info;
 			}
 		}
 
-		return null;
+		comboTrie = root;
+		return root;
 	}
 
+	/**
+	 * Forgets the recent abilities of players that haven't used an ability
+	 * for a while.
+	 */
 	public static void cleanupOldCombos() {
-		RECENTLY_USED.clear();
+		final long expiry = System.currentTimeMillis() - CLEANUP_DELAY * 50;
+		RECENTLY_USED.values().removeIf(history -> history.isExpired(expiry));
 	}
 
 	/**
@@ -176,22 +241,19 @@ public class ComboManager {
 	 *         used abilities
 	 */
 	public static ArrayList<AbilityInformation> getRecentlyUsedAbilities(final Player player, final int amount) {
-		final String name = player.getName();
-		if (!RECENTLY_USED.containsKey(name)) {
+		final ComboHistory history = RECENTLY_USED.get(player.getUniqueId());
+		if (history == null) {
 			return new ArrayList<AbilityInformation>();
 		}
 
-		final ArrayList<AbilityInformation> list = RECENTLY_USED.get(name);
-		if (list.size() < amount) {
-			return new ArrayList<AbilityInformation>(list);
-		}
-
-		final ArrayList<AbilityInformation> tempList = new ArrayList<AbilityInformation>();
-		for (int i = 0; i < amount; i++) {
-			tempList.add(0, list.get(list.size() - 1 - i));
+		synchronized (history) {
+			final int size = Math.min(amount, history.size);
+			final ArrayList<AbilityInformation> list = new ArrayList<AbilityInformation>(size);
+			for (int age = size - 1; age >= 0; age--) {
+				list.add(new AbilityInformation(history.getName(age), history.getClickType(age), history.getTime(age)));
+			}
+			return list;
 		}
-
-		return tempList;
 	}
 
 	/**
@@ -264,6 +326,78 @@ public class ComboManager {
 		}
 	}
 
+	/**
+	 * The most recent abilities used by a player, stored in a ring buffer.
+	 */
+	private static class ComboHistory {
+		private final String[] names = new String[HISTORY_SIZE];
+		private final ClickType[] clickTypes = new ClickType[HISTORY_SIZE];
+		private final long[] times = new long[HISTORY_SIZE];
+		private int next;
+		private int size;
+
+		private synchronized void add(final String name, final ClickType type, final long time) {
+			this.names[this.next] = name;
+			this.clickTypes[this.next] = type;
+			this.times[this.next] = time;
+			this.next = (this.next + 1) % HISTORY_SIZE;
+			this.size = Math.min(this.size + 1, HISTORY_SIZE);
+		}
+
+		private synchronized void removeLast(final ClickType type, final long after) {
+			if (this.size > 0 && this.getTime(0) > after && this.getClickType(0) == type) {
+				this.next = (this.next + HISTORY_SIZE - 1) % HISTORY_SIZE;
+				this.names[this.next] = null;
+				this.size--;
+			}
+		}
+
+		private synchronized boolean isExpired(final long expiry) {
+			return this.size == 0 || this.getTime(0) < expiry;
+		}
+
+		/**
+		 * @param age 0 for the most recent ability, 1 for the one before, etc.
+		 */
+		private int index(final int age) {
+			return (this.next - 1 - age + HISTORY_SIZE) % HISTORY_SIZE;
+		}
+
+		private String getName(final int age) {
+			return this.names[this.index(age)];
+		}
+
+		private ClickType getClickType(final int age) {
+			return this.clickTypes[this.index(age)];
+		}
+
+		private long getTime(final int age) {
+			return this.times[this.index(age)];
+		}
+	}
+
+	/**
+	 * A node in the combo trie, reached by following a combo's abilities from
+	 * the last one to the first.
+	 */
+	private static class ComboNode {
+		private final Map<String, ComboNode[]> children = new HashMap<>();
+		private ComboAbilityInfo combo;
+
+		private ComboNode getChild(final String name, final ClickType type) {
+			final ComboNode[] byType = this.children.get(name);
+			return byType == null ? null : byType[type.ordinal()];
+		}
+
+		private ComboNode getOrCreateChild(final String name, final ClickType type) {
+			final ComboNode[] byType = this.children.computeIfAbsent(name, k -> new ComboNode[ClickType.values().length]);
+			if (byType[type.ordinal()] == null) {
+				byType[type.ordinal()] = new ComboNode();
+			}
+			return byType[type.ordinal()];
+		}
+	}
+
 	/**
 	 * Contains information on an ability used in a combo.
 	 *
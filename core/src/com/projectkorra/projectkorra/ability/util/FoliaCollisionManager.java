@@ -200,10 +200,12 @@ public class FoliaCollisionManager {
                     if (collided) {
                         final Collision forwardCollision = new Collision(abilityFirst, abilitySecond, collision.isRemovingFirst(), collision.isRemovingSecond(), locationFirst, locationSecond);
                         final Collision reverseCollision = new Collision(abilitySecond, abilityFirst, collision.isRemovingSecond(), collision.isRemovingFirst(), locationSecond, locationFirst);
-                        final AbilityCollisionEvent event = new AbilityCollisionEvent(forwardCollision);
-                        Bukkit.getServer().getPluginManager().callEvent(event);
-                        if (event.isCancelled()) {
-                            continue;
+                        if (AbilityCollisionEvent.hasListeners()) {
+                            final AbilityCollisionEvent event = new AbilityCollisionEvent(forwardCollision);
+                            Bukkit.getServer().getPluginManager().callEvent(event);
+                            if (event.isCancelled()) {
+                                continue;
+                            }
                         }
                         abilityFirst.handleCollision(forwardCollision);
                         abilitySecond.handleCollision(reverseCollision);
@@ -0,0 +1,215 @@
+package com.projectkorra.projectkorra.ability.util;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+
+/**
+ * Limits how much time ProjectKorra spends in a single server tick. When the
+ * budget is enabled and a tick has used up its time, low priority work is
+ * put off to a later tick instead of making the tick even longer.
+ * <p>
+ * Abilities are progressed in the order of their {@link Priority}. Abilities
+ * with {@link Priority#MOVEMENT} are always progressed, the others are skipped
+ * once the budget is used up, but never for more ticks in a row than the
+ * configured maximum of their priority. Sweeps that run every tick, such as
+ * cleaning up old cooldowns or reverting TempBlocks, use a {@link Deferral}
+ * to do the same.
+ * <p>
+ * The budget is not used on Folia, where abilities are progressed by the
+ * region they are in instead of in one tick.
+ */
+public class TickBudget {
+
+	public enum Priority {
+		/** Abilities that move the player, which feel laggy when skipped */
+		MOVEMENT,
+		/** Most abilities */
+		NORMAL,
+		/** Abilities that only display something, such as particles or light */
+		COSMETIC
+	}
+
+	private static boolean enabled;
+	private static long budget;
+	private static int maxDeferredNormal;
+	private static int maxDeferredCosmetic;
+
+	private static long tickStart;
+	private static long deadline = Long.MAX_VALUE;
+	private static boolean degraded;
+
+	private static long ticks;
+	private static long degradedTicks;
+	private static long overrunTicks;
+	private static long deferredProgress;
+	private static long deferredTasks;
+
+	private TickBudget() {}
+
+	/**
+	 * Reads the budget from the config. Called when the plugin is enabled or
+	 * reloaded.
+	 */
+	public static void load() {
+		enabled = ConfigManager.getConfig().getBoolean("Properties.TickBudget.Enabled", false) && !ProjectKorra.isFolia();
+		budget = (long) (ConfigManager.getConfig().getDouble("Properties.TickBudget.Milliseconds", 15.0) * 1_000_000L);
+		maxDeferredNormal = Math.max(0, ConfigManager.getConfig().getInt("Properties.TickBudget.MaxDeferredTicks.Normal", 1));
+		maxDeferredCosmetic = Math.max(0, ConfigManager.getConfig().getInt("Properties.TickBudget.MaxDeferredTicks.Cosmetic", 4));
+		deadline = Long.MAX_VALUE;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts the budget of a new tick. Called by the BendingManager before
+	 * anything else is done in the tick.
+	 */
+	public static void startTick() {
+		if (!enabled) {
+			return;
+		}
+		tickStart = System.nanoTime();
+		deadline = tickStart + budget;
+		degraded = false;
+		ticks++;
+	}
+
+	/**
+	 * Ends the budget of the tick and records whether it went over.
+	 */
+	public static void endTick() {
+		if (!enabled) {
+			return;
+		}
+		if (System.nanoTime() - tickStart > budget) {
+			overrunTicks++;
+		}
+	}
+
+	/**
+	 * @return True if the current tick has used up its time
+	 */
+	public static boolean isExhausted() {
+		return enabled && System.nanoTime() > deadline;
+	}
+
+	/**
+	 * Checks if work of the given priority should be skipped this tick.
+	 *
+	 * @param priority The priority of the work
+	 * @param deferredTicks How many ticks in a row the work has been skipped
+	 * @return True if the work should be skipped
+	 */
+	public static boolean shouldDefer(final Priority priority, final int deferredTicks) {
+		if (priority == Priority.MOVEMENT || deferredTicks >= getMaxDeferredTicks(priority) || !isExhausted()) {
+			return false;
+		}
+		markDegraded();
+		return true;
+	}
+
+	/**
+	 * @return The most ticks in a row work of the given priority can be skipped
+	 */
+	public static int getMaxDeferredTicks(final Priority priority) {
+		switch (priority) {
+			case NORMAL:
+				return maxDeferredNormal;
+			case COSMETIC:
+				return maxDeferredCosmetic;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Called when the progress of an ability was skipped.
+	 */
+	public static void recordDeferredProgress() {
+		deferredProgress++;
+	}
+
+	private static void markDegraded() {
+		if (!degraded) {
+			degraded = true;
+			degradedTicks++;
+		}
+	}
+
+	/**
+	 * @return The amount of ticks the budget has been used for
+	 */
+	public static long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return The amount of ticks in which some work was skipped
+	 */
+	public static long getDegradedTicks() {
+		return degradedTicks;
+	}
+
+	/**
+	 * @return The amount of ticks that took longer than the budget, even
+	 *         after skipping work
+	 */
+	public static long getOverrunTicks() {
+		return overrunTicks;
+	}
+
+	/**
+	 * @return How many times the progress of an ability was skipped
+	 */
+	public static long getDeferredProgress() {
+		return deferredProgress;
+	}
+
+	/**
+	 * @return How many times a sweep was skipped
+	 */
+	public static long getDeferredTasks() {
+		return deferredTasks;
+	}
+
+	public static void resetMetrics() {
+		ticks = degradedTicks = overrunTicks = deferredProgress = deferredTasks = 0;
+	}
+
+	/**
+	 * Keeps track of how many ticks in a row a piece of work that normally
+	 * runs every tick has been skipped.
+	 *
+	 * <pre>
+	 * if (this.deferral.shouldRun()) {
+	 *     this.handleCooldowns();
+	 * }
+	 * </pre>
+	 */
+	public static class Deferral {
+
+		private final Priority priority;
+		private int deferredTicks;
+
+		public Deferral(final Priority priority) {
+			this.priority = priority;
+		}
+
+		/**
+		 * @return True if the work should run this tick, false if it should be
+		 *         skipped because the budget is used up
+		 */
+		public boolean shouldRun() {
+			if (shouldDefer(this.priority, this.deferredTicks)) {
+				this.deferredTicks++;
+				deferredTasks++;
+				return false;
+			}
+			this.deferredTicks = 0;
+			return true;
+		}
+	}
+
+}
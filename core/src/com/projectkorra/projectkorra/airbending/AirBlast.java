@@ -7,6 +7,7 @@ import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.bukkit.Effect;
 import org.bukkit.Location;
@@ -333,11 +334,9 @@ public class AirBlast extends AirAbility {
 
 		final Block block = this.location.getBlock();
 
-		for (final Block testblock : GeneralMethods.getBlocksAroundPoint(this.location, this.radius)) {
-			if (!processBlock(testblock.getLocation())) {
-				remove();
-				return;
-			}
+		if (BlockNeighbourhood.anyMatch(this.location, this.radius, (testblock) -> !processBlock(testblock.getLocation()))) {
+			remove();
+			return;
 		}
 
 		/*
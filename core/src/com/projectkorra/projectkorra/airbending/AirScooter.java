@@ -17,6 +17,7 @@ import org.bukkit.util.Vector;
 import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ability.AirAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.attribute.Attribute;
 
 public class AirScooter extends AirAbility {
@@ -272,6 +273,11 @@ public class AirScooter extends AirAbility {
 		return false;
 	}
 
+	@Override
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.MOVEMENT;
+	}
+
 	@Override
 	public boolean isHarmlessAbility() {
 		return true;
@@ -9,7 +9,6 @@ import com.projectkorra.projectkorra.region.RegionProtection;
 import org.bukkit.Effect;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
@@ -21,6 +20,7 @@ import com.projectkorra.projectkorra.ability.util.Collision;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.command.Commands;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 
 public class AirShield extends AirAbility {
 
@@ -173,12 +173,12 @@ public class AirShield extends AirAbility {
 			}
 		}
 
-		for (final Block testblock : GeneralMethods.getBlocksAroundPoint(this.player.getLocation(), this.radius)) {
+		BlockNeighbourhood.forEach(this.player.getLocation(), this.radius, (testblock) -> {
 			if (FireAbility.isFire(testblock.getType())) {
 				testblock.setType(Material.AIR);
 				testblock.getWorld().playEffect(testblock.getLocation(), Effect.EXTINGUISH, 0);
 			}
-		}
+		});
 
 		final Set<Integer> keys = this.angles.keySet();
 		for (final int i : keys) {
@@ -13,6 +13,7 @@ import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ability.AirAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.ability.util.Collision;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.attribute.Attribute;
 
 public class AirSpout extends AirAbility {
@@ -219,6 +220,11 @@ public class AirSpout extends AirAbility {
 		return false;
 	}
 
+	@Override
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.MOVEMENT;
+	}
+
 	@Override
 	public boolean isHarmlessAbility() {
 		return true;
@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -176,11 +177,11 @@ public class AirSwipe extends AirAbility {
 					return false;
 				}
 
-				for (final Block testblock : GeneralMethods.getBlocksAroundPoint(block.getLocation(), this.radius)) {
+				BlockNeighbourhood.forEach(block.getLocation(), this.radius, (testblock) -> {
 					if (FireAbility.isFire(testblock.getType())) {
 						testblock.setType(Material.AIR);
 					}
-				}
+				});
 
 				if (!isAir(block.getType())) {
 					if (block.getType().equals(Material.SNOW)) {
@@ -17,6 +17,7 @@ import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.AirAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.util.DamageHandler;
+import com.projectkorra.projectkorra.util.EntityIndex;
 
 /**
  * Suffocate
@@ -108,6 +109,14 @@ public class Suffocate extends AirAbility {
 				}
 			}
 		} else {
+			// A step can only find an entity within half a block on every axis of the line of sight
+			final Location eye = player.getEyeLocation();
+			final List<Entity> nearby = EntityIndex.getEntitiesInCapsule(eye, eye.clone().add(eye.getDirection().multiply(this.range)), 0.5 * Math.sqrt(3));
+			nearby.remove(player);
+			if (nearby.isEmpty()) {
+				return;
+			}
+
 			List<Entity> entities = new ArrayList<Entity>();
 			for (int i = 0; i < range; i++) {
 				final Location location = GeneralMethods.getTargetedLocation(player, i, getTransparentMaterials());
@@ -25,6 +25,7 @@ import com.projectkorra.projectkorra.ability.FlightAbility;
 import com.projectkorra.projectkorra.ability.MultiAbility;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager;
 import com.projectkorra.projectkorra.ability.util.MultiAbilityManager.MultiAbilityInfoSub;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.airbending.AirScooter;
 import com.projectkorra.projectkorra.airbending.AirSpout;
 import com.projectkorra.projectkorra.attribute.Attribute;
@@ -144,6 +145,11 @@ public class FlightMultiAbility extends FlightAbility implements MultiAbility {
 		return "Flight";
 	}
 
+	@Override
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.MOVEMENT;
+	}
+
 	@Override
 	public boolean isHarmlessAbility() {
 		return true;
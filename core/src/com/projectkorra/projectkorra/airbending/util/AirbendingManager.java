@@ -1,11 +1,13 @@
 package com.projectkorra.projectkorra.airbending.util;
 
 import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.airbending.AirBlast;
 
 public class AirbendingManager implements Runnable {
 
 	public ProjectKorra plugin;
+	private final TickBudget.Deferral deferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
 
 	public AirbendingManager(final ProjectKorra plugin) {
 		this.plugin = plugin;
@@ -13,6 +15,9 @@ public class AirbendingManager implements Runnable {
 
 	@Override
 	public void run() {
+		if (!this.deferral.shouldRun()) {
+			return;
+		}
 		AirBlast.progressOrigins();
 	}
 
@@ -12,24 +12,65 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Everything known about one attribute field of an ability class. A cache is
+ * created once per class and shared by every instance of it, and reads and
+ * writes the field through method handles instead of reflection.
+ */
 public class AttributeCache {
 
     private Field field;
     private String attribute;
+    private final Kind kind;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
     private Map<Class<? extends Annotation>, Annotation> markers = new HashMap<>();
-    private Map<CoreAbility, Object> initialValues = new HashMap<>();
-    private Map<CoreAbility, Set<AttributeModification>> currentModifications = new HashMap<>();
-    private Optional<AttributeModification> avatarStateModifier = Optional.empty();
+    private Map<CoreAbility, Object> initialValues = new ConcurrentHashMap<>();
+    private Map<CoreAbility, Set<AttributeModification>> currentModifications = new ConcurrentHashMap<>();
+    private volatile Optional<AttributeModification> avatarStateModifier = Optional.empty();
 
     public AttributeCache(Field field, String attribute) {
         this.field = field;
         this.attribute = attribute;
+        this.kind = Kind.of(field.getType());
+
+        field.setAccessible(true);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> type = this.kind == Kind.OBJECT ? Object.class : field.getType();
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+        MethodHandle getter;
+        try {
+            getter = lookup.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to read attribute " + attribute + " of " + field.getDeclaringClass().getName(), e);
+        }
+        if (isStatic) getter = MethodHandles.dropArguments(getter, 0, CoreAbility.class);
+        this.getter = getter.asType(MethodType.methodType(type, CoreAbility.class));
+
+        MethodHandle setter;
+        try {
+            setter = lookup.unreflectSetter(field);
+            if (isStatic) setter = MethodHandles.dropArguments(setter, 0, CoreAbility.class);
+        } catch (IllegalAccessException e) { //Older JVMs don't hand out setters for final fields, so go through the field instead
+            try {
+                setter = lookup.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class)).bindTo(field);
+            } catch (NoSuchMethodException | IllegalAccessException e1) {
+                throw new IllegalArgumentException("Unable to write attribute " + attribute + " of " + field.getDeclaringClass().getName(), e1);
+            }
+        }
+        this.setter = setter.asType(MethodType.methodType(void.class, CoreAbility.class, type));
     }
 
     @NotNull
@@ -37,6 +78,46 @@ public class AttributeCache {
         return field;
     }
 
+    /**
+     * Read the value of the attribute from an ability
+     * @param ability The ability to read the attribute from
+     * @return The value of the field, boxed
+     */
+    public Object getValue(CoreAbility ability) {
+        try {
+            switch (kind) {
+                case DOUBLE: return (double) getter.invokeExact(ability);
+                case FLOAT: return (float) getter.invokeExact(ability);
+                case LONG: return (long) getter.invokeExact(ability);
+                case INT: return (int) getter.invokeExact(ability);
+                case BOOLEAN: return (boolean) getter.invokeExact(ability);
+                default: return (Object) getter.invokeExact(ability);
+            }
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Failed to read attribute " + attribute + " of " + ability.getName(), e);
+        }
+    }
+
+    /**
+     * Write the value of the attribute to an ability. Numbers are converted to the type of the field.
+     * @param ability The ability to write the attribute to
+     * @param value The new value of the field
+     */
+    public void setValue(CoreAbility ability, Object value) {
+        try {
+            switch (kind) {
+                case DOUBLE: setter.invokeExact(ability, ((Number) value).doubleValue()); break;
+                case FLOAT: setter.invokeExact(ability, ((Number) value).floatValue()); break;
+                case LONG: setter.invokeExact(ability, ((Number) value).longValue()); break;
+                case INT: setter.invokeExact(ability, ((Number) value).intValue()); break;
+                case BOOLEAN: setter.invokeExact(ability, ((Boolean) value).booleanValue()); break;
+                default: setter.invokeExact(ability, value); break;
+            }
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Failed to set attribute " + attribute + " of " + ability.getName() + " to " + value, e);
+        }
+    }
+
     @NotNull
     public String getAttribute() {
         return attribute;
@@ -73,8 +154,13 @@ public class AttributeCache {
      * @param ability The ability to calculate the AvatarState modifier for
      */
     public void calculateAvatarStateModifier(CoreAbility ability) {
+        //Assigned once, so abilities reading it during a reload never see it half built
+        avatarStateModifier = readAvatarStateModifier(ability);
+    }
+
+    private Optional<AttributeModification> readAvatarStateModifier(CoreAbility ability) {
         // If the ability is an AvatarAbility and requires the Avatar element, we don't want to apply the AvatarState modifier
-        if (ability instanceof AvatarAbility && ((AvatarAbility) ability).requireAvatar()) return;
+        if (ability instanceof AvatarAbility && ((AvatarAbility) ability).requireAvatar()) return Optional.empty();
 
         String configName = attribute;
 
@@ -97,7 +183,7 @@ public class AttributeCache {
                 configObject = ConfigManager.avatarStateConfig.get().get(configPath);
 
                 //And if it still isn't a thing, ignore it
-                if (configObject == null || configObject instanceof ConfigurationSection) return;
+                if (configObject == null || configObject instanceof ConfigurationSection) return Optional.empty();
             }
         }
 
@@ -105,9 +191,9 @@ public class AttributeCache {
         String stringObject = configObject.toString();
 
         if (configObject instanceof Boolean && field.getType() == Boolean.TYPE) {
-            avatarStateModifier = Optional.of(AttributeModification.setter((Boolean) configObject, AttributeModification.PRIORITY_LOW, AttributeModification.AVATAR_STATE_FACTOR));
+            return Optional.of(AttributeModification.setter((Boolean) configObject, AttributeModification.PRIORITY_LOW, AttributeModification.AVATAR_STATE_FACTOR));
         } else if (configObject instanceof Number) {
-            avatarStateModifier = Optional.of(AttributeModification.of(AttributeModifier.SET, (Number) configObject, AttributeModification.PRIORITY_LOW, AttributeModification.AVATAR_STATE_FACTOR));
+            return Optional.of(AttributeModification.of(AttributeModifier.SET, (Number) configObject, AttributeModification.PRIORITY_LOW, AttributeModification.AVATAR_STATE_FACTOR));
         } else if (stringObject != null) {
             stringObject = stringObject.replaceAll(" ", "");
 
@@ -116,16 +202,31 @@ public class AttributeCache {
 
             if (parsed == null) {
                 ProjectKorra.log.severe("Failed to parse AvatarState modification for " + ability.getName() + " " + attribute + " with value " + stringObject);
-                return;
+                return Optional.empty();
             }
-            avatarStateModifier = Optional.of(AttributeModification.of(parsed.getLeft(), parsed.getRight(), AttributeModification.PRIORITY_LOW, AttributeModification.AVATAR_STATE_FACTOR));
+            return Optional.of(AttributeModification.of(parsed.getLeft(), parsed.getRight(), AttributeModification.PRIORITY_LOW, AttributeModification.AVATAR_STATE_FACTOR));
         }
-
-
+        return Optional.empty();
     }
 
     public Optional<AttributeModification> getAvatarStateModifier() {
         return avatarStateModifier;
     }
 
+    /**
+     * The primitive types an attribute field can have, so values can be read and written without reflection
+     */
+    private enum Kind {
+        DOUBLE, FLOAT, LONG, INT, BOOLEAN, OBJECT;
+
+        private static Kind of(Class<?> type) {
+            if (type == double.class) return DOUBLE;
+            if (type == float.class) return FLOAT;
+            if (type == long.class) return LONG;
+            if (type == int.class) return INT;
+            if (type == boolean.class) return BOOLEAN;
+            return OBJECT;
+        }
+    }
+
 }
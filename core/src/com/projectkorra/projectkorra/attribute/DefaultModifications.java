@@ -0,0 +1,77 @@
+package com.projectkorra.projectkorra.attribute;
+
+import com.projectkorra.projectkorra.BendingPlayer;
+import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.ability.BlueFireAbility;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.ability.FireAbility;
+import com.projectkorra.projectkorra.ability.WaterAbility;
+import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
+import com.projectkorra.projectkorra.event.AbilityRecalculateAttributesEvent;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+
+/**
+ * The modifications ProjectKorra applies to attributes itself: the day and night factors, the blue fire factors and
+ * AvatarState. Everything that depends on the ability or player rather than the attribute is worked out once per
+ * recalculation, so these never need to go through the event bus.
+ */
+public class DefaultModifications {
+
+    private DefaultModifications() {}
+
+    /**
+     * Add the default modifications to every attribute of an ability
+     * @param event The recalculation to add the modifications to
+     */
+    public static void apply(AbilityRecalculateAttributesEvent event) {
+        CoreAbility ability = event.getAbility();
+        Player player = ability.getPlayer();
+        BendingPlayer bPlayer = ability.getBendingPlayer();
+
+        double dayNightFactor = -1;
+        NamespacedKey dayNightKey = null;
+        Location location = ability.getLocation();
+        if (location != null) {
+            if (ability instanceof WaterAbility && WaterAbility.isNight(location.getWorld()) && player.hasPermission("bending.water.nightfactor")) {
+                dayNightFactor = WaterAbility.getNightFactor();
+                dayNightKey = AttributeModification.NIGHT_FACTOR;
+            } else if (ability instanceof FireAbility && FireAbility.isDay(location.getWorld()) && player.hasPermission("bending.fire.dayfactor")) {
+                dayNightFactor = FireAbility.getDayFactor();
+                dayNightKey = AttributeModification.DAY_FACTOR;
+            }
+        }
+
+        //Blue fire has factors for a few attributes. But only do it for pure fire abilities and not combustion/lightning
+        boolean blueFire = (ability.getElement() == Element.FIRE || ability.getElement() == Element.BLUE_FIRE) && bPlayer.hasElement(Element.BLUE_FIRE) && player.hasPermission("bending.fire.bluefirefactor");
+        boolean avatarState = bPlayer.isAvatarState();
+
+        for (int i = 0; i < event.size(); i++) {
+            AttributeCache cache = event.getCache(i);
+
+            if (dayNightKey != null && cache.hasMarker(DayNightFactor.class)) {
+                DayNightFactor marker = cache.getMarker(DayNightFactor.class);
+                double factor = marker.factor() != -1 ? marker.factor() : dayNightFactor; //If the factor isn't the default, use the one in the annotation
+                AttributeModifier modifier = marker.invert() ? AttributeModifier.DIVISION : AttributeModifier.MULTIPLICATION;
+                event.addModification(i, AttributeModification.of(modifier, factor, AttributeModification.PRIORITY_NORMAL, dayNightKey));
+            }
+
+            if (blueFire) {
+                String attribute = cache.getAttribute();
+                if (attribute.equals(Attribute.DAMAGE)) {
+                    event.addModification(i, AttributeModification.of(AttributeModifier.MULTIPLICATION, BlueFireAbility.getDamageFactor(), AttributeModification.PRIORITY_NORMAL - 50, AttributeModification.BLUE_FIRE_DAMAGE));
+                } else if (attribute.equals(Attribute.COOLDOWN)) {
+                    event.addModification(i, AttributeModification.of(AttributeModifier.MULTIPLICATION, BlueFireAbility.getCooldownFactor(), AttributeModification.PRIORITY_NORMAL - 50, AttributeModification.BLUE_FIRE_COOLDOWN));
+                } else if (attribute.equals(Attribute.RANGE)) {
+                    event.addModification(i, AttributeModification.of(AttributeModifier.MULTIPLICATION, BlueFireAbility.getRangeFactor(), AttributeModification.PRIORITY_NORMAL - 50, AttributeModification.BLUE_FIRE_RANGE));
+                }
+            }
+
+            //AvatarState factors if the avatarstate is active
+            if (avatarState && cache.getAvatarStateModifier().isPresent()) {
+                event.addModification(i, cache.getAvatarStateModifier().get());
+            }
+        }
+    }
+}
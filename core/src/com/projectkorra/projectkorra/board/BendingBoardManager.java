@@ -1,6 +1,5 @@
 package com.projectkorra.projectkorra.board;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
@@ -231,22 +230,7 @@ public final class BendingBoardManager {
     public static void clean(final Player player) {
         scoreboardPlayers.remove(player);
         final UUID uuid = player.getUniqueId();
-        final String updateQuery = "UPDATE pk_board SET enabled = " + (disabledPlayers.contains(uuid) ? 0 : 1) + " WHERE uuid = ?";
-        ThreadUtil.runAsync(() -> {
-            try {
-                PreparedStatement ps = DBConnection.sql.getConnection().prepareStatement("SELECT enabled FROM pk_board WHERE uuid = ? LIMIT 1");
-                ps.setString(1, uuid.toString());
-                PreparedStatement ps2;
-                if (!ps.executeQuery().next()) { // if the entry doesn't exist in the DB, create it.
-                    ps2 = DBConnection.sql.getConnection().prepareStatement("INSERT INTO pk_board (uuid, enabled) VALUES (?, 1)");
-                } else { // if the entry exists in the DB, update it
-                    ps2 = DBConnection.sql.getConnection().prepareStatement(updateQuery);
-                }
-                ps2.setString(1, uuid.toString());
-                ps2.execute();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        });
+        // REPLACE creates the entry if it doesn't exist yet and is supported by both MySQL and SQLite
+        DBConnection.sql.getWriteQueue().queue("pk_board", uuid.toString(), "REPLACE INTO pk_board (uuid, enabled) VALUES (?, ?)", uuid.toString(), disabledPlayers.contains(uuid) ? 0 : 1);
     }
 }
\ No newline at end of file
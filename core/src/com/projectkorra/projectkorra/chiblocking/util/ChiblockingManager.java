@@ -4,10 +4,12 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.chiblocking.Smokescreen;
 
 public class ChiblockingManager implements Runnable {
 	public ProjectKorra plugin;
+	private final TickBudget.Deferral deferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
 
 	public ChiblockingManager(final ProjectKorra plugin) {
 		this.plugin = plugin;
@@ -15,6 +17,9 @@ public class ChiblockingManager implements Runnable {
 
 	@Override
 	public void run() {
+		if (!this.deferral.shouldRun()) {
+			return;
+		}
 		for (final Player player : Bukkit.getOnlinePlayers()) {
 			Smokescreen.removeFromHashMap(player);
 		}
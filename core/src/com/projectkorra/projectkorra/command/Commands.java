@@ -119,6 +119,7 @@ public class Commands {
 		new InvincibleCommand();
 		new PermaremoveCommand();
 		new PresetCommand();
+		new ProfileCommand();
 		new ReloadCommand();
 		new RemoveCommand();
 		new StatsCommand();
@@ -0,0 +1,125 @@
+package com.projectkorra.projectkorra.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.util.ChatUtil;
+import com.projectkorra.projectkorra.util.Histogram;
+import com.projectkorra.projectkorra.util.Profiler;
+
+/**
+ * Executor for /bending profile. Extends {@link PKCommand}.
+ */
+public class ProfileCommand extends PKCommand {
+
+	private static final int DEFAULT_AMOUNT = 10;
+
+	public ProfileCommand() {
+		super("profile", "/bending profile <start/stop/dump> [amount]", ConfigManager.languageConfig.get().getString("Commands.Profile.Description"), new String[] { "profile", "prof" });
+	}
+
+	@Override
+	public void execute(final CommandSender sender, final List<String> args) {
+		if (!this.hasPermission(sender) || !this.correctLength(sender, args.size(), 1, 2)) {
+			return;
+		}
+
+		final String action = args.get(0).toLowerCase();
+		if (action.equals("start")) {
+			if (Profiler.isEnabled()) {
+				ChatUtil.sendBrandingMessage(sender, ChatColor.RED + ConfigManager.languageConfig.get().getString("Commands.Profile.AlreadyRunning"));
+				return;
+			}
+			Profiler.enable();
+			TickBudget.resetMetrics();
+			ChatUtil.sendBrandingMessage(sender, ChatColor.GREEN + ConfigManager.languageConfig.get().getString("Commands.Profile.Started"));
+		} else if (action.equals("stop")) {
+			if (!Profiler.isEnabled()) {
+				ChatUtil.sendBrandingMessage(sender, ChatColor.RED + ConfigManager.languageConfig.get().getString("Commands.Profile.NotRunning"));
+				return;
+			}
+			Profiler.disable();
+			ChatUtil.sendBrandingMessage(sender, ChatColor.GREEN + ConfigManager.languageConfig.get().getString("Commands.Profile.Stopped"));
+		} else if (action.equals("dump")) {
+			int amount = DEFAULT_AMOUNT;
+			if (args.size() == 2) {
+				try {
+					amount = Math.max(1, Integer.parseInt(args.get(1)));
+				} catch (final NumberFormatException e) {
+					this.help(sender, false);
+					return;
+				}
+			}
+			this.dump(sender, amount);
+		} else {
+			this.help(sender, false);
+		}
+	}
+
+	private void dump(final CommandSender sender, final int amount) {
+		final List<Profiler.Section> sections = Profiler.getTopSections(amount);
+		if (sections.isEmpty()) {
+			ChatUtil.sendBrandingMessage(sender, ChatColor.RED + ConfigManager.languageConfig.get().getString("Commands.Profile.NothingRecorded"));
+			return;
+		}
+
+		final double seconds = Profiler.getDuration() / 1e9;
+		sender.sendMessage(ChatColor.GOLD + ConfigManager.languageConfig.get().getString("Commands.Profile.Header").replace("{seconds}", String.format("%.1f", seconds)));
+		for (int i = 0; i < sections.size(); i++) {
+			final Profiler.Section section = sections.get(i);
+			final Histogram time = section.getTime();
+			final double perSecond = seconds > 0 ? time.getTotal() / 1e6 / seconds : 0;
+			sender.sendMessage(ChatColor.YELLOW + "" + (i + 1) + ". " + ChatColor.WHITE + section.getName() + ChatColor.GRAY
+					+ String.format(" %.2fms/s, %d calls, avg %.1fus, p99 %.1fus, max %.1fus, %dKB", perSecond, time.getCount(), time.getMean() / 1e3,
+							time.getPercentile(0.99) / 1e3, time.getMax() / 1e3, section.getAllocatedBytes() / 1024));
+		}
+
+		if (TickBudget.isEnabled()) {
+			sender.sendMessage(ChatColor.GOLD + ConfigManager.languageConfig.get().getString("Commands.Profile.TickBudget").replace("{degraded}", String.valueOf(TickBudget.getDegradedTicks()))
+					.replace("{ticks}", String.valueOf(TickBudget.getTicks())).replace("{overrun}", String.valueOf(TickBudget.getOverrunTicks()))
+					.replace("{abilities}", String.valueOf(TickBudget.getDeferredProgress())).replace("{tasks}", String.valueOf(TickBudget.getDeferredTasks())));
+		}
+
+		final File file = new File(ProjectKorra.plugin.getDataFolder(), "profile-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + ".collapsed");
+		try {
+			Profiler.writeCollapsedStacks(file);
+			ChatUtil.sendBrandingMessage(sender, ChatColor.GREEN + ConfigManager.languageConfig.get().getString("Commands.Profile.Exported").replace("{file}", file.getName()));
+		} catch (final IOException e) {
+			ProjectKorra.log.warning("Unable to write " + file.getName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Checks if the CommandSender has the permission 'bending.admin.profile'.
+	 * If not, it tells them they don't have permission.
+	 *
+	 * @return True if they have permission, false otherwise.
+	 */
+	@Override
+	public boolean hasPermission(final CommandSender sender) {
+		if (!sender.hasPermission("bending.admin." + this.getName())) {
+			sender.sendMessage(super.noPermissionMessage);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	protected List<String> getTabCompletion(final CommandSender sender, final List<String> args) {
+		if (args.size() >= 1 || !sender.hasPermission("bending.admin." + this.getName())) {
+			return new ArrayList<String>();
+		}
+		return Arrays.asList("start", "stop", "dump");
+	}
+}
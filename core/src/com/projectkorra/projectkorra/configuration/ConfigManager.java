@@ -260,6 +260,16 @@ public class ConfigManager {
 			config.addDefault("Commands.Debug.Description", "Outputs information on the current ProjectKorra installation to /plugins/ProjectKorra/debug.txt");
 			config.addDefault("Commands.Debug.SuccessfullyExported", "Debug File Created as debug.txt in the ProjectKorra plugin folder.\nPut contents on pastie.org and create a bug report on the ProjectKorra forum if you need to.");
 
+			config.addDefault("Commands.Profile.Description", "Records how much time each ability, listener and task of ProjectKorra takes. Use start to begin recording, stop to end it and dump to show the slowest parts and write a flame graph file to the ProjectKorra plugin folder.");
+			config.addDefault("Commands.Profile.Started", "The profiler has started recording.");
+			config.addDefault("Commands.Profile.Stopped", "The profiler has stopped recording.");
+			config.addDefault("Commands.Profile.AlreadyRunning", "The profiler is already recording.");
+			config.addDefault("Commands.Profile.NotRunning", "The profiler isn't recording.");
+			config.addDefault("Commands.Profile.NothingRecorded", "Nothing has been recorded yet.");
+			config.addDefault("Commands.Profile.Header", "Slowest parts of ProjectKorra over {seconds} seconds:");
+			config.addDefault("Commands.Profile.Exported", "Collapsed stacks written to {file} in the ProjectKorra plugin folder.");
+			config.addDefault("Commands.Profile.TickBudget", "Tick budget: {degraded} of {ticks} ticks skipped work, {overrun} went over budget. Skipped {abilities} ability updates and {tasks} sweeps.");
+
 			config.addDefault("Commands.Board.Description", "Toggle bending board visibility.");
 			config.addDefault("Commands.Board.Disabled", "Bending board is disabled.");
 			config.addDefault("Commands.Board.ToggledOn", "You have made your bending board visible again.");
@@ -740,18 +750,34 @@ public class ConfigManager {
 			config.addDefault("Properties.DatabaseCooldowns", true);
 			config.addDefault("Properties.BendingBoard", true);
 			config.addDefault("Properties.BendingPreview", true);
+			config.addDefault("Properties.Particles.Batching", true);
+			config.addDefault("Properties.Particles.MaxPerPlayer", 1000);
+			config.addDefault("Properties.EntityIndex.Enabled", true);
 			config.addDefault("Properties.BendingAffectFallingSand.Normal", true);
 			config.addDefault("Properties.BendingAffectFallingSand.NormalStrengthMultiplier", 1.0);
 			config.addDefault("Properties.BendingAffectFallingSand.TNT", true);
 			config.addDefault("Properties.BendingAffectFallingSand.TNTStrengthMultiplier", 1.0);
 			config.addDefault("Properties.GlobalCooldown", 500);
 			config.addDefault("Properties.PlayerDataUnloadTime", 1000 * 60 * 5);
+			config.addDefault("Properties.PlayerDataPrefetch.Enabled", true);
+			config.addDefault("Properties.PlayerDataPrefetch.Timeout", 2000);
+			config.addDefault("Properties.PlayerDataPrefetch.UnloadTime", 1000 * 60);
 			config.addDefault("Properties.TogglePassivesWithAllBending", true);
 			config.addDefault("Properties.SeaLevel", 62);
 			config.addDefault("Properties.ChooseCooldown", 0L);
 			config.addDefault("Properties.MaxPresets", 10);
 			config.addDefault("Properties.IgnoreArmorPercentage.Default", 0.5);
 
+			config.addDefault("Properties.TempBlock.MaxRevertsPerTick", 2000);
+
+			config.addDefault("Properties.Collisions.Broadphase.Enabled", true);
+			config.addDefault("Properties.Collisions.Broadphase.CellSize", 4.0);
+
+			config.addDefault("Properties.TickBudget.Enabled", false);
+			config.addDefault("Properties.TickBudget.Milliseconds", 15.0);
+			config.addDefault("Properties.TickBudget.MaxDeferredTicks.Normal", 1);
+			config.addDefault("Properties.TickBudget.MaxDeferredTicks.Cosmetic", 4);
+
 			config.addDefault("Properties.HorizontalCollisionPhysics.Enabled", true);
 			config.addDefault("Properties.HorizontalCollisionPhysics.DamageOnBarrierBlock", false);
 			config.addDefault("Properties.HorizontalCollisionPhysics.WallDamageMinimumDistance", 5.0);
@@ -772,6 +798,7 @@ public class ConfigManager {
 			config.addDefault("Properties.RegionProtection.RespectPlotSquared", true);
 			config.addDefault("Properties.RegionProtection.RespectRedProtect", true);
 			config.addDefault("Properties.RegionProtection.CacheBlockTime", 5000);
+			config.addDefault("Properties.RegionProtection.CacheSize", 2048);
 
 			config.addDefault("Properties.Air.CanBendWithWeapons", false);
 			config.addDefault("Properties.Air.Particles", "spell");
@@ -1714,6 +1741,11 @@ public class ConfigManager {
 			config.addDefault("Storage.MySQL.db", "minecraft");
 			config.addDefault("Storage.MySQL.user", "root");
 			config.addDefault("Storage.MySQL.properties", "autoReconnect=true");
+			config.addDefault("Storage.MySQL.Pool.Size", 4);
+			config.addDefault("Storage.MySQL.Pool.IdleTimeout", 600000);
+
+			config.addDefault("Storage.WriteQueue.Capacity", 10000);
+			config.addDefault("Storage.WriteQueue.FlushInterval", 50);
 
 			config.addDefault("debug", false);
 
@@ -0,0 +1,188 @@
+package com.projectkorra.projectkorra.configuration;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import com.projectkorra.projectkorra.Element;
+import com.projectkorra.projectkorra.Element.SubElement;
+import com.projectkorra.projectkorra.ability.Ability;
+import com.projectkorra.projectkorra.ability.AddonAbility;
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.ability.PassiveAbility;
+
+/**
+ * The values of config.yml that are read on hot paths, such as every time a
+ * player tries to bend or an ability deals damage. To get the current
+ * snapshot use {@link #get()}.
+ * <p>
+ * A snapshot never changes. It is built when the plugin is enabled and every
+ * time it is reloaded, and the new snapshot replaces the old one in one
+ * step, so a thread never sees half of an old and half of a new config.
+ * <p>
+ * The values of each ability are built once per snapshot, so the config
+ * keys of an ability are never put together more than once.
+ */
+public class ConfigSnapshot {
+
+	private static final String IGNORE_ARMOR_PREFIX = "Properties.IgnoreArmorPercentage.";
+
+	private static volatile ConfigSnapshot current;
+
+	private final FileConfiguration config;
+	private final long globalCooldown;
+	private final Set<String> disabledWorlds;
+	private final boolean togglePassivesWithAllBending;
+	private final Map<String, AbilityValues> abilities = new ConcurrentHashMap<>();
+
+	private ConfigSnapshot(final FileConfiguration config) {
+		this.config = config;
+		this.globalCooldown = config.getLong("Properties.GlobalCooldown");
+		this.disabledWorlds = Collections.unmodifiableSet(new HashSet<>(config.getStringList("Properties.DisabledWorlds")));
+		this.togglePassivesWithAllBending = config.getBoolean("Properties.TogglePassivesWithAllBending");
+
+		for (final CoreAbility ability : CoreAbility.getAbilities()) {
+			if (ability.getElement() == null) {
+				continue;
+			}
+			this.abilities.put(ability.getName(), new AbilityValues(config, ability));
+		}
+	}
+
+	/**
+	 * @return The snapshot of the current config
+	 */
+	public static ConfigSnapshot get() {
+		ConfigSnapshot snapshot = current;
+		if (snapshot == null) {
+			snapshot = reload();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Builds a new snapshot from config.yml and makes it the current one.
+	 * Called right after config.yml is read when the plugin is enabled or
+	 * reloaded, before the abilities are registered, so registering sees the
+	 * new values. Abilities that are registered afterwards get their values
+	 * built the first time they are asked for.
+	 *
+	 * @return The new snapshot
+	 */
+	public static ConfigSnapshot reload() {
+		final ConfigSnapshot snapshot = new ConfigSnapshot(ConfigManager.getConfig());
+		current = snapshot;
+		return snapshot;
+	}
+
+	/**
+	 * @return The time in milliseconds a player has to wait after a cooldown
+	 *         ended before they can use the ability again
+	 */
+	public long getGlobalCooldown() {
+		return this.globalCooldown;
+	}
+
+	/**
+	 * @return The names of the worlds bending is disabled in
+	 */
+	public Set<String> getDisabledWorlds() {
+		return this.disabledWorlds;
+	}
+
+	public boolean isDisabledWorld(final World world) {
+		return this.disabledWorlds.contains(world.getName());
+	}
+
+	public boolean isTogglePassivesWithAllBending() {
+		return this.togglePassivesWithAllBending;
+	}
+
+	/**
+	 * Gets the values of an ability. Abilities that were registered after the
+	 * snapshot was built, such as abilities of addon plugins that load later,
+	 * get their values built the first time they are asked for.
+	 *
+	 * @param ability The ability, or any instance of it
+	 * @return The values of the ability
+	 */
+	public AbilityValues getAbility(final Ability ability) {
+		final AbilityValues values = this.abilities.get(ability.getName());
+		if (values != null) {
+			return values;
+		}
+		return this.abilities.computeIfAbsent(ability.getName(), (name) -> new AbilityValues(this.config, ability));
+	}
+
+	/**
+	 * The config values of a single ability.
+	 */
+	public static class AbilityValues {
+
+		private final boolean enabled;
+		private final double ignoreArmorPercentage;
+		private final boolean canAutoSource;
+		private final boolean canDynamicSource;
+
+		private AbilityValues(final FileConfiguration config, final Ability ability) {
+			final Element element = ability.getElement();
+			final String name = ability.getName();
+
+			if (ability instanceof AddonAbility) {
+				this.enabled = true;
+			} else {
+				final String elementName = element instanceof SubElement ? ((SubElement) element).getParentElement().getName() : element.getName();
+				final String tag = ability instanceof PassiveAbility ? "Abilities." + elementName + ".Passive." + name + ".Enabled" : "Abilities." + elementName + "." + name + ".Enabled";
+				this.enabled = !config.isBoolean(tag) || config.getBoolean(tag);
+			}
+
+			double percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Default", 0.0);
+			if (config.isSet(IGNORE_ARMOR_PREFIX + "Ability." + name)) {
+				percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Ability." + name, 0.0);
+			} else {
+				if (config.isSet(IGNORE_ARMOR_PREFIX + "Element." + element.getName())) {
+					percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Element." + element.getName(), 0.0);
+				}
+				if (element instanceof SubElement) {
+					final Element parentElement = ((SubElement) element).getParentElement();
+					if (config.isSet(IGNORE_ARMOR_PREFIX + "Element." + parentElement.getName())) {
+						percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Element." + parentElement.getName(), 0.0);
+					}
+				}
+			}
+			this.ignoreArmorPercentage = Math.max(Math.min(percentage, 1.0), 0.0);
+
+			this.canAutoSource = config.getBoolean("Abilities." + element + "." + name + ".CanAutoSource");
+			this.canDynamicSource = config.getBoolean("Abilities." + element + "." + name + ".CanDynamicSource");
+		}
+
+		/**
+		 * @return False if the ability is disabled in the config
+		 */
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		/**
+		 * @return How much of the armor of an entity the damage of the ability
+		 *         ignores, between 0 and 1
+		 */
+		public double getIgnoreArmorPercentage() {
+			return this.ignoreArmorPercentage;
+		}
+
+		public boolean canAutoSource() {
+			return this.canAutoSource;
+		}
+
+		public boolean canDynamicSource() {
+			return this.canDynamicSource;
+		}
+	}
+
+}
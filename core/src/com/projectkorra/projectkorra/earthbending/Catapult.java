@@ -14,6 +14,7 @@ import org.bukkit.util.Vector;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ability.EarthAbility;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 
@@ -159,6 +160,11 @@ public class Catapult extends EarthAbility {
 		return true;
 	}
 
+	@Override
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.MOVEMENT;
+	}
+
 	@Override
 	public boolean isHarmlessAbility() {
 		return false;
@@ -15,7 +15,9 @@ import com.projectkorra.projectkorra.BendingPlayer;
 import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.attribute.Attribute;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 
 public class Tremorsense extends EarthAbility {
 
@@ -177,7 +179,7 @@ public class Tremorsense extends EarthAbility {
 		//A replacement for the canBendIgnoreBindsCooldowns. Since this is used a passive, it should not turn off when bending is toggled.
 		if (!this.bPlayer.canBind(this) || this.bPlayer.isChiBlocked() || this.bPlayer.isParalyzed()
 				|| this.bPlayer.isBloodbent() || this.bPlayer.isControlledByMetalClips()
-				|| getConfig().getStringList("Properties.DisabledWorlds").contains(player.getLocation().getWorld().getName())) {
+				|| ConfigSnapshot.get().isDisabledWorld(this.player.getWorld())) {
 			this.remove();
 		} else if (this.player.getLocation().getBlock().getLightLevel() > this.lightThreshold) {
 			this.remove();
@@ -227,6 +229,11 @@ public class Tremorsense extends EarthAbility {
 		return true;
 	}
 
+	@Override
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.COSMETIC;
+	}
+
 	@Override
 	public boolean isHarmlessAbility() {
 		return true;
@@ -3,6 +3,7 @@ package com.projectkorra.projectkorra.earthbending.util;
 import org.bukkit.Bukkit;
 
 import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.earthbending.Shockwave;
 import com.projectkorra.projectkorra.earthbending.Tremorsense;
 import com.projectkorra.projectkorra.util.RevertChecker;
@@ -10,6 +11,7 @@ import com.projectkorra.projectkorra.util.RevertChecker;
 @Deprecated
 public class EarthbendingManager implements Runnable {
 	public ProjectKorra plugin;
+	private final TickBudget.Deferral deferral = new TickBudget.Deferral(TickBudget.Priority.COSMETIC);
 
 	public EarthbendingManager(final ProjectKorra plugin) {
 		this.plugin = plugin;
@@ -17,6 +19,9 @@ public class EarthbendingManager implements Runnable {
 
 	@Override
 	public void run() {
+		if (!this.deferral.shouldRun()) {
+			return;
+		}
 		RevertChecker.revertEarthBlocks(); //Folia safe now
 		Shockwave.progressAll(); //Nothing
 		Tremorsense.manage(Bukkit.getServer()); //Folia safe now
@@ -9,6 +9,7 @@ import com.projectkorra.projectkorra.ability.util.Collision;
 public class AbilityCollisionEvent extends Event implements Cancellable {
 
 	private static final HandlerList HANDLERS = new HandlerList();
+	private static final ListenerCache LISTENERS = new ListenerCache(HANDLERS);
 
 	private boolean cancelled;
 	private Collision collision;
@@ -44,4 +45,11 @@ public class AbilityCollisionEvent extends Event implements Cancellable {
 	public static HandlerList getHandlerList() {
 		return HANDLERS;
 	}
+
+	/**
+	 * @return True if any plugin listens to this event
+	 */
+	public static boolean hasListeners() {
+		return LISTENERS.hasListeners();
+	}
 }
@@ -17,6 +17,7 @@ import com.projectkorra.projectkorra.ability.Ability;
 public class AbilityDamageEntityEvent extends Event implements Cancellable {
 
 	private static final HandlerList handlers = new HandlerList();
+	private static final ListenerCache LISTENERS = new ListenerCache(handlers);
 
 	private boolean cancelled = false;
 	private final Entity entity;
@@ -101,6 +102,13 @@ public class AbilityDamageEntityEvent extends Event implements Cancellable {
 		return handlers;
 	}
 
+	/**
+	 * @return True if any plugin listens to this event
+	 */
+	public static boolean hasListeners() {
+		return LISTENERS.hasListeners();
+	}
+
 	@Override
 	public boolean isCancelled() {
 		return this.cancelled;
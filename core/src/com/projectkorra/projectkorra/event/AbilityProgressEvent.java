@@ -2,6 +2,7 @@ package com.projectkorra.projectkorra.event;
 
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
 
 import com.projectkorra.projectkorra.ability.Ability;
 
@@ -14,6 +15,7 @@ import com.projectkorra.projectkorra.ability.Ability;
 public class AbilityProgressEvent extends Event {
 
 	private static final HandlerList handlers = new HandlerList();
+	private static final ListenerCache LISTENERS = new ListenerCache(handlers);
 
 	Ability ability;
 
@@ -33,4 +35,39 @@ public class AbilityProgressEvent extends Event {
 	public static HandlerList getHandlerList() {
 		return handlers;
 	}
+
+	/**
+	 * @param type The class of the progressing ability
+	 * @return True if the event needs to be called for the class
+	 */
+	public static boolean hasListeners(final Class<? extends Ability> type) {
+		return LISTENERS.hasListeners(type);
+	}
+
+	/**
+	 * Tells ProjectKorra that the plugin only needs this event when an
+	 * ability of the given class progresses. The event is skipped for an
+	 * ability when no listening plugin needs it, which is when every plugin
+	 * listening to it has subscribed and none of them to a class of the
+	 * ability. This is not a filter: whenever the event is called, every
+	 * listener receives it, so a subscribed plugin can still get it for other
+	 * abilities and has to check {@link #getAbility()} itself. Can be called
+	 * several times to subscribe to more classes.
+	 *
+	 * @param plugin The plugin listening to the event
+	 * @param type The class of ability, or a superclass or interface of it
+	 */
+	public static void subscribe(final Plugin plugin, final Class<? extends Ability> type) {
+		LISTENERS.subscribe(plugin, type);
+	}
+
+	/**
+	 * Removes the subscriptions of a plugin, so while it listens to the event,
+	 * the event is called for every ability again.
+	 *
+	 * @param plugin The plugin listening to the event
+	 */
+	public static void unsubscribe(final Plugin plugin) {
+		LISTENERS.unsubscribe(plugin);
+	}
 }
@@ -0,0 +1,185 @@
+package com.projectkorra.projectkorra.event;
+
+import com.projectkorra.projectkorra.ability.CoreAbility;
+import com.projectkorra.projectkorra.attribute.AttributeCache;
+import com.projectkorra.projectkorra.attribute.AttributeModification;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Called once when the attributes of an ability are recalculated, with every attribute of the ability at once.
+ * Modifications can be added to any attribute, the same way as with {@link AbilityRecalculateAttributeEvent}.
+ * <p>
+ * The modifications of ProjectKorra itself (day and night factors, blue fire and AvatarState) are already
+ * added when this event is called.
+ */
+public class AbilityRecalculateAttributesEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+
+    private final CoreAbility ability;
+    private final AttributeCache[] caches;
+    private final Object[] originalValues;
+    private final Set<AttributeModification>[] modifications;
+
+    @SuppressWarnings("unchecked")
+    public AbilityRecalculateAttributesEvent(final CoreAbility ability, final AttributeCache[] caches, final Object[] originalValues) {
+        this.ability = ability;
+        this.caches = caches;
+        this.originalValues = originalValues;
+        this.modifications = new Set[caches.length];
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    /**
+     * @return True if anything listens to this event
+     */
+    public static boolean hasListeners() {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+
+    @NotNull
+    public CoreAbility getAbility() {
+        return ability;
+    }
+
+    /**
+     * @return The names of every attribute of the ability
+     */
+    public List<String> getAttributes() {
+        final List<String> attributes = new ArrayList<>(caches.length);
+        for (AttributeCache cache : caches) {
+            attributes.add(cache.getAttribute());
+        }
+        return attributes;
+    }
+
+    public boolean hasAttribute(final String attribute) {
+        return indexOf(attribute) != -1;
+    }
+
+    /**
+     * @return The value of the attribute before any modifications, or null if the ability doesn't have it
+     */
+    @Nullable
+    public Object getOriginalValue(final String attribute) {
+        final int index = indexOf(attribute);
+        return index == -1 ? null : originalValues[index];
+    }
+
+    public double getOriginalValueAsDouble(final String attribute) {
+        final Object value = getOriginalValue(attribute);
+        if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    public long getOriginalValueAsLong(final String attribute) {
+        final Object value = getOriginalValue(attribute);
+        if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        }
+        return ((Number) value).longValue();
+    }
+
+    public int getOriginalValueAsInt(final String attribute) {
+        final Object value = getOriginalValue(attribute);
+        if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        }
+        return ((Number) value).intValue();
+    }
+
+    public boolean getOriginalValueAsBoolean(final String attribute) {
+        final Object value = getOriginalValue(attribute);
+        if (value instanceof Boolean) {
+            return (boolean) value;
+        }
+        return ((Number) value).intValue() % 2 == 1;
+    }
+
+    @Nullable
+    public <T extends Annotation> T getMarker(final String attribute, final Class<T> markerClass) {
+        final int index = indexOf(attribute);
+        return index == -1 ? null : caches[index].getMarker(markerClass);
+    }
+
+    public boolean hasMarker(final String attribute, final Class<? extends Annotation> markerClass) {
+        final int index = indexOf(attribute);
+        return index != -1 && caches[index].hasMarker(markerClass);
+    }
+
+    /**
+     * Add a modification to an attribute. Nothing happens if the ability doesn't have the attribute.
+     * @param attribute The attribute to modify
+     * @param modification The modification
+     */
+    public void addModification(final String attribute, final AttributeModification modification) {
+        final int index = indexOf(attribute);
+        if (index != -1) {
+            addModification(index, modification);
+        }
+    }
+
+    /**
+     * @return The modifications of an attribute, ordered by priority
+     */
+    public Set<AttributeModification> getModifications(final String attribute) {
+        final int index = indexOf(attribute);
+        return index == -1 ? Collections.emptySet() : getModifications(index);
+    }
+
+    /**
+     * The number of attributes. The methods taking an index accept anything between 0 and this.
+     */
+    public int size() {
+        return caches.length;
+    }
+
+    public AttributeCache getCache(final int index) {
+        return caches[index];
+    }
+
+    public Object getOriginalValue(final int index) {
+        return originalValues[index];
+    }
+
+    public void addModification(final int index, final AttributeModification modification) {
+        if (modifications[index] == null) { //Only create the set when something actually modifies the attribute
+            modifications[index] = new TreeSet<>(Comparator.comparingInt(AttributeModification::getPriority));
+        }
+        modifications[index].add(modification);
+    }
+
+    public Set<AttributeModification> getModifications(final int index) {
+        return modifications[index] == null ? Collections.emptySet() : modifications[index];
+    }
+
+    private int indexOf(final String attribute) {
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i].getAttribute().equals(attribute)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -27,6 +27,7 @@ public class AbilityVelocityAffectEntityEvent extends Event implements Cancellab
     boolean cancelled = false;
 
     private static final HandlerList handlers = new HandlerList();
+    private static final ListenerCache LISTENERS = new ListenerCache(handlers);
 
     public AbilityVelocityAffectEntityEvent(Ability ability, Entity entity, Vector vector) {
         this.affected = entity;
@@ -72,4 +73,11 @@ public class AbilityVelocityAffectEntityEvent extends Event implements Cancellab
     public static HandlerList getHandlerList() {
         return handlers;
     }
+
+    /**
+     * @return True if any plugin listens to this event
+     */
+    public static boolean hasListeners() {
+        return LISTENERS.hasListeners();
+    }
 }
@@ -0,0 +1,125 @@
+package com.projectkorra.projectkorra.event;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+
+/**
+ * Remembers whether an event that is called very often has any listeners, so
+ * the event doesn't need to be created or called when nothing would receive
+ * it.
+ * <p>
+ * Bukkit rebuilds the array of registered listeners of a {@link HandlerList}
+ * whenever a listener is registered or unregistered, so the cached answers
+ * are thrown away as soon as that array changes.
+ * <p>
+ * Plugins can also subscribe to the event for some ability classes only. The
+ * event is skipped for an ability when no listening plugin wants it, which is
+ * when every plugin listening to the event has subscribed and none of them to
+ * a class of the ability. Subscribing doesn't filter what a plugin receives:
+ * when the event is called, every listener gets it, so a plugin that listens
+ * without subscribing, or a subscription of another plugin, can still make it
+ * receive the event for any ability.
+ */
+public class ListenerCache {
+
+	private final HandlerList handlers;
+	private final Map<Plugin, Set<Class<?>>> subscriptions = new ConcurrentHashMap<>();
+	private volatile RegisteredListener[] listeners;
+	private volatile Map<Class<?>, Boolean> listened = new ConcurrentHashMap<>();
+
+	public ListenerCache(final HandlerList handlers) {
+		this.handlers = handlers;
+	}
+
+	/**
+	 * @return True if any plugin listens to the event
+	 */
+	public boolean hasListeners() {
+		return this.validate().length > 0;
+	}
+
+	/**
+	 * Checks if the event needs to be called for an ability class.
+	 *
+	 * @param type The class of the ability the event is for
+	 * @return True if a listener wants to receive the event for the class
+	 */
+	public boolean hasListeners(final Class<?> type) {
+		final RegisteredListener[] listeners = this.validate();
+		if (listeners.length == 0) {
+			return false;
+		} else if (this.subscriptions.isEmpty()) {
+			return true;
+		}
+
+		final Map<Class<?>, Boolean> listened = this.listened;
+		final Boolean cached = listened.get(type);
+		if (cached != null) {
+			return cached;
+		}
+
+		boolean result = false;
+		for (final RegisteredListener listener : listeners) {
+			final Set<Class<?>> classes = this.subscriptions.get(listener.getPlugin());
+			if (classes == null) {
+				result = true;
+				break;
+			}
+			for (final Class<?> subscribed : classes) {
+				if (subscribed.isAssignableFrom(type)) {
+					result = true;
+					break;
+				}
+			}
+			if (result) {
+				break;
+			}
+		}
+		listened.put(type, result);
+		return result;
+	}
+
+	/**
+	 * Tells the cache that the plugin only needs the event when the ability
+	 * is an instance of the given class, so the event can be skipped for
+	 * other abilities. It is only skipped if no other listening plugin needs
+	 * it either. Otherwise the plugin still receives it and has to check the
+	 * ability itself. Can be called several times to subscribe to more
+	 * classes.
+	 *
+	 * @param plugin The plugin listening to the event
+	 * @param type The class of ability, or a superclass or interface of it
+	 */
+	public void subscribe(final Plugin plugin, final Class<?> type) {
+		this.subscriptions.computeIfAbsent(plugin, (p) -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(type);
+		this.listened = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Removes every subscription of a plugin, so the event is called for every
+	 * ability again while the plugin listens to it.
+	 *
+	 * @param plugin The plugin listening to the event
+	 */
+	public void unsubscribe(final Plugin plugin) {
+		if (this.subscriptions.remove(plugin) != null) {
+			this.listened = new ConcurrentHashMap<>();
+		}
+	}
+
+	private RegisteredListener[] validate() {
+		final RegisteredListener[] current = this.handlers.getRegisteredListeners();
+		if (current != this.listeners) {
+			this.listeners = current;
+			this.listened = new ConcurrentHashMap<>();
+		}
+		return current;
+	}
+
+}
@@ -31,6 +31,7 @@ import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.avatar.AvatarState;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.firebending.util.FireDamageTimer;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
 
@@ -152,11 +153,11 @@ public class FireBlast extends FireAbility {
 			this.remove();
 			return false;
 		}
-		for (Block b : GeneralMethods.getBlocksAroundPoint(block.getLocation(), 1.4)) {
-			if (!isSnow(b)) continue;
-
-			dryWetBlocks(b, this, ThreadLocalRandom.current().nextInt(4) == 0);
-		}
+		BlockNeighbourhood.forEach(block.getLocation(), 1.4, (b) -> {
+			if (isSnow(b)) {
+				dryWetBlocks(b, this, ThreadLocalRandom.current().nextInt(4) == 0);
+			}
+		});
 		if (!block.isPassable()) {
 			if (block.getType() == Material.FURNACE && this.powerFurnace) {
 				final Furnace furnace = (Furnace) block.getState();
@@ -207,7 +208,7 @@ public class FireBlast extends FireAbility {
 	}
 
 	private void ignite(final Location location) {
-		for (final Block block : GeneralMethods.getBlocksAroundPoint(location, this.collisionRadius)) {
+		BlockNeighbourhood.forEach(location, this.collisionRadius, (block) -> {
 			if (isIgnitable(block) && !this.safeBlocks.contains(block) && !RegionProtection.isRegionProtected(this, block.getLocation())) {
 				if (canFireGrief()) { //Regrow the plant or snow LATER since the fire destroys the block
 					if (isPlant(block) || isSnow(block)) {
@@ -217,7 +218,7 @@ public class FireBlast extends FireAbility {
 				}
 				createTempFire(block.getLocation());	
 			}
-		}
+		});
 	}
 
 	@Override
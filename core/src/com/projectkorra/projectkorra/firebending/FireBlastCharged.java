@@ -8,7 +8,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
 import org.bukkit.Location;
 import org.bukkit.Sound;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -23,6 +22,7 @@ import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.avatar.AvatarState;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 
@@ -163,13 +163,7 @@ public class FireBlastCharged extends FireAbility {
 	}
 
 	public void explode() {
-		boolean explode = true;
-		for (final Block block : GeneralMethods.getBlocksAroundPoint(this.location, 3)) {
-			if (GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation())) {
-				explode = false;
-				break;
-			}
-		}
+		final boolean explode = !BlockNeighbourhood.anyMatch(this.location, 3, (block) -> GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation()));
 
 		if (explode) {
 			if (this.canDamageBlocks && this.explosionRadius > 0 && canFireGrief()) {
@@ -210,7 +204,7 @@ public class FireBlastCharged extends FireAbility {
 	}
 
 	private void executeFireball() {
-		for (final Block block : GeneralMethods.getBlocksAroundPoint(this.location, this.collisionRadius)) {
+		BlockNeighbourhood.forEach(this.location, this.collisionRadius, (block) -> {
 			playFirebendingParticles(block.getLocation(), 5, 0.5, 0.5, 0.5);
 			emitFirebendingLight(block.getLocation());
 
@@ -220,7 +214,7 @@ public class FireBlastCharged extends FireAbility {
 			} else {
 				dryWetBlocks(block, this);
 			}
-		}
+		});
 
 		boolean exploded = false;
 		for (final Entity entity : GeneralMethods.getEntitiesAroundPoint(this.location, this.collisionRadius)) {
@@ -239,11 +233,11 @@ public class FireBlastCharged extends FireAbility {
 	}
 
 	private void ignite(final Location location) {
-		for (final Block block : GeneralMethods.getBlocksAroundPoint(location, this.collisionRadius)) {
+		BlockNeighbourhood.forEach(location, this.collisionRadius, (block) -> {
 			if (isIgnitable(block)) {
 				createTempFire(block.getLocation());
 			}
-		}
+		});
 	}
 
 	@Override
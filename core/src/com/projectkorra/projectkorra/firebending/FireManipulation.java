@@ -10,7 +10,6 @@ import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -18,6 +17,7 @@ import org.bukkit.util.Vector;
 
 import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ability.FireAbility;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.DamageHandler;
 
 public class FireManipulation extends FireAbility {
@@ -131,9 +131,7 @@ public class FireManipulation extends FireAbility {
 						DamageHandler.damageEntity(entity, this.shieldDamage, this);
 					}
 				}
-				for (Block block : GeneralMethods.getBlocksAroundPoint(point, 1.2D)) {
-					dryWetBlocks(block, this);
-				}
+				BlockNeighbourhood.forEach(point, 1.2D, (block) -> dryWetBlocks(block, this));
 				if (new Random().nextInt(this.points.keySet().size()) == 0) {
 					playFirebendingSound(point);
 				}
@@ -196,9 +194,7 @@ public class FireManipulation extends FireAbility {
 					DamageHandler.damageEntity(entity, this.streamDamage, this);
 				}
 			}
-			for (Block block : GeneralMethods.getBlocksAroundPoint(this.shotPoint, 2)) {
-				dryWetBlocks(block, this);
-			}
+			BlockNeighbourhood.forEach(this.shotPoint, 2, (block) -> dryWetBlocks(block, this));
 			if (new Random().nextInt(5) == 0) {
 				playFirebendingSound(this.shotPoint);
 			}
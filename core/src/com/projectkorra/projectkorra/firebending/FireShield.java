@@ -5,7 +5,6 @@ import java.util.concurrent.ThreadLocalRandom;
 
 import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
 import org.bukkit.Location;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -17,6 +16,7 @@ import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.util.Collision;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.firebending.util.FireDamageTimer;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 
 public class FireShield extends FireAbility {
 
@@ -152,9 +152,7 @@ public class FireShield extends FireAbility {
 					entity.remove();
 				}
 			}
-			for (final Block block : GeneralMethods.getBlocksAroundPoint(this.location, this.shieldRadius)) {
-				dryWetBlocks(block, this, ThreadLocalRandom.current().nextInt(5) == 0);
-			}
+			BlockNeighbourhood.forEach(this.location, this.shieldRadius, (block) -> dryWetBlocks(block, this, ThreadLocalRandom.current().nextInt(5) == 0));
 		} else {
 			this.location = this.player.getEyeLocation().clone();
 			final Vector direction = this.location.getDirection();
@@ -188,9 +186,7 @@ public class FireShield extends FireAbility {
 					entity.remove();
 				}
 			}
-			for (final Block block : GeneralMethods.getBlocksAroundPoint(this.location, this.discRadius)) {
-				dryWetBlocks(block, this, ThreadLocalRandom.current().nextInt(5) == 0);
-			}
+			BlockNeighbourhood.forEach(this.location, this.discRadius, (block) -> dryWetBlocks(block, this, ThreadLocalRandom.current().nextInt(5) == 0));
 		}
 	}
 
@@ -13,6 +13,8 @@ import java.util.concurrent.ThreadLocalRandom;
 
 import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
 import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
+import com.projectkorra.projectkorra.util.BlockRaycast;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.bukkit.Effect;
 import org.bukkit.Location;
@@ -23,7 +25,6 @@ import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.Levelled;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.Vector;
 
 import com.projectkorra.projectkorra.BendingPlayer;
 import com.projectkorra.projectkorra.Element.SubElement;
@@ -110,12 +111,11 @@ public class HeatControl extends FireAbility {
 
 		} else if (this.heatControlType == HeatControlType.MELT) {
 			this.meltLocation = GeneralMethods.getTargetedLocation(player, this.meltRange);
-			for (final Block block : GeneralMethods.getBlocksAroundPoint(this.meltLocation, this.meltRadius)) {
-
+			BlockNeighbourhood.forEach(this.meltLocation, this.meltRadius, (block) -> {
 				if (isMeltable(block)) {
 					melt(player, block);
 				}
-			}
+			});
 
 		} else if (this.heatControlType == HeatControlType.SOLIDIFY) {
 			if (!this.bPlayer.canBend(this)) {
@@ -195,7 +195,7 @@ public class HeatControl extends FireAbility {
 				blocks.add(material);
 			}
 
-			for (final Block block : GeneralMethods.getBlocksAroundPoint(this.player.getLocation(), this.extinguishRadius)) {
+			BlockNeighbourhood.forEach(this.player.getLocation(), this.extinguishRadius, (block) -> {
 				final Material material = block.getType();
 				if (isFire(material) && !GeneralMethods.isRegionProtectedFromBuild(this, block.getLocation())) {
 
@@ -206,7 +206,7 @@ public class HeatControl extends FireAbility {
 						dryWetBlocks(block, this, ThreadLocalRandom.current().nextInt(5) == 0);
 					}
 				}
-			}
+			});
 
 		} else if (this.heatControlType == HeatControlType.SOLIDIFY) {
 
@@ -477,13 +477,13 @@ public class HeatControl extends FireAbility {
 
 	public static Block getLavaBlock(final Player player, final double range) {
 		final Location location = player.getEyeLocation();
-		final Vector vector = location.getDirection().clone().normalize();
+		if (GeneralMethods.isRegionProtectedFromBuild(player, location)) {
+			return null;
+		}
 
-		for (double i = 0; i <= range; i++) {
-			final Block block = location.clone().add(vector.clone().multiply(i)).getBlock();
-			if (GeneralMethods.isRegionProtectedFromBuild(player, location)) {
-				continue;
-			}
+		final BlockRaycast ray = new BlockRaycast(location, range);
+		while (ray.next()) {
+			final Block block = ray.getBlock();
 			if (isLava(block)) {
 				if (block.getBlockData() instanceof Levelled) {
 					if (((Levelled) block.getBlockData()).getLevel() != 0) {
@@ -21,7 +21,9 @@ import org.bukkit.entity.Player;
 import com.projectkorra.projectkorra.Element;
 import com.projectkorra.projectkorra.Element.SubElement;
 import com.projectkorra.projectkorra.ability.FireAbility;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.attribute.Attribute;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.util.TempBlock;
 import org.bukkit.inventory.ItemStack;
 
@@ -82,7 +84,7 @@ public class Illumination extends FireAbility {
 		//A replacement for the canBendIgnoreBindsCooldowns. Since this is used a passive, it should not turn off when bending is toggled.
 		if (!this.bPlayer.canBind(this) || this.bPlayer.isChiBlocked() || this.bPlayer.isParalyzed()
 				|| this.bPlayer.isBloodbent() || this.bPlayer.isControlledByMetalClips()
-				|| getConfig().getStringList("Properties.DisabledWorlds").contains(player.getLocation().getWorld().getName())) {
+				|| ConfigSnapshot.get().isDisabledWorld(this.player.getWorld())) {
 			this.remove();
 			return;
 		}
@@ -241,6 +243,11 @@ public class Illumination extends FireAbility {
 		return false;
 	}
 
+	@Override
+	public TickBudget.Priority getTickPriority() {
+		return TickBudget.Priority.COSMETIC;
+	}
+
 	@Override
 	public boolean isHarmlessAbility() {
 		return true;
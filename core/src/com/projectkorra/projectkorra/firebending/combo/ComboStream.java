@@ -11,6 +11,7 @@ import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.firebending.util.FireDamageTimer;
 import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.DamageHandler;
 import com.projectkorra.projectkorra.util.LightManager;
 import com.projectkorra.projectkorra.util.ParticleEffect;
@@ -125,9 +126,7 @@ public class ComboStream extends ElementalAbility {
 					this.collision((LivingEntity) entity, this.direction, this.coreAbility);
 				}
 			}
-			for (Block b : GeneralMethods.getBlocksAroundPoint(this.location, this.collisionRadius)) {
-				FireAbility.dryWetBlocks(b, this.coreAbility, ThreadLocalRandom.current().nextInt(5) == 0);
-			}
+			BlockNeighbourhood.forEach(this.location, this.collisionRadius, (b) -> FireAbility.dryWetBlocks(b, this.coreAbility, ThreadLocalRandom.current().nextInt(5) == 0));
 		}
 
 		this.checkCollisionCounter++;
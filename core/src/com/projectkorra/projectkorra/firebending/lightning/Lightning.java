@@ -13,6 +13,7 @@ import com.projectkorra.projectkorra.ability.util.RepeatingTask;
 import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
 import com.projectkorra.projectkorra.firebending.FireJet;
 import com.projectkorra.projectkorra.region.RegionProtection;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -309,13 +310,13 @@ public class Lightning extends LightningAbility {
 		if (!powered) {
 			// Weird glitch where a redstone circuit basically becomes looped if designed in some way
 			// and stays on after the lightning rod becomes depowered. Attempts to fix
-			for (Block nearby : GeneralMethods.getBlocksAroundPoint(block.getLocation(), 1.5)) {
+			BlockNeighbourhood.forEach(block.getLocation(), 1.5, (nearby) -> {
 				if (nearby.getBlockData() instanceof AnaloguePowerable) {
 					AnaloguePowerable redstone = (AnaloguePowerable) nearby.getBlockData();
 					redstone.setPower(0);
 					nearby.setBlockData(redstone);
 				}
-			}
+			});
 		}
 	}
 	
@@ -460,12 +461,10 @@ public class Lightning extends LightningAbility {
 						
 						if (!foundCopper) {
 							if (!foundRod) {
-								for (Block block : GeneralMethods.getBlocksAroundPoint(targetBlock.getLocation(), 1.25)) {
-									if (isLightningRod(block)) {
-										foundRod = true;
-										targetBlock = block;
-										break;
-									}
+								final Block rod = BlockNeighbourhood.findFirst(targetBlock.getLocation(), 1.25, this::isLightningRod);
+								if (rod != null) {
+									foundRod = true;
+									targetBlock = rod;
 								}
 							}
 						}
@@ -10,4 +10,24 @@ import org.jetbrains.annotations.Nullable;
 public interface RegionProtectionHook {
 
     boolean isRegionProtected(@NotNull Player player, @NotNull Location location, @Nullable CoreAbility ability);
+
+    /**
+     * The area over which a result of this hook stays the same, so it can be cached
+     * for every block in that area instead of for each block
+     * @return The cache scope of this hook
+     */
+    default CacheScope getCacheScope() {
+        return CacheScope.BLOCK;
+    }
+
+    enum CacheScope {
+        /**
+         * Results may differ per block, so only the combined result for the block is cached
+         */
+        BLOCK,
+        /**
+         * Results are the same for every block in a chunk, e.g. because claims are made per chunk
+         */
+        CHUNK
+    }
 }
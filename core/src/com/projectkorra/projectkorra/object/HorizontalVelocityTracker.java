@@ -22,6 +22,7 @@ import com.projectkorra.projectkorra.ability.Ability;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
 import com.projectkorra.projectkorra.event.HorizontalVelocityChangeEvent;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 
 /**
  * Created by Carbogen on 2/2/2015.
@@ -98,18 +99,15 @@ public class HorizontalVelocityTracker {
 
 		final Vector diff = this.thisVelocity.subtract(this.lastVelocity);
 
-		final List<Block> blocks = GeneralMethods.getBlocksAroundPoint(this.entity.getLocation(), 1.5);
-
-		for (final Block b : blocks) {
-			if (ElementalAbility.isWater(b)) {
-				this.remove();
-				return;
-			}
+		if (BlockNeighbourhood.anyMatch(this.entity.getLocation(), 1.5, ElementalAbility::isWater)) {
+			this.remove();
+			return;
 		}
 
 		if (this.thisVelocity.length() < this.lastVelocity.length()) {
 			if ((diff.getX() > 1 || diff.getX() < -1) || (diff.getZ() > 1 || diff.getZ() < -1)) {
 				this.impactLocation = this.entity.getLocation();
+				final List<Block> blocks = GeneralMethods.getBlocksAroundPoint(this.entity.getLocation(), 1.5);
 				for (final Block b : blocks) {
 					if (b.getType() == Material.BARRIER && !this.barrier) {
 						return;
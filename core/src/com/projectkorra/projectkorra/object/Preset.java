@@ -80,6 +80,20 @@ public class Preset {
         });
     }
 
+    /**
+     * Registers presets that have already been read from the database, as
+     * part of a {@link com.projectkorra.projectkorra.storage.PlayerProfile}.
+     *
+     * @param uuid The UUID of the player owning the presets
+     * @param rows The bound slots of every preset, by preset name
+     */
+    public static void loadPresets(final UUID uuid, final Map<String, HashMap<Integer, String>> rows) {
+        presets.remove(uuid);
+        for (final Map.Entry<String, HashMap<Integer, String>> row : rows.entrySet()) {
+            new Preset(uuid, row.getKey(), row.getValue());
+        }
+    }
+
     public static void reloadPreset(final Player player) {
         unloadPreset(player);
         loadPresets(player);
@@ -30,4 +30,9 @@ class FactionsUUID extends RegionProtectionBase {
         }
         return false;
     }
+
+    @Override
+    public CacheScope getCacheScope() {
+        return CacheScope.CHUNK; //Factions claim whole chunks
+    }
 }
@@ -0,0 +1,109 @@
+package com.projectkorra.projectkorra.region;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bukkit.World;
+
+/**
+ * A size bounded cache of region protection results for a single player.
+ * Entries expire after a fixed time and are evicted when they are looked up
+ * or when the cache is full, so the cache never needs to be swept.
+ * <p>
+ * The cache holds two kinds of entries: the combined result of every hook
+ * for a block, and the result of a single hook for a whole area as described
+ * by {@link com.projectkorra.projectkorra.hooks.RegionProtectionHook.CacheScope}.
+ */
+class ProtectionCache {
+
+    private final Map<Key, Entry> entries;
+
+    ProtectionCache() {
+        this.entries = new LinkedHashMap<Key, Entry>(64, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (this.size() > RegionProtection.getCacheSize()) {
+                    RegionProtection.EVICTIONS.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return The cached result, or null if there is none or it expired
+     */
+    synchronized Boolean get(final Key key, final long now) {
+        final Entry entry = this.entries.get(key);
+        if (entry == null) {
+            RegionProtection.MISSES.incrementAndGet();
+            return null;
+        }
+        if (now - entry.time > RegionProtection.getCacheTime()) {
+            this.entries.remove(key);
+            RegionProtection.EVICTIONS.incrementAndGet();
+            RegionProtection.MISSES.incrementAndGet();
+            return null;
+        }
+        RegionProtection.HITS.incrementAndGet();
+        return entry.protect;
+    }
+
+    synchronized void put(final Key key, final boolean protect, final long now) {
+        this.entries.put(key, new Entry(protect, now));
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Identifies a cached result. The scope is null for the combined result of
+     * every hook, or the hook the result belongs to.
+     */
+    static class Key {
+
+        private final Object scope;
+        private final World world;
+        private final long position;
+        private final String ability;
+
+        Key(final Object scope, final World world, final long position, final String ability) {
+            this.scope = scope;
+            this.world = world;
+            this.position = position;
+            this.ability = ability;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return this.position == key.position && this.scope == key.scope && this.world == key.world && Objects.equals(this.ability, key.ability);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Long.hashCode(this.position);
+            result = 31 * result + System.identityHashCode(this.world);
+            result = 31 * result + System.identityHashCode(this.scope);
+            result = 31 * result + (this.ability == null ? 0 : this.ability.hashCode());
+            return result;
+        }
+    }
+
+    private static class Entry {
+
+        private final boolean protect;
+        private final long time;
+
+        private Entry(final boolean protect, final long time) {
+            this.protect = protect;
+            this.time = time;
+        }
+    }
+
+}
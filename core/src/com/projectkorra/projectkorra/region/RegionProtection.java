@@ -3,11 +3,8 @@ package com.projectkorra.projectkorra.region;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.hooks.RegionProtectionHook;
-import com.projectkorra.projectkorra.util.BlockCacheElement;
-import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -16,7 +13,9 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RegionProtection {
 
@@ -46,9 +45,16 @@ public class RegionProtection {
     private static Map<JavaPlugin, RegionProtectionHook> PROTECTIONS = new LinkedHashMap<>(); //LinkedHashMap keeps the hashmap order of insertion
 
     /**
-     * Cached region protection
+     * Cached region protection, per player
      */
-    private static final Map<String, Map<Block, BlockCacheElement>> BLOCK_CACHE = new ConcurrentHashMap<>();
+    private static final Map<UUID, ProtectionCache> CACHE = new ConcurrentHashMap<>();
+
+    static final AtomicLong HITS = new AtomicLong();
+    static final AtomicLong MISSES = new AtomicLong();
+    static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private static volatile long cacheTime = 5000;
+    private static volatile int cacheSize = 2048;
 
     /**
      * Register a new type of region protection to respect with bending.
@@ -66,6 +72,7 @@ public class RegionProtection {
      */
     public static void unloadPlugin(JavaPlugin plugin) {
         PROTECTIONS.remove(plugin);
+        CACHE.clear(); //Cached results may depend on the removed protection
     }
 
     /**
@@ -85,20 +92,18 @@ public class RegionProtection {
      * @return True if the region is protected by other plugins
      */
     public static boolean isRegionProtected(@NotNull Player player, @Nullable Location location, @Nullable CoreAbility ability) {
-        final String playerName = player.getName();
-        final Block block = location != null ? location.getBlock() : player.getLocation().getBlock();
-        final Map<Block, BlockCacheElement> blockMap = BLOCK_CACHE.computeIfAbsent(playerName, name -> new ConcurrentHashMap<>());
-
-        // Both abilities must be equal to each other to use the cache
-        if (blockMap.containsKey(block)) {
-            final BlockCacheElement elem = blockMap.get(block);
-            if ((ability == null && elem.getAbility() == null) || (elem.getAbility() != null && elem.getAbility().equals(ability))) {
-                return elem.isAllowed();
-            }
+        final Location blockLocation = location != null ? location : player.getLocation();
+        final ProtectionCache cache = CACHE.computeIfAbsent(player.getUniqueId(), uuid -> new ProtectionCache());
+        final ProtectionCache.Key key = new ProtectionCache.Key(null, blockLocation.getWorld(), packBlock(blockLocation), ability == null ? null : ability.getName());
+        final long now = System.currentTimeMillis();
+
+        final Boolean cached = cache.get(key, now);
+        if (cached != null) {
+            return cached;
         }
 
         final boolean value = isRegionProtectedCached(player, location, ability);
-        blockMap.put(block, new BlockCacheElement(player, block, ability, value, System.currentTimeMillis()));
+        cache.put(key, value, now);
         return value;
     }
     
@@ -155,9 +160,23 @@ public class RegionProtection {
     }
 
     private static boolean checkAll(Player player, Location location, CoreAbility ability) {
+        ProtectionCache cache = null;
         for (RegionProtectionHook protection : RegionProtection.getActiveProtections().values()) {
             try {
-                if (protection.isRegionProtected(player, location, ability)) {
+                if (protection.getCacheScope() == RegionProtectionHook.CacheScope.CHUNK) {
+                    //Share the result of this hook with every block in the chunk
+                    if (cache == null) cache = CACHE.computeIfAbsent(player.getUniqueId(), uuid -> new ProtectionCache());
+                    final ProtectionCache.Key key = new ProtectionCache.Key(protection, location.getWorld(), packChunk(location), ability == null ? null : ability.getName());
+                    final long now = System.currentTimeMillis();
+                    Boolean value = cache.get(key, now);
+                    if (value == null) {
+                        value = protection.isRegionProtected(player, location, ability);
+                        cache.put(key, value, now);
+                    }
+                    if (value) {
+                        return true;
+                    }
+                } else if (protection.isRegionProtected(player, location, ability)) {
                     return true;
                 }
             } catch (Exception e) {
@@ -169,26 +188,58 @@ public class RegionProtection {
 
     /**
      * Internal use only!
-     * @param period The time, in milliseconds, to clean the cache
+     * @param time The time, in milliseconds, results stay cached for
+     * @param size The maximum amount of results cached per player
      */
-    public static void startCleanCacheTask(double period) {
-        ThreadUtil.runSyncTimer(() -> {
-            final long currentTime = System.currentTimeMillis();
-            for (final String playerName : BLOCK_CACHE.keySet()) {
-                final Map<Block, BlockCacheElement> map = BLOCK_CACHE.get(playerName);
-                for (final Block key : map.keySet()) {
-                    final BlockCacheElement value = map.get(key);
-
-                    if (currentTime - value.getTime() > period) {
-                        map.remove(key);
-                    }
-                }
-                if (map.size() == 0) {
-                    BLOCK_CACHE.remove(playerName);
-                }
+    public static void configureCache(long time, int size) {
+        cacheTime = time;
+        cacheSize = Math.max(1, size);
+        CACHE.clear();
+    }
 
-            }
-        }, 0, (long) (period / 50));
+    /**
+     * Removes all cached results of a player. Called when they log out
+     * @param player The player
+     */
+    public static void clearCache(@NotNull Player player) {
+        CACHE.remove(player.getUniqueId());
+    }
+
+    static long getCacheTime() {
+        return cacheTime;
+    }
+
+    static int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * @return The amount of lookups answered by the cache
+     */
+    public static long getCacheHits() {
+        return HITS.get();
+    }
+
+    /**
+     * @return The amount of lookups the cache couldn't answer
+     */
+    public static long getCacheMisses() {
+        return MISSES.get();
+    }
+
+    /**
+     * @return The amount of results removed from the cache because they expired or the cache was full
+     */
+    public static long getCacheEvictions() {
+        return EVICTIONS.get();
+    }
+
+    private static long packBlock(Location location) {
+        return ((location.getBlockX() & 0x3FFFFFFL) << 38) | ((location.getBlockZ() & 0x3FFFFFFL) << 12) | (location.getBlockY() & 0xFFFL);
+    }
+
+    private static long packChunk(Location location) {
+        return ((long) (location.getBlockX() >> 4) << 32) | ((location.getBlockZ() >> 4) & 0xFFFFFFFFL);
     }
 
     private static boolean enabled(String plugin) {
@@ -27,4 +27,9 @@ class SaberFactions extends RegionProtectionBase {
         }
         return false;
     }
+
+    @Override
+    public CacheScope getCacheScope() {
+        return CacheScope.CHUNK; //Factions claim whole chunks
+    }
 }
@@ -1,5 +1,6 @@
 package com.projectkorra.projectkorra.region;
 
+import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.object.TownyPermission;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
 import com.projectkorra.projectkorra.ability.CoreAbility;
@@ -21,4 +22,10 @@ class Towny extends RegionProtectionBase {
 
         return false;
     }
+
+    @Override
+    public CacheScope getCacheScope() {
+        //Town blocks line up with chunks unless the server changed their size
+        return TownySettings.getTownBlockSize() == 16 ? CacheScope.CHUNK : CacheScope.BLOCK;
+    }
 }
@@ -0,0 +1,191 @@
+package com.projectkorra.projectkorra.storage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed size pool of JDBC connections. Connections are validated when they
+ * are borrowed and closed once they have been idle for too long, so the pool
+ * doesn't rely on the driver reconnecting dropped connections.
+ */
+public class ConnectionPool {
+
+	/**
+	 * Opens a new connection for the pool.
+	 */
+	@FunctionalInterface
+	public interface ConnectionFactory {
+		Connection create() throws SQLException;
+	}
+
+	private final ConnectionFactory factory;
+	private final int size;
+	private final long idleTimeout;
+	private final int validationTimeout;
+	private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+	private final AtomicInteger open = new AtomicInteger();
+	private volatile boolean closed;
+
+	/**
+	 * @param factory opens new connections
+	 * @param size the maximum amount of open connections
+	 * @param idleTimeout the time in milliseconds after which an unused
+	 *            connection is closed
+	 * @param validationTimeout the time in seconds to wait when validating a
+	 *            connection
+	 */
+	public ConnectionPool(final ConnectionFactory factory, final int size, final long idleTimeout, final int validationTimeout) {
+		this.factory = factory;
+		this.size = Math.max(1, size);
+		this.idleTimeout = idleTimeout;
+		this.validationTimeout = validationTimeout;
+	}
+
+	/**
+	 * Borrows a valid connection, opening one if none are idle and the pool
+	 * isn't full, or waiting for one to be released otherwise. Every borrowed
+	 * connection must be handed back with {@link #release(Connection)}.
+	 *
+	 * @return a valid connection
+	 * @throws SQLException if a connection couldn't be opened or the pool is
+	 *             closed
+	 */
+	public Connection borrow() throws SQLException {
+		while (!this.closed) {
+			this.evictIdle();
+
+			IdleConnection candidate = this.idle.pollFirst();
+			if (candidate == null) {
+				if (this.open.incrementAndGet() <= this.size) {
+					try {
+						return this.factory.create();
+					} catch (final SQLException e) {
+						this.open.decrementAndGet();
+						throw e;
+					}
+				}
+				this.open.decrementAndGet();
+
+				try {
+					candidate = this.idle.pollFirst(this.validationTimeout, TimeUnit.SECONDS);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SQLException("Interrupted while waiting for a connection", e);
+				}
+				if (candidate == null) {
+					continue;
+				}
+			}
+
+			if (this.isValid(candidate.connection)) {
+				return candidate.connection;
+			}
+			this.discard(candidate.connection);
+		}
+		throw new SQLException("The connection pool is closed");
+	}
+
+	/**
+	 * Hands a borrowed connection back to the pool.
+	 *
+	 * @param connection the borrowed connection
+	 */
+	public void release(final Connection connection) {
+		if (connection == null) {
+			return;
+		}
+
+		try {
+			if (this.closed || connection.isClosed()) {
+				this.discard(connection);
+				return;
+			}
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+		} catch (final SQLException e) {
+			this.discard(connection);
+			return;
+		}
+
+		// Most recently used connections are reused first, so the others can
+		// expire while the load is low.
+		this.idle.offerFirst(new IdleConnection(connection, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Closes every idle connection and stops handing out new ones. Borrowed
+	 * connections are closed once they are released.
+	 */
+	public void close() {
+		this.closed = true;
+		IdleConnection idleConnection;
+		while ((idleConnection = this.idle.pollFirst()) != null) {
+			this.discard(idleConnection.connection);
+		}
+	}
+
+	/**
+	 * @return the amount of open connections, both idle and borrowed
+	 */
+	public int getOpenConnections() {
+		return this.open.get();
+	}
+
+	/**
+	 * @return the amount of idle connections
+	 */
+	public int getIdleConnections() {
+		return this.idle.size();
+	}
+
+	public int getSize() {
+		return this.size;
+	}
+
+	private void evictIdle() {
+		final long now = System.currentTimeMillis();
+		final Iterator<IdleConnection> iterator = this.idle.descendingIterator();
+		while (iterator.hasNext()) {
+			final IdleConnection idleConnection = iterator.next();
+			if (now - idleConnection.since < this.idleTimeout) {
+				break; // Older connections are at the end of the deque
+			}
+			if (this.idle.removeLastOccurrence(idleConnection)) {
+				this.discard(idleConnection.connection);
+			}
+		}
+	}
+
+	private boolean isValid(final Connection connection) {
+		try {
+			return !connection.isClosed() && connection.isValid(this.validationTimeout);
+		} catch (final SQLException e) {
+			return false;
+		}
+	}
+
+	private void discard(final Connection connection) {
+		this.open.decrementAndGet();
+		try {
+			connection.close();
+		} catch (final SQLException ignored) {}
+	}
+
+	private static class IdleConnection {
+
+		private final Connection connection;
+		private final long since;
+
+		private IdleConnection(final Connection connection, final long since) {
+			this.connection = connection;
+			this.since = since;
+		}
+	}
+
+}
@@ -5,16 +5,51 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
-import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.util.Profiler;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 
 public abstract class Database {
 
+	/**
+	 * Binds the parameters of a {@link PreparedStatement}.
+	 */
+	@FunctionalInterface
+	public interface StatementBinder {
+		void bind(PreparedStatement statement) throws SQLException;
+	}
+
+	/**
+	 * Maps the {@link ResultSet} of a query to a result. The ResultSet is
+	 * closed once the mapper returns, so it must not be kept.
+	 */
+	@FunctionalInterface
+	public interface ResultMapper<T> {
+		T map(ResultSet result) throws SQLException;
+	}
+
+	/**
+	 * Does work with a {@link Connection} of this Database.
+	 */
+	@FunctionalInterface
+	protected interface ConnectionCallback<T> {
+		T apply(Connection connection) throws SQLException;
+	}
+
 	protected final Logger log;
 	protected final String dbprefix;
 	protected Connection connection = null;
+	protected volatile WriteQueue writeQueue = null;
+	private final Object lifecycleLock = new Object(); // Guards creating the write queue and read executor
+	private volatile ExecutorService readExecutor = null;
 
 	public Database(final Logger log, final String dbprefix) {
 		this.log = log;
@@ -62,9 +97,166 @@ public abstract class Database {
 	abstract Connection open();
 
 	/**
-	 * Close connection to Database.
+	 * Returns the write-behind queue of this Database, starting it if needed.
+	 * Writes queued here are coalesced per row and committed in batches, so
+	 * they should be preferred over {@link #modifyQuery(String)} for data that
+	 * changes often.
+	 *
+	 * @return the WriteQueue of this Database
+	 */
+	public WriteQueue getWriteQueue() {
+		WriteQueue queue = this.writeQueue;
+		if (queue == null) {
+			// Not synchronized on this Database, as the writer holds that lock
+			// while committing and callers should never wait for it.
+			synchronized (this.lifecycleLock) {
+				queue = this.writeQueue;
+				if (queue == null) {
+					final int capacity = ConfigManager.getConfig().getInt("Storage.WriteQueue.Capacity", 10000);
+					final long flushInterval = ConfigManager.getConfig().getLong("Storage.WriteQueue.FlushInterval", 50);
+					queue = new WriteQueue(this, capacity, flushInterval);
+					queue.start();
+					this.writeQueue = queue;
+				}
+			}
+		}
+		return queue;
+	}
+
+	/**
+	 * Blocks until every queued write has been committed.
+	 */
+	public void flush() {
+		final WriteQueue queue = this.writeQueue;
+		if (queue != null) {
+			queue.flush();
+		}
+	}
+
+	/**
+	 * Runs a query on a reader thread. The statement and result set are always
+	 * closed, so this should be preferred over {@link #readQuery(String)}.
+	 *
+	 * @param query Query to run, using ? for parameters
+	 * @param binder Binds the parameters of the query, may be null
+	 * @param mapper Maps the result set to the result of the future
+	 * @return A future completed with the mapped result, or exceptionally if
+	 *         the query failed
+	 */
+	public <T> CompletableFuture<T> query(final String query, final StatementBinder binder, final ResultMapper<T> mapper) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			this.getReadExecutor().execute(() -> {
+				try {
+					future.complete(this.querySync(query, binder, mapper));
+				} catch (final SQLException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Runs a query on the current thread. The statement and result set are
+	 * always closed.
+	 *
+	 * @param query Query to run, using ? for parameters
+	 * @param binder Binds the parameters of the query, may be null
+	 * @param mapper Maps the result set to the returned result
+	 * @return The mapped result
+	 * @throws SQLException If the query failed
+	 */
+	public <T> T querySync(final String query, final StatementBinder binder, final ResultMapper<T> mapper) throws SQLException {
+		final boolean profiling = Profiler.start("storage", "query");
+		try {
+			return this.withConnection(connection -> {
+				try (PreparedStatement stmt = connection.prepareStatement(query)) {
+					if (binder != null) {
+						binder.bind(stmt);
+					}
+					try (ResultSet rs = stmt.executeQuery()) {
+						return mapper.map(rs);
+					}
+				}
+			});
+		} finally {
+			if (profiling) Profiler.stop();
+		}
+	}
+
+	/**
+	 * Hands a connection to the callback. By default this is the single
+	 * connection of this Database, which is locked while the callback runs.
+	 *
+	 * @param callback The work to do with the connection
+	 * @return The result of the callback
+	 * @throws SQLException If no connection is available or the callback failed
+	 */
+	protected <T> T withConnection(final ConnectionCallback<T> callback) throws SQLException {
+		synchronized (this) {
+			if (this.connection == null || this.connection.isClosed()) {
+				this.open();
+			}
+			if (this.connection == null) {
+				throw new SQLException("There is no SQL connection open.");
+			}
+			return callback.apply(this.connection);
+		}
+	}
+
+	/**
+	 * @return The amount of threads used to run {@link #query} calls
+	 */
+	protected int getReadThreads() {
+		return 1;
+	}
+
+	private ExecutorService getReadExecutor() {
+		ExecutorService executor = this.readExecutor;
+		if (executor == null) {
+			synchronized (this.lifecycleLock) {
+				executor = this.readExecutor;
+				if (executor == null) {
+					final AtomicInteger threadId = new AtomicInteger();
+					executor = Executors.newFixedThreadPool(this.getReadThreads(), runnable -> {
+						final Thread thread = new Thread(runnable, "ProjectKorra Database Reader #" + threadId.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+					this.readExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Close connection to Database. Any queued writes are committed first.
 	 */
 	public void close() {
+		final WriteQueue queue;
+		final ExecutorService executor;
+		synchronized (this.lifecycleLock) {
+			queue = this.writeQueue;
+			executor = this.readExecutor;
+			this.writeQueue = null;
+			this.readExecutor = null;
+		}
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(5, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (queue != null) {
+			queue.shutdown();
+		}
+
 		if (this.connection != null) {
 			try {
 				this.connection.setAutoCommit(false);
@@ -5,6 +5,8 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.logging.Logger;
 
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+
 public class MySQL extends Database {
 
 	private String host = "localhost";
@@ -13,6 +15,7 @@ public class MySQL extends Database {
 	private String pass = "";
 	private final String database;
 	private String properties = "autoReconnect=true";
+	private volatile ConnectionPool pool;
 
 	public MySQL(final Logger log, final String host, final int port, final String user, final String pass, final String database, final String properties) {
 		super(log, "[MySQL] ");
@@ -38,15 +41,15 @@ public class MySQL extends Database {
 
 			Class.forName("com.mysql.jdbc.Driver");
 
-			if (this.properties != null && !this.properties.isEmpty()) {
-				this.properties = "?" + this.properties;
-			}
-
-			final String url = "jdbc:mysql://" + this.host + ":" + this.port + "/" + this.database + this.properties;
-
-			this.connection = DriverManager.getConnection(url, this.user, this.pass);
+			this.connection = DriverManager.getConnection(this.getUrl(), this.user, this.pass);
 			this.printInfo("Connection established!");
 
+			if (this.pool == null) {
+				final int size = ConfigManager.getConfig().getInt("Storage.MySQL.Pool.Size", 4);
+				final long idleTimeout = ConfigManager.getConfig().getLong("Storage.MySQL.Pool.IdleTimeout", 600000);
+				this.pool = new ConnectionPool(() -> DriverManager.getConnection(this.getUrl(), this.user, this.pass), size, idleTimeout, 2);
+			}
+
 			return this.connection;
 		} catch (final ClassNotFoundException e) {
 			this.printErr("JDBC driver not found!", true);
@@ -58,4 +61,45 @@ public class MySQL extends Database {
 		}
 	}
 
+	/**
+	 * Reads use a pooled connection, so they don't queue behind each other or
+	 * behind the writes on the main connection.
+	 */
+	@Override
+	protected <T> T withConnection(final ConnectionCallback<T> callback) throws SQLException {
+		final ConnectionPool pool = this.pool;
+		if (pool == null) {
+			return super.withConnection(callback);
+		}
+
+		final Connection pooled = pool.borrow();
+		try {
+			return callback.apply(pooled);
+		} finally {
+			pool.release(pooled);
+		}
+	}
+
+	@Override
+	protected int getReadThreads() {
+		return this.pool == null ? 1 : this.pool.getSize();
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		if (this.pool != null) {
+			this.pool.close();
+			this.pool = null;
+		}
+	}
+
+	private String getUrl() {
+		final String url = "jdbc:mysql://" + this.host + ":" + this.port + "/" + this.database;
+		if (this.properties != null && !this.properties.isEmpty()) {
+			return url + "?" + this.properties;
+		}
+		return url;
+	}
+
 }
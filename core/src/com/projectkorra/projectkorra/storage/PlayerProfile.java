@@ -0,0 +1,212 @@
+package com.projectkorra.projectkorra.storage;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+
+/**
+ * Everything stored about a single player, read from pk_players, pk_cooldowns,
+ * pk_temp_elements, pk_stats and pk_presets in one round trip.
+ * <p>
+ * The tables are combined with UNION ALL into one result set of the same
+ * shape, where the first column says which table a row came from. This works
+ * the same on MySQL and SQLite.
+ */
+public class PlayerProfile {
+
+	private static final int SOURCE_PLAYER = 0;
+	private static final int SOURCE_COOLDOWN = 1;
+	private static final int SOURCE_TEMP_ELEMENT = 2;
+	private static final int SOURCE_STATISTIC = 3;
+	private static final int SOURCE_PRESET = 4;
+
+	private static final String SLOTS = "slot1, slot2, slot3, slot4, slot5, slot6, slot7, slot8, slot9";
+	private static final String NO_SLOTS = "NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL";
+
+	/**
+	 * Profiles that are being read, so that a join only needs one round trip
+	 * even if several systems ask for the profile.
+	 */
+	private static final Map<UUID, CompletableFuture<PlayerProfile>> LOADING = new ConcurrentHashMap<>();
+
+	private final UUID uuid;
+	private final long requestedAt;
+	private Map<String, String> playerData;
+	private final Map<String, Long> cooldowns = new HashMap<>();
+	private final Map<String, Long> tempElements = new HashMap<>();
+	private final Map<Integer, Long> statistics = new HashMap<>();
+	private final Map<String, HashMap<Integer, String>> presets = new LinkedHashMap<>();
+	private long fetchTime;
+	private long buildTime;
+
+	private PlayerProfile(final UUID uuid, final long requestedAt) {
+		this.uuid = uuid;
+		this.requestedAt = requestedAt;
+	}
+
+	/**
+	 * Reads the profile of a player. If the profile is already being read, the
+	 * pending read is returned instead of starting a new one.
+	 *
+	 * @param uuid The UUID of the player
+	 * @return A future completed with the profile
+	 */
+	public static CompletableFuture<PlayerProfile> load(final UUID uuid) {
+		final CompletableFuture<PlayerProfile> pending = LOADING.get(uuid);
+		if (pending != null) {
+			return pending;
+		}
+
+		final long requestedAt = System.nanoTime();
+		final boolean cooldowns = ProjectKorra.isDatabaseCooldownsEnabled();
+		final boolean statistics = ProjectKorra.isStatisticsEnabled();
+
+		final StringBuilder query = new StringBuilder();
+		query.append("SELECT ").append(SOURCE_PLAYER).append(" AS source, player AS name, element, subelement, permaremoved, ").append(SLOTS).append(", NULL AS id, NULL AS value FROM pk_players WHERE uuid = ?");
+		if (cooldowns) {
+			query.append(" UNION ALL SELECT ").append(SOURCE_COOLDOWN).append(", cooldown, NULL, NULL, NULL, ").append(NO_SLOTS).append(", NULL, value FROM pk_cooldowns WHERE uuid = ?");
+		}
+		query.append(" UNION ALL SELECT ").append(SOURCE_TEMP_ELEMENT).append(", element, NULL, NULL, NULL, ").append(NO_SLOTS).append(", NULL, expiry FROM pk_temp_elements WHERE uuid = ?");
+		if (statistics) {
+			query.append(" UNION ALL SELECT ").append(SOURCE_STATISTIC).append(", NULL, NULL, NULL, NULL, ").append(NO_SLOTS).append(", statId, statValue FROM pk_stats WHERE uuid = ?");
+		}
+		query.append(" UNION ALL SELECT ").append(SOURCE_PRESET).append(", name, NULL, NULL, NULL, ").append(SLOTS).append(", NULL, NULL FROM pk_presets WHERE uuid = ?");
+
+		final int parameters = 3 + (cooldowns ? 1 : 0) + (statistics ? 1 : 0);
+		final CompletableFuture<PlayerProfile> future = DBConnection.sql.query(query.toString(), (ps) -> {
+			for (int i = 1; i <= parameters; i++) {
+				ps.setString(i, uuid.toString());
+			}
+		}, (rs) -> {
+			final PlayerProfile profile = new PlayerProfile(uuid, requestedAt);
+			while (rs.next()) {
+				profile.read(rs);
+			}
+			profile.fetchTime = System.nanoTime() - requestedAt;
+			return profile;
+		});
+
+		final CompletableFuture<PlayerProfile> existing = LOADING.putIfAbsent(uuid, future);
+		if (existing != null) {
+			return existing;
+		}
+		future.whenComplete((profile, e) -> LOADING.remove(uuid, future));
+		return future;
+	}
+
+	/**
+	 * @param uuid The UUID of the player
+	 * @return The pending read of the player's profile, or null if it isn't
+	 *         being read
+	 */
+	public static CompletableFuture<PlayerProfile> getLoading(final UUID uuid) {
+		return LOADING.get(uuid);
+	}
+
+	private void read(final ResultSet rs) throws SQLException {
+		switch (rs.getInt("source")) {
+			case SOURCE_PLAYER:
+				this.playerData = new HashMap<>();
+				this.playerData.put("player", rs.getString("name"));
+				this.playerData.put("element", rs.getString("element"));
+				this.playerData.put("subelement", rs.getString("subelement"));
+				this.playerData.put("permaremoved", rs.getString("permaremoved"));
+				for (int slot = 1; slot <= 9; slot++) {
+					this.playerData.put("slot" + slot, rs.getString("slot" + slot));
+				}
+				break;
+			case SOURCE_COOLDOWN:
+				this.cooldowns.put(rs.getString("name"), rs.getLong("value"));
+				break;
+			case SOURCE_TEMP_ELEMENT:
+				this.tempElements.put(rs.getString("name"), rs.getLong("value"));
+				break;
+			case SOURCE_STATISTIC:
+				this.statistics.put(rs.getInt("id"), rs.getLong("value"));
+				break;
+			case SOURCE_PRESET:
+				final HashMap<Integer, String> abilities = new HashMap<>();
+				for (int slot = 1; slot <= 9; slot++) {
+					final String ability = rs.getString("slot" + slot);
+					if (ability != null) {
+						abilities.put(slot, ability);
+					}
+				}
+				this.presets.put(rs.getString("name"), abilities);
+				break;
+		}
+	}
+
+	/**
+	 * Records that the player has been built from this profile.
+	 */
+	public void markBuilt() {
+		this.buildTime = System.nanoTime() - this.requestedAt - this.fetchTime;
+	}
+
+	public UUID getUUID() {
+		return this.uuid;
+	}
+
+	/**
+	 * @return The columns of the player's pk_players row, or null if the
+	 *         player has never joined before
+	 */
+	public Map<String, String> getPlayerData() {
+		return this.playerData;
+	}
+
+	/**
+	 * @return The database cooldowns of the player, by cooldown name
+	 */
+	public Map<String, Long> getCooldowns() {
+		return this.cooldowns;
+	}
+
+	/**
+	 * @return The expiry times of the player's temporary elements, by element
+	 *         name
+	 */
+	public Map<String, Long> getTempElements() {
+		return this.tempElements;
+	}
+
+	/**
+	 * @return The statistic values of the player, by statistic id
+	 */
+	public Map<Integer, Long> getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * @return The bound slots of the player's presets, by preset name
+	 */
+	public Map<String, HashMap<Integer, String>> getPresets() {
+		return this.presets;
+	}
+
+	/**
+	 * @return The time in milliseconds between requesting the profile and
+	 *         reading all of its rows
+	 */
+	public double getFetchTime() {
+		return this.fetchTime / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * @return The time in milliseconds it took to build the player after the
+	 *         profile was read
+	 */
+	public double getBuildTime() {
+		return this.buildTime / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+}
@@ -0,0 +1,413 @@
+package com.projectkorra.projectkorra.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.projectkorra.projectkorra.util.Profiler;
+
+/**
+ * A write-behind queue for a {@link Database}. Writes are handed to a single
+ * writer thread which drains them in JDBC batches inside one transaction,
+ * reusing a cached {@link PreparedStatement} per SQL string.
+ * <p>
+ * Every write is queued under a (table, key) pair, normally the row and column
+ * that it modifies. If a write for the same pair is still pending it is
+ * replaced, so only the latest state of a row is written. Writes that must be
+ * executed together, like a DELETE followed by INSERTs, can be queued as one
+ * group under a single key.
+ */
+public class WriteQueue {
+
+	private final Database database;
+	private final int capacity;
+	private final long flushInterval;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = this.lock.newCondition();
+	private final Condition notFull = this.lock.newCondition();
+	private final Condition drained = this.lock.newCondition();
+	private final LinkedHashMap<String, Write[]> pending = new LinkedHashMap<>();
+	private final Map<String, PreparedStatement> statements = new HashMap<>();
+	private Connection statementConnection;
+	private boolean flushRequested;
+	private boolean inFlight;
+	private volatile boolean running;
+	private Thread thread;
+
+	private final AtomicLong queued = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	/**
+	 * @param database the database to write to
+	 * @param capacity the maximum amount of pending keys before callers block
+	 * @param flushInterval the time in milliseconds the writer waits for more
+	 *            writes before committing a batch
+	 */
+	public WriteQueue(final Database database, final int capacity, final long flushInterval) {
+		this.database = database;
+		this.capacity = Math.max(1, capacity);
+		this.flushInterval = Math.max(0, flushInterval);
+	}
+
+	/**
+	 * Starts the writer thread.
+	 */
+	public void start() {
+		if (this.running) {
+			return;
+		}
+		this.running = true;
+		this.thread = new Thread(this::drainLoop, "ProjectKorra Database Writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Queues a single statement.
+	 *
+	 * @param table the table the statement modifies
+	 * @param key the row (and column) within the table the statement modifies.
+	 *            Pending writes with the same table and key are replaced.
+	 * @param sql the SQL of the statement, using ? for parameters
+	 * @param params the parameters of the statement
+	 */
+	public void queue(final String table, final String key, final String sql, final Object... params) {
+		this.queue(table, key, new Write(sql, params));
+	}
+
+	/**
+	 * Queues a group of statements that are always executed together and in
+	 * order.
+	 *
+	 * @param table the table the statements modify
+	 * @param key the row within the table the statements modify. Pending writes
+	 *            with the same table and key are replaced.
+	 * @param writes the statements to execute
+	 */
+	public void queue(final String table, final String key, final Write... writes) {
+		final String fullKey = table + ':' + key;
+
+		this.lock.lock();
+		try {
+			while (this.pending.size() >= this.capacity && !this.pending.containsKey(fullKey) && this.isWriterAlive()) {
+				this.notEmpty.signal();
+				this.notFull.awaitUninterruptibly();
+			}
+
+			// Remove first so that the replacement moves to the end of the queue
+			// and stays ordered after any write it depends on.
+			if (this.pending.remove(fullKey) != null) {
+				this.coalesced.incrementAndGet();
+			}
+			this.pending.put(fullKey, writes);
+			this.queued.incrementAndGet();
+			this.notEmpty.signal();
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (!this.isWriterAlive()) {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Blocks until every write queued before this call has been committed.
+	 */
+	public void flush() {
+		if (!this.isWriterAlive()) {
+			final List<Write[]> batch;
+			this.lock.lock();
+			try {
+				batch = new ArrayList<>(this.pending.values());
+				this.pending.clear();
+				this.notFull.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+			this.execute(batch);
+			return;
+		}
+
+		this.lock.lock();
+		try {
+			this.flushRequested = true;
+			this.notEmpty.signal();
+			while ((!this.pending.isEmpty() || this.inFlight) && this.isWriterAlive()) {
+				this.drained.awaitUninterruptibly();
+			}
+			this.flushRequested = false;
+		} finally {
+			this.lock.unlock();
+		}
+
+		// The writer stopped while we were waiting, write the rest ourselves.
+		if (!this.isWriterAlive()) {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Commits all pending writes, stops the writer thread and closes the cached
+	 * statements.
+	 */
+	public void shutdown() {
+		this.lock.lock();
+		try {
+			this.running = false;
+			this.notEmpty.signal();
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (this.thread != null && Thread.currentThread() != this.thread) {
+			try {
+				this.thread.join(TimeUnit.SECONDS.toMillis(10));
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.flush();
+
+		synchronized (this.database) {
+			this.closeStatements();
+		}
+	}
+
+	private boolean isWriterAlive() {
+		return this.running && this.thread != null && this.thread.isAlive();
+	}
+
+	private void drainLoop() {
+		while (true) {
+			final List<Write[]> batch;
+			this.lock.lock();
+			try {
+				while (this.pending.isEmpty() && this.running) {
+					this.notEmpty.awaitUninterruptibly();
+				}
+				if (this.pending.isEmpty()) {
+					return;
+				}
+
+				// Give other writes a moment to arrive so they can share the batch.
+				long remaining = TimeUnit.MILLISECONDS.toNanos(this.flushInterval);
+				while (remaining > 0 && this.running && !this.flushRequested && this.pending.size() < this.capacity) {
+					try {
+						remaining = this.notEmpty.awaitNanos(remaining);
+					} catch (final InterruptedException e) {
+						break;
+					}
+				}
+
+				batch = new ArrayList<>(this.pending.values());
+				this.pending.clear();
+				this.inFlight = true;
+				this.notFull.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+
+			try {
+				this.execute(batch);
+			} finally {
+				this.lock.lock();
+				try {
+					this.inFlight = false;
+					this.drained.signalAll();
+				} finally {
+					this.lock.unlock();
+				}
+			}
+		}
+	}
+
+	private void execute(final List<Write[]> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		final boolean profiling = Profiler.start("storage", "write");
+		synchronized (this.database) {
+			try {
+				Connection connection = this.database.getConnection();
+				if (connection == null || connection.isClosed() || !connection.isValid(2)) {
+					if (connection != null) {
+						try {
+							connection.close();
+						} catch (final SQLException ignored) {}
+					}
+					connection = this.database.open();
+				}
+				if (connection == null) {
+					this.database.printErr("Could not write " + batch.size() + " queued changes, no connection available.", true);
+					return;
+				}
+
+				final boolean autoCommit = connection.getAutoCommit();
+				connection.setAutoCommit(false);
+				try {
+					this.executeBatch(connection, batch);
+					connection.commit();
+					this.batches.incrementAndGet();
+				} catch (final SQLException e) {
+					connection.rollback();
+					this.database.printErr("Batched write failed, retrying statements individually: " + e.getMessage(), false);
+					connection.setAutoCommit(true);
+					this.executeIndividually(connection, batch);
+				} finally {
+					connection.setAutoCommit(autoCommit);
+				}
+			} catch (final SQLException e) {
+				e.printStackTrace();
+			} finally {
+				if (profiling) Profiler.stop();
+			}
+		}
+	}
+
+	private void executeBatch(final Connection connection, final List<Write[]> batch) throws SQLException {
+		PreparedStatement current = null;
+		for (final Write[] writes : batch) {
+			for (final Write write : writes) {
+				final PreparedStatement statement = this.prepare(connection, write.sql);
+				// Statements are executed in the order they were queued, so a batch
+				// can only grow while the same SQL is repeated.
+				if (statement != current) {
+					if (current != null) {
+						current.executeBatch();
+					}
+					current = statement;
+				}
+				write.bind(statement);
+				statement.addBatch();
+			}
+		}
+		if (current != null) {
+			current.executeBatch();
+		}
+	}
+
+	private void executeIndividually(final Connection connection, final List<Write[]> batch) {
+		for (final Write[] writes : batch) {
+			for (final Write write : writes) {
+				try {
+					final PreparedStatement statement = this.prepare(connection, write.sql);
+					statement.clearBatch();
+					write.bind(statement);
+					statement.execute();
+				} catch (final SQLException e) {
+					this.database.printErr("Failed to write \"" + write.sql + "\": " + e.getMessage(), true);
+				}
+			}
+		}
+	}
+
+	private PreparedStatement prepare(final Connection connection, final String sql) throws SQLException {
+		if (connection != this.statementConnection) {
+			this.closeStatements();
+			this.statementConnection = connection;
+		}
+
+		PreparedStatement statement = this.statements.get(sql);
+		if (statement == null || statement.isClosed()) {
+			statement = connection.prepareStatement(sql);
+			this.statements.put(sql, statement);
+		}
+		return statement;
+	}
+
+	private void closeStatements() {
+		for (final PreparedStatement statement : this.statements.values()) {
+			try {
+				statement.close();
+			} catch (final SQLException ignored) {}
+		}
+		this.statements.clear();
+		this.statementConnection = null;
+	}
+
+	/**
+	 * @return the amount of writes that have been queued
+	 */
+	public long getQueued() {
+		return this.queued.get();
+	}
+
+	/**
+	 * @return the amount of writes that replaced a pending write
+	 */
+	public long getCoalesced() {
+		return this.coalesced.get();
+	}
+
+	/**
+	 * @return the amount of batches that have been committed
+	 */
+	public long getBatches() {
+		return this.batches.get();
+	}
+
+	/**
+	 * @return the amount of keys waiting to be written
+	 */
+	public int getPending() {
+		this.lock.lock();
+		try {
+			return this.pending.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * A single parameterized statement.
+	 */
+	public static class Write {
+
+		private final String sql;
+		private final Object[] params;
+
+		public Write(final String sql, final Object... params) {
+			this.sql = sql;
+			this.params = params;
+		}
+
+		private void bind(final PreparedStatement statement) throws SQLException {
+			for (int i = 0; i < this.params.length; i++) {
+				if (this.params[i] == null) {
+					statement.setNull(i + 1, Types.VARCHAR);
+				} else {
+					statement.setObject(i + 1, this.params[i]);
+				}
+			}
+		}
+
+		public String getSql() {
+			return this.sql;
+		}
+
+		public Object[] getParams() {
+			return this.params;
+		}
+
+		@Override
+		public String toString() {
+			return this.sql + " " + Arrays.toString(this.params);
+		}
+	}
+
+}
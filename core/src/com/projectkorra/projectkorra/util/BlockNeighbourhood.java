@@ -0,0 +1,265 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Visits the blocks within a radius of a point, which are the blocks whose
+ * corner ({@link Block#getLocation()}) is at most the radius away from it.
+ * <p>
+ * Instead of going through every block in a cube around the point, the
+ * blocks are visited from a table of offsets that is built once and sorted by
+ * how close an offset can possibly be to the point. The visit stops at the
+ * first offset that is too far away, so only the blocks near the sphere are
+ * ever looked at, and the distance is checked on primitive coordinates.
+ * Blocks are visited roughly from the nearest to the furthest, since the
+ * table is sorted by how close a block could be rather than how close it is
+ * to the exact point. Radii over 32 blocks go through the whole cube instead.
+ *
+ * <pre>
+ * if (BlockNeighbourhood.anyMatch(location, 1.5, ElementalAbility::isWater)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class BlockNeighbourhood {
+
+	/**
+	 * A callback over the coordinates of a block, so visiting a block doesn't
+	 * create a {@link Block}.
+	 */
+	@FunctionalInterface
+	public interface PositionVisitor {
+		/**
+		 * @return False to stop visiting blocks
+		 */
+		boolean visit(int x, int y, int z);
+	}
+
+	private static final int BIAS = 512; //Offsets are packed in 10 bits per axis
+	private static final int MAX_EXTENT = 32; //Bigger radii go through the whole cube instead of growing the table
+
+	private static volatile Offsets offsets = new Offsets(8);
+
+	private BlockNeighbourhood() {}
+
+	/**
+	 * Visits the coordinates of the blocks within a radius of a point.
+	 *
+	 * @param center The point
+	 * @param radius The radius
+	 * @param visitor Called for each block
+	 * @return False if the visitor stopped early
+	 */
+	public static boolean visit(final Location center, final double radius, final PositionVisitor visitor) {
+		return visit(center.getX(), center.getY(), center.getZ(), radius, visitor);
+	}
+
+	public static boolean visit(final double centerX, final double centerY, final double centerZ, final double radius, final PositionVisitor visitor) {
+		if (radius < 0) {
+			return true;
+		}
+
+		final double radiusSquared = radius * radius;
+		final int blockX = (int) Math.floor(centerX), blockY = (int) Math.floor(centerY), blockZ = (int) Math.floor(centerZ);
+		if (radius > MAX_EXTENT) {
+			final int extent = (int) Math.floor(radius);
+			for (int x = blockX - extent; x <= blockX + extent + 1; x++) {
+				for (int y = blockY - extent; y <= blockY + extent + 1; y++) {
+					for (int z = blockZ - extent; z <= blockZ + extent + 1; z++) {
+						final double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+						if (dx * dx + dy * dy + dz * dz <= radiusSquared && !visitor.visit(x, y, z)) {
+							return false;
+						}
+					}
+				}
+			}
+			return true;
+		}
+
+		final Offsets table = getOffsets(radius);
+
+		for (int i = 0; i < table.packed.length; i++) {
+			if (table.minDistanceSquared[i] > radiusSquared) {
+				break;
+			}
+			final int packed = table.packed[i];
+			final int x = blockX + (packed >> 20) - BIAS;
+			final int y = blockY + ((packed >> 10) & 1023) - BIAS;
+			final int z = blockZ + (packed & 1023) - BIAS;
+			final double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+			if (dx * dx + dy * dy + dz * dz <= radiusSquared && !visitor.visit(x, y, z)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Performs an action for each block within a radius of a point.
+	 *
+	 * @param center The point
+	 * @param radius The radius
+	 * @param action The action
+	 */
+	public static void forEach(final Location center, final double radius, final Consumer<Block> action) {
+		final World world = center.getWorld();
+		visit(center, radius, (x, y, z) -> {
+			action.accept(world.getBlockAt(x, y, z));
+			return true;
+		});
+	}
+
+	/**
+	 * @param center The point
+	 * @param radius The radius
+	 * @param predicate The predicate to test the blocks with
+	 * @return True if any block within the radius of the point matches
+	 */
+	public static boolean anyMatch(final Location center, final double radius, final Predicate<Block> predicate) {
+		final World world = center.getWorld();
+		return !visit(center, radius, (x, y, z) -> !predicate.test(world.getBlockAt(x, y, z)));
+	}
+
+	/**
+	 * @param center The point
+	 * @param radius The radius
+	 * @param predicate The predicate to test the blocks with
+	 * @return The nearest block within the radius of the point that matches,
+	 *         or null if none does
+	 */
+	public static Block findFirst(final Location center, final double radius, final Predicate<Block> predicate) {
+		if (radius < 0) {
+			return null;
+		}
+
+		final World world = center.getWorld();
+		final double centerX = center.getX(), centerY = center.getY(), centerZ = center.getZ();
+		final double radiusSquared = radius * radius;
+		final int blockX = (int) Math.floor(centerX), blockY = (int) Math.floor(centerY), blockZ = (int) Math.floor(centerZ);
+		Block nearest = null;
+		double nearestSquared = Double.MAX_VALUE;
+
+		if (radius > MAX_EXTENT) {
+			final int extent = (int) Math.floor(radius);
+			for (int x = blockX - extent; x <= blockX + extent + 1; x++) {
+				for (int y = blockY - extent; y <= blockY + extent + 1; y++) {
+					for (int z = blockZ - extent; z <= blockZ + extent + 1; z++) {
+						final double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+						final double distanceSquared = dx * dx + dy * dy + dz * dz;
+						if (distanceSquared <= radiusSquared && distanceSquared < nearestSquared) {
+							final Block block = world.getBlockAt(x, y, z);
+							if (predicate.test(block)) {
+								nearest = block;
+								nearestSquared = distanceSquared;
+							}
+						}
+					}
+				}
+			}
+			return nearest;
+		}
+
+		// The table is only sorted by how close an offset could be, so keep going until no offset can be closer than the match
+		final Offsets table = getOffsets(radius);
+		for (int i = 0; i < table.packed.length; i++) {
+			if (table.minDistanceSquared[i] > Math.min(radiusSquared, nearestSquared)) {
+				break;
+			}
+			final int packed = table.packed[i];
+			final int x = blockX + (packed >> 20) - BIAS;
+			final int y = blockY + ((packed >> 10) & 1023) - BIAS;
+			final int z = blockZ + (packed & 1023) - BIAS;
+			final double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+			final double distanceSquared = dx * dx + dy * dy + dz * dz;
+			if (distanceSquared <= radiusSquared && distanceSquared < nearestSquared) {
+				final Block block = world.getBlockAt(x, y, z);
+				if (predicate.test(block)) {
+					nearest = block;
+					nearestSquared = distanceSquared;
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * @param center The point
+	 * @param radius The radius
+	 * @return A new list of the blocks within the radius of the point
+	 */
+	public static List<Block> getBlocks(final Location center, final double radius) {
+		final World world = center.getWorld();
+		final List<Block> blocks = new ArrayList<>();
+		visit(center, radius, (x, y, z) -> {
+			blocks.add(world.getBlockAt(x, y, z));
+			return true;
+		});
+		return blocks;
+	}
+
+	/**
+	 * @return A table that has every offset a block within the radius can
+	 *         have, building a bigger one if needed
+	 */
+	private static Offsets getOffsets(final double radius) {
+		final Offsets table = offsets;
+		final int extent = (int) Math.floor(radius);
+		if (extent <= table.extent) {
+			return table;
+		}
+		synchronized (BlockNeighbourhood.class) {
+			if (extent > offsets.extent) {
+				offsets = new Offsets(Math.min(Math.max(extent, offsets.extent * 2), MAX_EXTENT));
+			}
+			return offsets;
+		}
+	}
+
+	/**
+	 * Every offset from the block a point is in to the blocks around it,
+	 * sorted by the smallest distance the corner of the block can have to a
+	 * point anywhere in the center block.
+	 */
+	private static final class Offsets {
+
+		private final int extent;
+		private final int[] packed;
+		private final int[] minDistanceSquared;
+
+		private Offsets(final int extent) {
+			this.extent = extent;
+
+			// A corner at offset d on an axis is at least d - 1 away if d > 0, and -d away otherwise
+			final int side = extent * 2 + 2;
+			final long[] sorted = new long[side * side * side];
+			int i = 0;
+			for (int dx = -extent; dx <= extent + 1; dx++) {
+				for (int dy = -extent; dy <= extent + 1; dy++) {
+					for (int dz = -extent; dz <= extent + 1; dz++) {
+						final int mx = dx > 0 ? dx - 1 : -dx, my = dy > 0 ? dy - 1 : -dy, mz = dz > 0 ? dz - 1 : -dz;
+						final long distance = mx * mx + my * my + mz * mz;
+						final int packed = ((dx + BIAS) << 20) | ((dy + BIAS) << 10) | (dz + BIAS);
+						sorted[i++] = (distance << 32) | packed;
+					}
+				}
+			}
+			Arrays.sort(sorted);
+
+			this.packed = new int[sorted.length];
+			this.minDistanceSquared = new int[sorted.length];
+			for (i = 0; i < sorted.length; i++) {
+				this.packed[i] = (int) sorted[i];
+				this.minDistanceSquared[i] = (int) (sorted[i] >>> 32);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,205 @@
+package com.projectkorra.projectkorra.util;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.util.Vector;
+
+/**
+ * Walks a ray through the blocks it passes, visiting every block exactly once
+ * and in order. Unlike moving a location along the ray in small steps, no
+ * block is read twice and no corner the ray clips is skipped, so a ray of 25
+ * blocks reads about 25 blocks.
+ *
+ * <pre>
+ * final BlockRaycast ray = new BlockRaycast(player.getEyeLocation(), range);
+ * while (ray.next()) {
+ *     if (!MaterialTraits.has(ray.getBlock().getType(), MaterialTraits.TRANSPARENT)) {
+ *         return ray.getBlock();
+ *     }
+ * }
+ * </pre>
+ *
+ * The walk is done on primitive coordinates and only creates a {@link Block}
+ * when {@link #getBlock()} is called.
+ */
+public class BlockRaycast {
+
+	private static final double BACK_OFF = 0.2;
+
+	private final World world;
+	private final double originX, originY, originZ;
+	private final double directionX, directionY, directionZ;
+	private final double range;
+
+	private final int stepX, stepY, stepZ;
+	private final double deltaX, deltaY, deltaZ;
+	private double nextX, nextY, nextZ;
+
+	private int x, y, z;
+	private double distance;
+	private double previousDistance;
+	private boolean started;
+	private Block block;
+
+	/**
+	 * @param origin The start of the ray, looking in the direction of the ray
+	 * @param range How far the ray goes in blocks
+	 */
+	public BlockRaycast(final Location origin, final double range) {
+		this(origin, origin.getDirection(), range);
+	}
+
+	/**
+	 * @param origin The start of the ray
+	 * @param direction The direction of the ray, does not need to be normalized
+	 * @param range How far the ray goes in blocks
+	 */
+	public BlockRaycast(final Location origin, final Vector direction, final double range) {
+		this(origin.getWorld(), origin.getX(), origin.getY(), origin.getZ(), direction.getX(), direction.getY(), direction.getZ(), range);
+	}
+
+	public BlockRaycast(final World world, final double x, final double y, final double z, final double directionX, final double directionY, final double directionZ, final double range) {
+		this.world = world;
+		this.originX = x;
+		this.originY = y;
+		this.originZ = z;
+		this.range = range;
+
+		final double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+		this.directionX = length == 0 ? 0 : directionX / length;
+		this.directionY = length == 0 ? 0 : directionY / length;
+		this.directionZ = length == 0 ? 0 : directionZ / length;
+
+		this.x = (int) Math.floor(x);
+		this.y = (int) Math.floor(y);
+		this.z = (int) Math.floor(z);
+
+		this.stepX = (int) Math.signum(this.directionX);
+		this.stepY = (int) Math.signum(this.directionY);
+		this.stepZ = (int) Math.signum(this.directionZ);
+
+		this.deltaX = this.stepX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / this.directionX);
+		this.deltaY = this.stepY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / this.directionY);
+		this.deltaZ = this.stepZ == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / this.directionZ);
+
+		this.nextX = firstBoundary(x, this.x, this.stepX, this.directionX);
+		this.nextY = firstBoundary(y, this.y, this.stepY, this.directionY);
+		this.nextZ = firstBoundary(z, this.z, this.stepZ, this.directionZ);
+	}
+
+	/**
+	 * @return The distance along the ray at which it first crosses a block
+	 *         boundary on an axis
+	 */
+	private static double firstBoundary(final double origin, final int block, final int step, final double direction) {
+		if (step > 0) {
+			return (block + 1 - origin) / direction;
+		} else if (step < 0) {
+			return (block - origin) / direction;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Moves the ray into the next block. The first call stays in the block the
+	 * ray starts in.
+	 *
+	 * @return False if the next block is out of range
+	 */
+	public boolean next() {
+		if (!this.started) {
+			this.started = true;
+			return this.range >= 0;
+		}
+
+		this.previousDistance = this.distance;
+		if (this.nextX < this.nextY && this.nextX < this.nextZ) {
+			this.x += this.stepX;
+			this.distance = this.nextX;
+			this.nextX += this.deltaX;
+		} else if (this.nextY < this.nextZ) {
+			this.y += this.stepY;
+			this.distance = this.nextY;
+			this.nextY += this.deltaY;
+		} else {
+			this.z += this.stepZ;
+			this.distance = this.nextZ;
+			this.nextZ += this.deltaZ;
+		}
+		this.block = null;
+		return this.distance <= this.range;
+	}
+
+	/**
+	 * @return The block the ray is in
+	 */
+	public Block getBlock() {
+		if (this.block == null) {
+			this.block = this.world.getBlockAt(this.x, this.y, this.z);
+		}
+		return this.block;
+	}
+
+	public int getX() {
+		return this.x;
+	}
+
+	public int getY() {
+		return this.y;
+	}
+
+	public int getZ() {
+		return this.z;
+	}
+
+	/**
+	 * @return The distance along the ray at which it entered the current block
+	 */
+	public double getDistance() {
+		return this.distance;
+	}
+
+	/**
+	 * @return A distance along the ray inside the previous block, at most 0.2
+	 *         blocks before the current one. Used to stop in front of the
+	 *         current block.
+	 */
+	public double getDistanceBefore() {
+		return this.distance - Math.min(BACK_OFF, (this.distance - this.previousDistance) / 2);
+	}
+
+	/**
+	 * @param distance The distance along the ray
+	 * @return A new location on the ray at the distance
+	 */
+	public Location getPoint(final double distance) {
+		return new Location(this.world, this.originX + this.directionX * distance, this.originY + this.directionY * distance, this.originZ + this.directionZ * distance);
+	}
+
+	/**
+	 * Checks if the ray is squeezing between two solid blocks, which happens
+	 * when the blocks next to the current one in the direction of the ray are
+	 * solid on at least two axes.
+	 *
+	 * @return True if the ray is blocked by a diagonal wall
+	 */
+	public boolean isDiagonalWall() {
+		int solid = 0;
+		if (this.stepX != 0 && this.isSolid(this.x + this.stepX, this.y, this.z)) {
+			solid++;
+		}
+		if (this.stepY != 0 && this.isSolid(this.x, this.y + this.stepY, this.z)) {
+			solid++;
+		}
+		if (solid < 2 && this.stepZ != 0 && this.isSolid(this.x, this.y, this.z + this.stepZ)) {
+			solid++;
+		}
+		return solid >= 2;
+	}
+
+	private boolean isSolid(final int x, final int y, final int z) {
+		return MaterialTraits.has(this.world.getBlockAt(x, y, z).getType(), MaterialTraits.SOLID);
+	}
+
+}
@@ -1,6 +1,10 @@
 package com.projectkorra.projectkorra.util;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.projectkorra.projectkorra.GeneralMethods;
 import org.bukkit.Location;
@@ -15,6 +19,7 @@ import com.projectkorra.projectkorra.ability.EarthAbility;
 import com.projectkorra.projectkorra.ability.ElementalAbility;
 import com.projectkorra.projectkorra.ability.WaterAbility;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.region.RegionProtection;
 
 /**
  * BlockSource is a class that handles water and earth bending sources. When a
@@ -36,7 +41,14 @@ public class BlockSource {
 		WATER, ICE, PLANT, EARTH, METAL, LAVA, SNOW, MUD
 	}
 
-	private static HashMap<Player, HashMap<BlockSourceType, HashMap<ClickType, BlockSourceInformation>>> playerSources = new HashMap<Player, HashMap<BlockSourceType, HashMap<ClickType, BlockSourceInformation>>>();
+	private static final BlockSourceType[] SOURCE_TYPES = BlockSourceType.values();
+	private static final int CLICK_TYPES = ClickType.values().length;
+
+	/**
+	 * The sources of each online player, indexed by
+	 * {@link #index(BlockSourceType, ClickType)}.
+	 */
+	private static final Map<UUID, BlockSourceInformation[]> playerSources = new ConcurrentHashMap<>();
 	private static FileConfiguration config = ConfigManager.defaultConfig.get();
 	// The player should never need to grab source blocks from farther than this.
 	private static double MAX_RANGE = config.getDouble("Abilities.Water.WaterManipulation.SelectRange");
@@ -60,44 +72,158 @@ public class BlockSource {
 		}
 
 		if (coreAbil instanceof WaterAbility) {
-			final Block waterBlock = WaterAbility.getWaterSourceBlock(player, MAX_RANGE, true);
-			if (waterBlock != null) {
-				putSource(player, waterBlock, BlockSourceType.WATER, clickType);
-				if (ElementalAbility.isPlant(waterBlock)) {
-					putSource(player, waterBlock, BlockSourceType.PLANT, clickType);
-				}
-				if (ElementalAbility.isIce(waterBlock)) {
-					putSource(player, waterBlock, BlockSourceType.ICE, clickType);
-				}
-				if (WaterAbility.isSnow(waterBlock) || (WaterAbility.isCauldron(waterBlock.getType()) && waterBlock.getType() == Material.getMaterial("POWDER_SNOW_CAULDRON"))) {
-					putSource(player, waterBlock, BlockSourceType.SNOW, clickType);
+			updateWater(player, clickType);
+		} else if (coreAbil instanceof EarthAbility) {
+			updateEarth(player, clickType);
+		}
+	}
+
+	/**
+	 * Finds the nearest Water, Plant, Ice, Snow and Mud source in front of the
+	 * player in a single pass along their line of sight.
+	 * <p>
+	 * A bendable block within 3 blocks that the player is looking straight at
+	 * is preferred over transparent sources in front of it, such as water.
+	 */
+	private static void updateWater(final Player player, final ClickType clickType) {
+		final Location eye = player.getEyeLocation();
+		final boolean protectedRegion = RegionProtection.isRegionProtected(player, eye, "WaterManipulation");
+		final Block[] found = new Block[SOURCE_TYPES.length];
+		final List<Block> pending = new ArrayList<>(4); // Sources in front of the targeted block, which is preferred
+		int missing = 5;
+		boolean targeted = false;
+
+		final BlockRaycast ray = new BlockRaycast(eye, MAX_RANGE);
+		while (ray.next() && missing > 0) {
+			final Block block = ray.getBlock();
+			final Material type = block.getType();
+
+			if (!targeted && (ray.getDistance() > 3 || !MaterialTraits.has(type, MaterialTraits.TRANSPARENT) || ElementalAbility.isPlant(type))) {
+				// The block the player is looking at, like Player#getTargetBlock with plants not being see-through
+				targeted = true;
+				if (ray.getDistance() <= 3 && WaterAbility.isWaterbendable(player, null, block)) {
+					missing -= putWaterSource(found, block);
 				}
-				if (ElementalAbility.isMud(waterBlock)) {
-					putSource(player, waterBlock, BlockSourceType.MUD, clickType);
+				for (final Block source : pending) {
+					missing -= putWaterSource(found, source);
 				}
+				pending.clear();
 			}
-		} else if (coreAbil instanceof EarthAbility) {
-			final Block earthBlock = EarthAbility.getEarthSourceBlock(player, null, MAX_RANGE);
-			if (earthBlock != null) {
-				putSource(player, earthBlock, BlockSourceType.EARTH, clickType);
-				if (ElementalAbility.isMetal(earthBlock)) {
-					putSource(player, earthBlock, BlockSourceType.METAL, clickType);
+
+			if (protectedRegion) {
+				continue;
+			} else if (!ElementalAbility.isTransparent(player, block) && !MaterialTraits.hasAny(type, MaterialTraits.ICE | MaterialTraits.PLANT) && !WaterAbility.isSnow(type) && !WaterAbility.isCauldron(block) && !MaterialTraits.has(type, MaterialTraits.MUD) && !WaterAbility.isSponge(type)) {
+				continue;
+			} else if (WaterAbility.isWaterbendable(player, null, block)) {
+				if (TempBlock.isTempBlock(block) && !WaterAbility.isBendableWaterTempBlock(block)) {
+					continue;
+				} else if (!targeted) {
+					pending.add(block);
+				} else {
+					missing -= putWaterSource(found, block);
 				}
-				if (ElementalAbility.isMud(earthBlock)) {
-					putSource(player, earthBlock, BlockSourceType.MUD, clickType);
+			}
+		}
+		for (final Block source : pending) {
+			putWaterSource(found, source);
+		}
+
+		for (final BlockSourceType sourceType : SOURCE_TYPES) {
+			if (found[sourceType.ordinal()] != null) {
+				putSource(player, found[sourceType.ordinal()], sourceType, clickType);
+			}
+		}
+	}
+
+	/**
+	 * Records a waterbendable block as the source of every type it is a
+	 * source for, unless a nearer one was already found.
+	 *
+	 * @return How many source types got their first source
+	 */
+	private static int putWaterSource(final Block[] found, final Block block) {
+		final Material type = block.getType();
+		int added = putIfAbsent(found, BlockSourceType.WATER, block);
+		if (ElementalAbility.isPlant(type)) {
+			added += putIfAbsent(found, BlockSourceType.PLANT, block);
+		}
+		if (ElementalAbility.isIce(type)) {
+			added += putIfAbsent(found, BlockSourceType.ICE, block);
+		}
+		if (WaterAbility.isSnow(type) || (WaterAbility.isCauldron(type) && type == Material.getMaterial("POWDER_SNOW_CAULDRON"))) {
+			added += putIfAbsent(found, BlockSourceType.SNOW, block);
+		}
+		if (ElementalAbility.isMud(type)) {
+			added += putIfAbsent(found, BlockSourceType.MUD, block);
+		}
+		return added;
+	}
+
+	private static int putIfAbsent(final Block[] found, final BlockSourceType sourceType, final Block block) {
+		if (found[sourceType.ordinal()] != null) {
+			return 0;
+		}
+		found[sourceType.ordinal()] = block;
+		return 1;
+	}
+
+	/**
+	 * Finds the Earth and Lava source in front of the player in a single pass
+	 * along their line of sight. The Earth source is the first block the
+	 * player is looking at if it is earthbendable, and is also used as the
+	 * Metal and Mud source. The Lava source is only used if it is in front of
+	 * the Earth source, in which case the Earth source is cleared.
+	 */
+	private static void updateEarth(final Player player, final ClickType clickType) {
+		final Location eye = player.getEyeLocation();
+		final boolean protectedRegion = RegionProtection.isRegionProtected(player, eye, (CoreAbility) null);
+		Block earthBlock = null;
+		double earthDistance = Double.MAX_VALUE;
+		boolean earthDone = false;
+		Block lavaBlock = null;
+		double lavaDistance = Double.MAX_VALUE;
+
+		final BlockRaycast ray = new BlockRaycast(eye, MAX_RANGE);
+		while (ray.next() && (!earthDone || lavaBlock == null)) {
+			final Block block = ray.getBlock();
+
+			if (!earthDone && !MaterialTraits.has(block.getType(), MaterialTraits.TRANSPARENT)) {
+				// The block the player is looking at, like Player#getTargetBlock
+				earthDone = true;
+				if (EarthAbility.isEarthbendable(block.getType(), true, true, true)) {
+					earthBlock = block;
+					earthDistance = ray.getDistance();
 				}
+			} else if (!earthDone && earthBlock == null && !protectedRegion && EarthAbility.isEarthbendable(player, block)) {
+				earthBlock = block;
+				earthDistance = ray.getDistance();
 			}
 
-			// We need to handle lava differently, since getEarthSourceBlock doesn't account for lava.
-			// We should only select the lava source if it is closer than the earth.
-			final Block lavaBlock = EarthAbility.getLavaSourceBlock(player, MAX_RANGE);
-			final double earthDist = earthBlock != null ? earthBlock.getLocation().distanceSquared(player.getLocation()) : Double.MAX_VALUE;
-			final double lavaDist = lavaBlock != null ? lavaBlock.getLocation().distanceSquared(player.getLocation()) : Double.MAX_VALUE;
-			if (lavaBlock != null && lavaDist <= earthDist) {
-				putSource(player, null, BlockSourceType.EARTH, clickType);
-				putSource(player, lavaBlock, BlockSourceType.LAVA, clickType);
+			if (lavaBlock == null && !protectedRegion && EarthAbility.isLavabendable(player, block)) {
+				lavaBlock = block;
+				lavaDistance = ray.getDistance();
+			}
+		}
+
+		if (earthBlock != null) {
+			putSource(player, earthBlock, BlockSourceType.EARTH, clickType);
+			if (ElementalAbility.isMetal(earthBlock)) {
+				putSource(player, earthBlock, BlockSourceType.METAL, clickType);
+			}
+			if (ElementalAbility.isMud(earthBlock)) {
+				putSource(player, earthBlock, BlockSourceType.MUD, clickType);
 			}
 		}
+
+		// We should only select the lava source if it is closer than the earth.
+		if (lavaBlock != null && lavaDistance <= earthDistance) {
+			putSource(player, null, BlockSourceType.EARTH, clickType);
+			putSource(player, lavaBlock, BlockSourceType.LAVA, clickType);
+		}
+	}
+
+	private static int index(final BlockSourceType sourceType, final ClickType clickType) {
+		return sourceType.ordinal() * CLICK_TYPES + clickType.ordinal();
 	}
 
 	/**
@@ -109,14 +235,17 @@ public class BlockSource {
 	 * @param clickType the type of click, either SHIFT_DOWN or LEFT_CLICK.
 	 */
 	private static void putSource(final Player player, final Block block, final BlockSourceType sourceType, final ClickType clickType) {
-		if (!playerSources.containsKey(player)) {
-			playerSources.put(player, new HashMap<BlockSourceType, HashMap<ClickType, BlockSourceInformation>>());
-		}
-		if (!playerSources.get(player).containsKey(sourceType)) {
-			playerSources.get(player).put(sourceType, new HashMap<ClickType, BlockSourceInformation>());
-		}
-		final BlockSourceInformation info = new BlockSourceInformation(player, block, sourceType, clickType);
-		playerSources.get(player).get(sourceType).put(clickType, info);
+		final BlockSourceInformation[] sources = playerSources.computeIfAbsent(player.getUniqueId(), (uuid) -> new BlockSourceInformation[SOURCE_TYPES.length * CLICK_TYPES]);
+		sources[index(sourceType, clickType)] = new BlockSourceInformation(player, block, sourceType, clickType);
+	}
+
+	/**
+	 * Removes the sources of a player. Called when the player quits.
+	 *
+	 * @param player the player.
+	 */
+	public static void remove(final Player player) {
+		playerSources.remove(player.getUniqueId());
 	}
 
 	/**
@@ -129,14 +258,8 @@ public class BlockSource {
 	 * @return a valid bendable block, or null if none was found.
 	 */
 	public static BlockSourceInformation getBlockSourceInformation(final Player player, final BlockSourceType sourceType, final ClickType clickType) {
-		if (!playerSources.containsKey(player)) {
-			return null;
-		} else if (!playerSources.get(player).containsKey(sourceType)) {
-			return null;
-		} else if (!playerSources.get(player).get(sourceType).containsKey(clickType)) {
-			return null;
-		}
-		return playerSources.get(player).get(sourceType).get(clickType);
+		final BlockSourceInformation[] sources = playerSources.get(player.getUniqueId());
+		return sources == null ? null : sources[index(sourceType, clickType)];
 	}
 
 	/**
@@ -0,0 +1,236 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * An index of block positions grouped by world, chunk and 16 block high
+ * section. Positions are stored as packed longs, so lookups don't need to
+ * create or hash {@link Block} objects, and everything in a chunk or world
+ * can be found without scanning every indexed block.
+ * <p>
+ * This class is not thread safe.
+ */
+public class ChunkBlockIndex {
+
+	private static final Set<Long> EMPTY = Collections.emptySet();
+
+	private final Map<World, Map<Long, Map<Integer, Set<Long>>>> worlds = new HashMap<>();
+	private int size;
+
+	/**
+	 * Adds the position of a block to the index.
+	 *
+	 * @param block The block
+	 * @return True if the position wasn't indexed yet
+	 */
+	public boolean add(final Block block) {
+		final int x = block.getX(), y = block.getY(), z = block.getZ();
+		final Set<Long> section = this.worlds.computeIfAbsent(block.getWorld(), k -> new HashMap<>())
+				.computeIfAbsent(chunkKey(x >> 4, z >> 4), k -> new HashMap<>())
+				.computeIfAbsent(y >> 4, k -> new HashSet<>());
+		if (section.add(pack(x, y, z))) {
+			this.size++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the position of a block from the index.
+	 *
+	 * @param block The block
+	 * @return True if the position was indexed
+	 */
+	public boolean remove(final Block block) {
+		final int x = block.getX(), y = block.getY(), z = block.getZ();
+		final Map<Long, Map<Integer, Set<Long>>> chunks = this.worlds.get(block.getWorld());
+		if (chunks == null) {
+			return false;
+		}
+		final long chunkKey = chunkKey(x >> 4, z >> 4);
+		final Map<Integer, Set<Long>> sections = chunks.get(chunkKey);
+		if (sections == null) {
+			return false;
+		}
+		final Set<Long> section = sections.get(y >> 4);
+		if (section == null || !section.remove(pack(x, y, z))) {
+			return false;
+		}
+
+		this.size--;
+		if (section.isEmpty()) {
+			sections.remove(y >> 4);
+			if (sections.isEmpty()) {
+				chunks.remove(chunkKey);
+				if (chunks.isEmpty()) {
+					this.worlds.remove(block.getWorld());
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return True if the position is indexed
+	 */
+	public boolean contains(final World world, final int x, final int y, final int z) {
+		return this.getSection(world, x >> 4, y >> 4, z >> 4).contains(pack(x, y, z));
+	}
+
+	/**
+	 * @return True if any of the six blocks sharing a face with the position
+	 *         is indexed
+	 */
+	public boolean isTouching(final World world, final int x, final int y, final int z) {
+		return this.contains(world, x + 1, y, z) || this.contains(world, x - 1, y, z)
+				|| this.contains(world, x, y + 1, z) || this.contains(world, x, y - 1, z)
+				|| this.contains(world, x, y, z + 1) || this.contains(world, x, y, z - 1);
+	}
+
+	/**
+	 * @return True if any position is indexed in the 16x16x16 section
+	 */
+	public boolean hasAnyInSection(final World world, final int chunkX, final int sectionY, final int chunkZ) {
+		return !this.getSection(world, chunkX, sectionY, chunkZ).isEmpty();
+	}
+
+	/**
+	 * Checks if any indexed position lies within a sphere. Only the sections
+	 * that overlap the sphere are visited, and sections without any indexed
+	 * positions are skipped without looking at their contents.
+	 *
+	 * @param world The world
+	 * @param x The x coordinate of the center
+	 * @param y The y coordinate of the center
+	 * @param z The z coordinate of the center
+	 * @param radius The radius of the sphere
+	 * @return True if an indexed block center lies within the sphere
+	 */
+	public boolean hasAnyWithin(final World world, final double x, final double y, final double z, final double radius) {
+		final Map<Long, Map<Integer, Set<Long>>> chunks = this.worlds.get(world);
+		if (chunks == null) {
+			return false;
+		}
+
+		final double radiusSquared = radius * radius;
+		final int minX = (int) Math.floor(x - radius), maxX = (int) Math.floor(x + radius);
+		final int minY = (int) Math.floor(y - radius), maxY = (int) Math.floor(y + radius);
+		final int minZ = (int) Math.floor(z - radius), maxZ = (int) Math.floor(z + radius);
+
+		for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+			for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+				final Map<Integer, Set<Long>> sections = chunks.get(chunkKey(chunkX, chunkZ));
+				if (sections == null) {
+					continue;
+				}
+				for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+					final Set<Long> section = sections.get(sectionY);
+					if (section == null) {
+						continue;
+					}
+					for (final long position : section) {
+						final double dx = unpackX(position) + 0.5 - x;
+						final double dy = unpackY(position) + 0.5 - y;
+						final double dz = unpackZ(position) + 0.5 - z;
+						if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The blocks indexed in the chunk
+	 */
+	public List<Block> getBlocks(final World world, final int chunkX, final int chunkZ) {
+		final List<Block> blocks = new ArrayList<>();
+		final Map<Long, Map<Integer, Set<Long>>> chunks = this.worlds.get(world);
+		if (chunks != null) {
+			addBlocks(world, chunks.get(chunkKey(chunkX, chunkZ)), blocks);
+		}
+		return blocks;
+	}
+
+	/**
+	 * @return The blocks indexed in the world
+	 */
+	public List<Block> getBlocks(final World world) {
+		final List<Block> blocks = new ArrayList<>();
+		final Map<Long, Map<Integer, Set<Long>>> chunks = this.worlds.get(world);
+		if (chunks != null) {
+			for (final Map<Integer, Set<Long>> sections : chunks.values()) {
+				addBlocks(world, sections, blocks);
+			}
+		}
+		return blocks;
+	}
+
+	public void clear() {
+		this.worlds.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * @return The amount of indexed positions
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	private Set<Long> getSection(final World world, final int chunkX, final int sectionY, final int chunkZ) {
+		final Map<Long, Map<Integer, Set<Long>>> chunks = this.worlds.get(world);
+		if (chunks == null) {
+			return EMPTY;
+		}
+		final Map<Integer, Set<Long>> sections = chunks.get(chunkKey(chunkX, chunkZ));
+		if (sections == null) {
+			return EMPTY;
+		}
+		final Set<Long> section = sections.get(sectionY);
+		return section == null ? EMPTY : section;
+	}
+
+	private static void addBlocks(final World world, final Map<Integer, Set<Long>> sections, final List<Block> blocks) {
+		if (sections == null) {
+			return;
+		}
+		for (final Set<Long> section : sections.values()) {
+			for (final long position : section) {
+				blocks.add(world.getBlockAt(unpackX(position), unpackY(position), unpackZ(position)));
+			}
+		}
+	}
+
+	private static long chunkKey(final int chunkX, final int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	private static long pack(final int x, final int y, final int z) {
+		return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+	}
+
+	private static int unpackX(final long position) {
+		return (int) (position >> 38);
+	}
+
+	private static int unpackY(final long position) {
+		return (int) (position << 52 >> 52);
+	}
+
+	private static int unpackZ(final long position) {
+		return (int) (position << 26 >> 38);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.BendingPlayer;
+
+/**
+ * The cooldowns of all online players, ordered by the time they end.
+ * <p>
+ * Instead of going through the cooldowns of every player every tick to find
+ * the ones that ended, {@link #run()} only looks at the cooldowns at the front
+ * of the queue that are due, so players without cooldowns cost nothing.
+ * <p>
+ * A cooldown that is replaced or removed before it ends stays in the queue
+ * until it is due, and is then skipped because its end time no longer matches
+ * the one in the {@link CooldownTable} of the player.
+ */
+public class CooldownQueue {
+
+	private static final PriorityQueue<Entry> QUEUE = new PriorityQueue<>();
+
+	private CooldownQueue() {}
+
+	/**
+	 * Queues a cooldown to be removed when it ends.
+	 *
+	 * @param uuid The UUID of the player
+	 * @param id The id of the cooldown name, see {@link CooldownTable#idOf(String)}
+	 * @param end The time in milliseconds the cooldown ends
+	 */
+	public static void schedule(final UUID uuid, final int id, final long end) {
+		synchronized (QUEUE) {
+			QUEUE.add(new Entry(uuid, id, end));
+		}
+	}
+
+	/**
+	 * Removes the cooldowns that ended. Called by the BendingManager every
+	 * tick.
+	 */
+	public static void run() {
+		final long now = System.currentTimeMillis();
+		final List<Entry> due;
+		synchronized (QUEUE) {
+			final Entry first = QUEUE.peek();
+			if (first == null || first.end > now) {
+				return;
+			}
+			due = new ArrayList<>();
+			while (!QUEUE.isEmpty() && QUEUE.peek().end <= now) {
+				due.add(QUEUE.poll());
+			}
+		}
+
+		for (final Entry entry : due) {
+			final BendingPlayer bPlayer = BendingPlayer.getPlayers().get(entry.uuid);
+			if (bPlayer == null || bPlayer.getCooldownTable().getEnd(entry.id) != entry.end) {
+				continue;
+			}
+			final Player player = bPlayer.getPlayer();
+			if (player == null) {
+				continue;
+			}
+			ThreadUtil.ensureEntity(player, () -> bPlayer.expireCooldown(entry.id, entry.end));
+		}
+	}
+
+	private static class Entry implements Comparable<Entry> {
+
+		private final UUID uuid;
+		private final int id;
+		private final long end;
+
+		private Entry(final UUID uuid, final int id, final long end) {
+			this.uuid = uuid;
+			this.id = id;
+			this.end = end;
+		}
+
+		@Override
+		public int compareTo(final Entry other) {
+			return Long.compare(this.end, other.end);
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cooldowns of a single player.
+ * <p>
+ * Every name a cooldown has ever been added for is given a small id, which is
+ * the same for every player. The table keeps the time each cooldown ends in a
+ * long array indexed by that id, so checking a cooldown is a single array
+ * read and adding one doesn't allocate anything.
+ * <p>
+ * The table can still be used as a {@code Map<String, Cooldown>}, so
+ * existing code that reads or changes the cooldowns of a player through
+ * {@link com.projectkorra.projectkorra.OfflineBendingPlayer#getCooldowns()}
+ * keeps working. {@link Cooldown} objects are only created when the map
+ * methods are used.
+ * <p>
+ * When the table belongs to an online player, every cooldown that is added
+ * is also put in the {@link CooldownQueue}, which removes it exactly when it
+ * ends.
+ */
+public class CooldownTable extends AbstractMap<String, Cooldown> {
+
+	private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+	private static volatile String[] names = new String[64];
+
+	private UUID owner;
+	private long[] ends = new long[0];
+	private boolean[] database = new boolean[0];
+	private int size;
+
+	/**
+	 * Makes the table belong to an online player, so added cooldowns are
+	 * removed by the {@link CooldownQueue} when they end. Cooldowns that are
+	 * already in the table are queued as well.
+	 *
+	 * @param owner The UUID of the player
+	 */
+	public synchronized void setOwner(final UUID owner) {
+		this.owner = owner;
+		if (owner != null) {
+			for (int id = 0; id < this.ends.length; id++) {
+				if (this.ends[id] != 0) {
+					CooldownQueue.schedule(owner, id, this.ends[id]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the id of a cooldown name, giving it a new one if it doesn't have
+	 * one yet.
+	 *
+	 * @param name The name of the cooldown, usually the name of an ability
+	 * @return The id of the name
+	 */
+	public static int idOf(final String name) {
+		final Integer id = IDS.get(name);
+		if (id != null) {
+			return id;
+		}
+		synchronized (IDS) {
+			return IDS.computeIfAbsent(name, (n) -> {
+				final int next = IDS.size();
+				if (next == names.length) {
+					names = Arrays.copyOf(names, next * 2);
+				}
+				names[next] = n;
+				return next;
+			});
+		}
+	}
+
+	/**
+	 * @return The id of the name, or -1 if no cooldown was ever added for it
+	 */
+	private static int find(final Object name) {
+		final Integer id = IDS.get(name);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id The id of a cooldown name
+	 * @return The name of the id
+	 */
+	public static String nameOf(final int id) {
+		return names[id];
+	}
+
+	/**
+	 * Gets the time a cooldown ends.
+	 *
+	 * @param name The name of the cooldown
+	 * @return The time in milliseconds the cooldown ends, or 0 if the player
+	 *         doesn't have it
+	 */
+	public long getEnd(final String name) {
+		return this.getEnd(find(name));
+	}
+
+	public synchronized long getEnd(final int id) {
+		return id >= 0 && id < this.ends.length ? this.ends[id] : 0;
+	}
+
+	/**
+	 * Adds or replaces a cooldown.
+	 *
+	 * @param name The name of the cooldown
+	 * @param end The time in milliseconds the cooldown ends
+	 * @param database If the cooldown should be saved to the database
+	 * @return The time the replaced cooldown would have ended, or 0
+	 */
+	public long set(final String name, final long end, final boolean database) {
+		final int id = idOf(name);
+		final long previous;
+		final UUID owner;
+		synchronized (this) {
+			if (id >= this.ends.length) {
+				final int length = Math.max(id + 1, names.length);
+				this.ends = Arrays.copyOf(this.ends, length);
+				this.database = Arrays.copyOf(this.database, length);
+			}
+			previous = this.ends[id];
+			this.ends[id] = end;
+			this.database[id] = database;
+			if (previous == 0) {
+				this.size++;
+			}
+			owner = this.owner;
+		}
+		if (owner != null) {
+			CooldownQueue.schedule(owner, id, end);
+		}
+		return previous;
+	}
+
+	/**
+	 * Removes a cooldown.
+	 *
+	 * @param id The id of the cooldown name
+	 * @return The time the cooldown would have ended, or 0 if the player
+	 *         didn't have it
+	 */
+	public synchronized long clear(final int id) {
+		if (id < 0 || id >= this.ends.length || this.ends[id] == 0) {
+			return 0;
+		}
+		final long end = this.ends[id];
+		this.ends[id] = 0;
+		this.database[id] = false;
+		this.size--;
+		return end;
+	}
+
+	/**
+	 * Removes a cooldown if it still ends at the given time, so a cooldown
+	 * that was replaced in the meantime is kept.
+	 *
+	 * @return True if the cooldown was removed
+	 */
+	public synchronized boolean clear(final int id, final long end) {
+		return this.getEnd(id) == end && this.clear(id) != 0;
+	}
+
+	@Override
+	public synchronized int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean containsKey(final Object name) {
+		return this.getEnd(find(name)) != 0;
+	}
+
+	@Override
+	public synchronized Cooldown get(final Object name) {
+		final int id = find(name);
+		final long end = this.getEnd(id);
+		return end == 0 ? null : new Cooldown(end, this.database[id]);
+	}
+
+	@Override
+	public Cooldown put(final String name, final Cooldown cooldown) {
+		final Cooldown previous = this.get(name);
+		this.set(name, cooldown.getCooldown(), cooldown.isDatabase());
+		return previous;
+	}
+
+	@Override
+	public Cooldown remove(final Object name) {
+		final int id = find(name);
+		synchronized (this) {
+			final boolean database = id >= 0 && id < this.database.length && this.database[id];
+			final long end = this.clear(id);
+			return end == 0 ? null : new Cooldown(end, database);
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		Arrays.fill(this.ends, 0);
+		Arrays.fill(this.database, false);
+		this.size = 0;
+	}
+
+	/**
+	 * The entries are a copy of the table at the time the iterator is
+	 * created, so the table can be changed while iterating over it.
+	 * {@link Iterator#remove()} removes the cooldown from the table.
+	 */
+	@Override
+	public Set<Entry<String, Cooldown>> entrySet() {
+		return new AbstractSet<Entry<String, Cooldown>>() {
+			@Override
+			public Iterator<Entry<String, Cooldown>> iterator() {
+				final long[] ends;
+				final boolean[] database;
+				synchronized (CooldownTable.this) {
+					ends = CooldownTable.this.ends.clone();
+					database = CooldownTable.this.database.clone();
+				}
+				return new Iterator<Entry<String, Cooldown>>() {
+					private int next = this.advance(0);
+					private int last = -1;
+
+					private int advance(int id) {
+						while (id < ends.length && ends[id] == 0) {
+							id++;
+						}
+						return id;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return this.next < ends.length;
+					}
+
+					@Override
+					public Entry<String, Cooldown> next() {
+						if (!this.hasNext()) {
+							throw new NoSuchElementException();
+						}
+						this.last = this.next;
+						this.next = this.advance(this.next + 1);
+						return new SimpleImmutableEntry<>(names[this.last], new Cooldown(ends[this.last], database[this.last]));
+					}
+
+					@Override
+					public void remove() {
+						if (this.last < 0) {
+							throw new IllegalStateException();
+						}
+						CooldownTable.this.clear(this.last);
+						this.last = -1;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return CooldownTable.this.size();
+			}
+		};
+	}
+
+}
@@ -1,6 +1,5 @@
 package com.projectkorra.projectkorra.util;
 
-import com.projectkorra.projectkorra.Element;
 import com.projectkorra.projectkorra.GeneralMethods;
 import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.versions.IDamageEventPasser;
@@ -8,7 +7,6 @@ import com.projectkorra.projectkorra.versions.legacy.LegacyDamageEventPasser;
 import com.projectkorra.projectkorra.versions.modern.ModernDamageEventPasser;
 import org.bukkit.Bukkit;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
@@ -20,6 +18,7 @@ import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
 import com.projectkorra.projectkorra.ability.Ability;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.command.Commands;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 import com.projectkorra.projectkorra.event.AbilityDamageEntityEvent;
 import com.projectkorra.projectkorra.event.EntityBendingDeathEvent;
 
@@ -34,7 +33,6 @@ public class DamageHandler {
 
 	// Armor percentage
 	private static final HashMap<Integer, Double> ARMOR_PERCENTAGE_BY_ENTITY_ID = new HashMap<>();
-	private static final String IGNORE_ARMOR_PREFIX = "Properties.IgnoreArmorPercentage.";
 	private static final Set<LivingEntity> BEING_DAMAGED = new HashSet<>();
 
 	private static final IDamageEventPasser DAMAGE_EVENT_PASSER = GeneralMethods.getMCVersion() >= 1205 ? new ModernDamageEventPasser() : new LegacyDamageEventPasser();
@@ -58,28 +56,7 @@ public class DamageHandler {
 	 * @return The percentage, between 0.0 and 1.0
 	 */
 	public static double getIgnoreArmorPercentage(@NotNull final Ability ability) {
-		FileConfiguration config = ProjectKorra.plugin.getConfig();
-
-		double percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Default", 0.0);
-
-		if (config.isSet(IGNORE_ARMOR_PREFIX + "Ability." + ability.getName())) {
-
-			percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Ability." + ability.getName(), 0.0);
-
-		} else {
-			if (config.isSet(IGNORE_ARMOR_PREFIX + "Element." + ability.getElement().getName())) {
-				percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Element." + ability.getElement().getName(), 0.0);
-			}
-
-			if (ability.getElement() instanceof Element.SubElement) {
-				Element parentElement = ((Element.SubElement) ability.getElement()).getParentElement();
-				if (config.isSet(IGNORE_ARMOR_PREFIX + "Element." + parentElement.getName())) {
-					percentage = config.getDouble(IGNORE_ARMOR_PREFIX + "Element." + parentElement.getName(), 0.0);
-				}
-			}
-		}
-
-		return Math.max(Math.min(percentage, 1.0), 0.0);
+		return ConfigSnapshot.get().getAbility(ability).getIgnoreArmorPercentage();
 	}
 
 	/**
@@ -182,7 +159,9 @@ public class DamageHandler {
 			damageEvent.setCancelled(true);
 		}
 		
-		Bukkit.getServer().getPluginManager().callEvent(damageEvent);
+		if (AbilityDamageEntityEvent.hasListeners()) {
+			Bukkit.getServer().getPluginManager().callEvent(damageEvent);
+		}
 		
 		if (entity instanceof LivingEntity && !damageEvent.isCancelled()) {
 			LivingEntity lent = (LivingEntity) entity;
@@ -0,0 +1,365 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
+
+import com.projectkorra.projectkorra.GeneralMethods;
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+
+/**
+ * A snapshot of the entities in a world that is shared by every ability
+ * looking for entities during the same tick.
+ * <p>
+ * Instead of every query asking the world for the entities in the chunks
+ * around it, the entities of a world are read once, the first time the world
+ * is queried during the tick. Their bounding boxes, and whether the filter of
+ * {@link GeneralMethods#getEntityFilter()} leaves them out, are kept in
+ * primitive arrays, and each entity is put in the 4 block cells of a flat grid
+ * that its bounding box touches. A query only looks at the cells it overlaps
+ * and checks the bounding boxes without calling into the entities.
+ * <p>
+ * The snapshot only lives during the tick of the {@link
+ * com.projectkorra.projectkorra.BendingManager}, so an entity that spawns or
+ * is teleported during the tick is found where it was at the start of the
+ * tick until the next one. Entities that are removed or die during the tick
+ * are left out. Queries made outside of that tick, off the main thread or on
+ * Folia ask the world right away like before.
+ * <p>
+ * Building a snapshot reads every entity of the world, not just the ones in
+ * the chunks near the query. That pays off when many abilities query the same
+ * world in a tick, but on worlds with a lot of entities and only a few
+ * benders, one snapshot can cost more than the few direct queries it
+ * replaces. {@code Properties.EntityIndex.Enabled} turns the snapshots off
+ * for such servers.
+ */
+public class EntityIndex {
+
+	/**
+	 * A shape to test the bounding boxes of entities against.
+	 */
+	@FunctionalInterface
+	private interface Shape {
+		boolean intersects(double minX, double minY, double minZ, double maxX, double maxY, double maxZ);
+	}
+
+	private static final double CELL_SIZE = 4;
+	private static final int MAX_CELLS = 27; //Entities that touch more cells are checked by every query
+	private static final String IMMUNITY = "BendingImmunity";
+	private static final int SEARCH_STEPS = 60;
+	private static final double SEARCH_TOLERANCE = 1.0E-6; //Errs on the side of finding the entity
+
+	private static final Map<UUID, EntityIndex> INDEXES = new HashMap<>();
+	private static boolean enabled;
+	private static boolean active;
+
+	private final World world;
+	private final Map<Long, int[]> cells = new HashMap<>(); //The first int of each cell is its size
+	private Entity[] entities = new Entity[64];
+	private double[] boxes = new double[64 * 6];
+	private boolean[] excluded = new boolean[64];
+	private int[] visited = new int[64];
+	private int[] large = new int[8];
+	private int size;
+	private int largeSize;
+	private int query;
+	private boolean built;
+
+	private EntityIndex(final World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Reads the settings from the config. Called when the plugin is enabled or
+	 * reloaded.
+	 */
+	public static void load() {
+		enabled = ConfigManager.getConfig().getBoolean("Properties.EntityIndex.Enabled", true) && !ProjectKorra.isFolia();
+		INDEXES.clear();
+	}
+
+	/**
+	 * Allows the snapshots to be used until {@link #endTick()}. Called by the
+	 * BendingManager before the abilities are progressed.
+	 */
+	public static void startTick() {
+		for (final EntityIndex index : INDEXES.values()) {
+			index.built = false;
+		}
+		active = enabled;
+	}
+
+	/**
+	 * Throws away the snapshots of this tick. Called by the BendingManager
+	 * after the abilities are progressed.
+	 */
+	public static void endTick() {
+		active = false;
+		final Iterator<EntityIndex> iterator = INDEXES.values().iterator();
+		while (iterator.hasNext()) {
+			final EntityIndex index = iterator.next();
+			if (!index.built) {
+				iterator.remove(); //Not queried this tick, don't keep the arrays around
+				continue;
+			}
+			Arrays.fill(index.entities, 0, index.size, null);
+			index.cells.clear();
+			index.built = false;
+		}
+	}
+
+	/**
+	 * @return The snapshot of the world for this tick, or null if the world
+	 *         should be asked directly
+	 */
+	private static EntityIndex get(final World world) {
+		if (!active || !Bukkit.isPrimaryThread()) {
+			return null;
+		}
+		final EntityIndex index = INDEXES.computeIfAbsent(world.getUID(), (uid) -> new EntityIndex(world));
+		if (!index.built) {
+			index.build();
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the entities whose bounding box overlaps the cube around a point,
+	 * which are the same entities {@link World#getNearbyEntities(Location,
+	 * double, double, double, Predicate)} finds.
+	 *
+	 * @param location The center of the cube
+	 * @param radius Half of the size of the cube
+	 * @param filter The entities to keep
+	 * @return A new list of the entities
+	 */
+	public static List<Entity> getNearbyEntities(final Location location, final double radius, final Predicate<Entity> filter) {
+		return collect(location.getWorld(), location.getX() - radius, location.getY() - radius, location.getZ() - radius, location.getX() + radius, location.getY() + radius, location.getZ() + radius, null, filter);
+	}
+
+	/**
+	 * Same as {@link #getNearbyEntities(Location, double, Predicate)} with
+	 * {@link GeneralMethods#getEntityFilter()}, but the immunity, spectator
+	 * and marker checks are read from the snapshot.
+	 */
+	public static List<Entity> getNearbyEntities(final Location location, final double radius) {
+		return getNearbyEntities(location, radius, null);
+	}
+
+	/**
+	 * Gets the entities whose bounding box is at most the radius away from a
+	 * line between two points, such as the path of a ray. Since every point of
+	 * the line is checked, this finds every entity a query around any point of
+	 * the line with the same radius could find, so it can be used to skip
+	 * stepping along the line when nothing is near it.
+	 *
+	 * @param start The start of the line
+	 * @param end The end of the line
+	 * @param radius The radius around the line
+	 * @return A new list of the entities, filtered like
+	 *         {@link GeneralMethods#getEntitiesAroundPoint(Location, double)}
+	 */
+	public static List<Entity> getEntitiesInCapsule(final Location start, final Location end, final double radius) {
+		final double startX = start.getX(), startY = start.getY(), startZ = start.getZ();
+		final double lineX = end.getX() - startX, lineY = end.getY() - startY, lineZ = end.getZ() - startZ;
+		final double radiusSquared = radius * radius;
+		return collect(start.getWorld(), Math.min(startX, end.getX()) - radius, Math.min(startY, end.getY()) - radius, Math.min(startZ, end.getZ()) - radius, Math.max(startX, end.getX()) + radius, Math.max(startY, end.getY()) + radius, Math.max(startZ, end.getZ()) + radius, (minX, minY, minZ, maxX, maxY, maxZ) -> {
+			// The distance to the box along the line is convex, so its minimum can be narrowed down
+			double low = 0, high = 1;
+			for (int i = 0; i < SEARCH_STEPS; i++) {
+				final double a = low + (high - low) / 3, b = high - (high - low) / 3;
+				final double distanceA = distanceSquared(startX + lineX * a, startY + lineY * a, startZ + lineZ * a, minX, minY, minZ, maxX, maxY, maxZ);
+				if (distanceA <= radiusSquared) {
+					return true;
+				}
+				if (distanceA < distanceSquared(startX + lineX * b, startY + lineY * b, startZ + lineZ * b, minX, minY, minZ, maxX, maxY, maxZ)) {
+					high = b;
+				} else {
+					low = a;
+				}
+			}
+			final double t = (low + high) / 2;
+			return distanceSquared(startX + lineX * t, startY + lineY * t, startZ + lineZ * t, minX, minY, minZ, maxX, maxY, maxZ) <= radiusSquared + SEARCH_TOLERANCE;
+		}, null);
+	}
+
+	/**
+	 * @return The squared distance from a point to the nearest point of a box
+	 */
+	private static double distanceSquared(final double x, final double y, final double z, final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+		final double dx = x < minX ? minX - x : x > maxX ? x - maxX : 0;
+		final double dy = y < minY ? minY - y : y > maxY ? y - maxY : 0;
+		final double dz = z < minZ ? minZ - z : z > maxZ ? z - maxZ : 0;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Gets the entities whose bounding box overlaps a box and the shape.
+	 *
+	 * @param shape The shape, or null to only check the box
+	 * @param filter The entities to keep, or null for the filter of
+	 *            {@link GeneralMethods#getEntityFilter()}
+	 */
+	private static List<Entity> collect(final World world, final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final Shape shape, final Predicate<Entity> filter) {
+		final List<Entity> found = new ArrayList<>();
+		final EntityIndex index = get(world);
+		if (index != null) {
+			index.collect(minX, minY, minZ, maxX, maxY, maxZ, shape, filter == null, found);
+			if (filter != null) {
+				found.removeIf(filter.negate()); //After the walk, so the filter can query the index itself
+			}
+			return found;
+		}
+
+		for (final Entity entity : world.getNearbyEntities(new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ), filter == null ? GeneralMethods.getEntityFilter() : filter)) {
+			final BoundingBox box = entity.getBoundingBox();
+			if (shape == null || shape.intersects(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ())) {
+				found.add(entity);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Reads the entities of the world into the arrays and the grid.
+	 */
+	private void build() {
+		this.size = 0;
+		this.largeSize = 0;
+		this.cells.clear();
+		for (final Entity entity : this.world.getEntities()) {
+			if (this.size == this.entities.length) {
+				final int length = this.size * 2;
+				this.entities = Arrays.copyOf(this.entities, length);
+				this.boxes = Arrays.copyOf(this.boxes, length * 6);
+				this.excluded = Arrays.copyOf(this.excluded, length);
+				this.visited = Arrays.copyOf(this.visited, length);
+			}
+
+			final int i = this.size++;
+			final BoundingBox box = entity.getBoundingBox();
+			final int offset = i * 6;
+			this.entities[i] = entity;
+			this.boxes[offset] = box.getMinX();
+			this.boxes[offset + 1] = box.getMinY();
+			this.boxes[offset + 2] = box.getMinZ();
+			this.boxes[offset + 3] = box.getMaxX();
+			this.boxes[offset + 4] = box.getMaxY();
+			this.boxes[offset + 5] = box.getMaxZ();
+			this.excluded[i] = entity.hasMetadata(IMMUNITY) || (entity instanceof Player && ((Player) entity).getGameMode() == GameMode.SPECTATOR) || (entity instanceof ArmorStand && ((ArmorStand) entity).isMarker());
+			this.visited[i] = 0;
+
+			final int minCellX = cell(box.getMinX()), minCellY = cell(box.getMinY()), minCellZ = cell(box.getMinZ());
+			final int maxCellX = cell(box.getMaxX()), maxCellY = cell(box.getMaxY()), maxCellZ = cell(box.getMaxZ());
+			if ((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) * (maxCellZ - minCellZ + 1) > MAX_CELLS) {
+				if (this.largeSize == this.large.length) {
+					this.large = Arrays.copyOf(this.large, this.largeSize * 2);
+				}
+				this.large[this.largeSize++] = i;
+				continue;
+			}
+			for (int x = minCellX; x <= maxCellX; x++) {
+				for (int y = minCellY; y <= maxCellY; y++) {
+					for (int z = minCellZ; z <= maxCellZ; z++) {
+						this.add(key(x, y, z), i);
+					}
+				}
+			}
+		}
+		this.query = 0;
+		this.built = true;
+	}
+
+	private void add(final long key, final int entity) {
+		int[] cell = this.cells.get(key);
+		if (cell == null) {
+			cell = new int[5];
+			this.cells.put(key, cell);
+		} else if (cell[0] + 1 == cell.length) {
+			cell = Arrays.copyOf(cell, cell.length * 2);
+			this.cells.put(key, cell);
+		}
+		cell[++cell[0]] = entity;
+	}
+
+	private void collect(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final Shape shape, final boolean filtered, final List<Entity> found) {
+		if (++this.query == 0) {
+			Arrays.fill(this.visited, 0);
+			this.query = 1;
+		}
+
+		final int minCellX = cell(minX), minCellY = cell(minY), minCellZ = cell(minZ);
+		final int maxCellX = cell(maxX), maxCellY = cell(maxY), maxCellZ = cell(maxZ);
+		if ((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) * (maxCellZ - minCellZ + 1) > this.cells.size()) {
+			for (int i = 0; i < this.size; i++) { //Cheaper to go through every entity than every cell
+				this.test(i, minX, minY, minZ, maxX, maxY, maxZ, shape, filtered, found);
+			}
+			return;
+		}
+
+		for (int x = minCellX; x <= maxCellX; x++) {
+			for (int y = minCellY; y <= maxCellY; y++) {
+				for (int z = minCellZ; z <= maxCellZ; z++) {
+					final int[] cell = this.cells.get(key(x, y, z));
+					if (cell == null) {
+						continue;
+					}
+					for (int j = 1; j <= cell[0]; j++) {
+						this.test(cell[j], minX, minY, minZ, maxX, maxY, maxZ, shape, filtered, found);
+					}
+				}
+			}
+		}
+		for (int j = 0; j < this.largeSize; j++) {
+			this.test(this.large[j], minX, minY, minZ, maxX, maxY, maxZ, shape, filtered, found);
+		}
+	}
+
+	private void test(final int i, final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final Shape shape, final boolean filtered, final List<Entity> found) {
+		if (this.visited[i] == this.query) {
+			return;
+		}
+		this.visited[i] = this.query;
+
+		final int offset = i * 6;
+		final double[] box = this.boxes;
+		if (box[offset] >= maxX || box[offset + 3] <= minX || box[offset + 1] >= maxY || box[offset + 4] <= minY || box[offset + 2] >= maxZ || box[offset + 5] <= minZ) {
+			return;
+		}
+		if (shape != null && !shape.intersects(box[offset], box[offset + 1], box[offset + 2], box[offset + 3], box[offset + 4], box[offset + 5])) {
+			return;
+		}
+
+		if ((!filtered || !this.excluded[i]) && this.entities[i].isValid()) {
+			found.add(this.entities[i]);
+		}
+	}
+
+	private static int cell(final double coordinate) {
+		return (int) Math.floor(coordinate / CELL_SIZE);
+	}
+
+	/**
+	 * Packs the coordinates of a cell into a long, 26 bits for x and z and 12
+	 * bits for y.
+	 */
+	private static long key(final int x, final int y, final int z) {
+		return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+	}
+
+}
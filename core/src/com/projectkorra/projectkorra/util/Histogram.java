@@ -0,0 +1,125 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size, lock free histogram of positive long values, such as
+ * durations in nanoseconds.
+ * <p>
+ * Values are counted in buckets that grow with the magnitude of the value:
+ * every power of two is split into {@value #SUB_BUCKETS} buckets of equal
+ * width, so the recorded values keep about 3 significant bits of precision
+ * at any magnitude, the same way an HDR histogram works. Recording a value
+ * never allocates and only touches a few atomic counters.
+ */
+public class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 *
+	 * @param value The value to record
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		this.counts.incrementAndGet(indexOf(value));
+		this.count.incrementAndGet();
+		this.total.addAndGet(value);
+
+		long current;
+		while (value > (current = this.max.get()) && !this.max.compareAndSet(current, value));
+	}
+
+	/**
+	 * @return The amount of recorded values
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * @return The sum of all recorded values
+	 */
+	public long getTotal() {
+		return this.total.get();
+	}
+
+	/**
+	 * @return The largest recorded value
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * @return The average of all recorded values
+	 */
+	public double getMean() {
+		final long count = this.count.get();
+		return count == 0 ? 0 : this.total.get() / (double) count;
+	}
+
+	/**
+	 * Estimates the value below which the given fraction of the recorded
+	 * values fall.
+	 *
+	 * @param percentile A fraction between 0 and 1, such as 0.99
+	 * @return The upper bound of the bucket the percentile falls in
+	 */
+	public long getPercentile(final double percentile) {
+		final long count = this.count.get();
+		if (count == 0) {
+			return 0;
+		}
+
+		final long target = Math.max(1, (long) Math.ceil(count * percentile));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts.get(i);
+			if (seen >= target) {
+				return Math.min(upperBoundOf(i), this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			this.counts.set(i, 0);
+		}
+		this.count.set(0);
+		this.total.set(0);
+		this.max.set(0);
+	}
+
+	private static int indexOf(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long upperBoundOf(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		final long subBucket = index % SUB_BUCKETS;
+		final long width = 1L << (exponent - SUB_BUCKET_BITS);
+		return (1L << exponent) + (subBucket + 1) * width - 1;
+	}
+
+}
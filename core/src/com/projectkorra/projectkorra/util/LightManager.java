@@ -6,11 +6,15 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Levelled;
 import org.bukkit.block.data.Waterlogged;
 import org.bukkit.entity.Player;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -18,186 +22,246 @@ public class LightManager {
 
     // Our LightManager instance
     private static final LightManager INSTANCE = new LightManager();
+    // Level sent for a light that is reverted back to the real block
+    private static final int REVERT = 0;
     // If the MC version is pre-LIGHT (< 1.17) this class basically does nothing
     private final boolean modern;
-    // Striped Lock set at number of processors * 2
-    private final Object[] locks;
+    // Player#sendMultiBlockChange on Paper based servers, null if the server doesn't have it
+    private final MethodHandle multiBlockChange;
     // A map containing all active lights
-    private final ConcurrentHashMap<Location, ConcurrentSkipListSet<LightData>> lightMap = new ConcurrentHashMap<>();
-    // A queue for handling individual reversions
-    private final ConcurrentLinkedQueue<BlockChange> blockChangeQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Location, List<LightData>> lightMap = new ConcurrentHashMap<>();
+    // Lights that were emitted since the last tick and still have to be sent
+    private final ConcurrentLinkedQueue<LightData> emitted = new ConcurrentLinkedQueue<>();
+    // Lights that have expired and are fading out, only used by the tick
+    private final List<LightData> fading = new ArrayList<>();
+    // The changes of the current tick, per player and location. Later changes replace earlier ones
+    private final Map<Player, Map<Location, Integer>> changes = new HashMap<>();
 
     // Default LIGHT BlockData
-    private final Map<Integer, BlockData> lightDataMap = new HashMap<>();
-    private final Map<Integer, BlockData> waterloggedLightDataMap = new HashMap<>();
+    private final BlockData[] lightData = new BlockData[16];
+    private final BlockData[] waterloggedLightData = new BlockData[16];
 
-    // Scheduler with threads equal to the number of available processors, this handles reverting expired lights
-    private ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
+    // The task that ticks the lights, only running while there are lights
+    private final Object taskLock = new Object();
+    private Object task;
 
     /**
-     * Creates a new LightManager instance. Initializes default BlockData for LIGHT and waterlogged LIGHT,
-     * sets up locks based on the number of available processors * 2, and schedules the reverter task to run periodically
-     * using a ScheduledThreadPoolExecutor.
+     * Creates a new LightManager instance. Initializes default BlockData for LIGHT and waterlogged LIGHT.
+     * The task that fades and sends the lights is started when the first light is emitted.
      */
     private LightManager() {
         modern = GeneralMethods.getMCVersion() >= 1170;
-
-        int numLocks = Runtime.getRuntime().availableProcessors() * 2;
-        locks = new Object[numLocks];
-        for (int i = 0; i < numLocks; i++) {
-            locks[i] = new Object();
-        }
+        multiBlockChange = modern ? findMultiBlockChange() : null;
 
         if (modern) {
             precomputeLightData();
-            startLightReverter();
         }
     }
 
     /**
-     * Retrieves the current time and iterates over all light data in the light map. If the current time is greater
-     * than or equal to the expiry time of a light data, it fades the light out and removes the light data from the map.
-     * This is running periodically, or every 50ms, via the scheduled thread pool executor.
+     * Runs every tick while there are lights. Fades out expired lights one brightness level per tick, then sends
+     * every change of the tick to the players that can see it. Only the last state of a location is sent to a
+     * player, so a light that is emitted and faded in the same tick doesn't cause two block changes.
      */
-    private void revertExpiredLights() {
+    private synchronized void tick() {
+        final boolean profiling = Profiler.start("task", "LightManager");
+        try {
+            expireLights();
+            stepFadingLights();
+
+            LightData light;
+            while ((light = emitted.poll()) != null) {
+                if (!light.fading) {
+                    queueChange(light, light.brightness);
+                }
+            }
+
+            flushChanges();
+        } finally {
+            if (profiling) Profiler.stop();
+        }
+
+        synchronized (taskLock) {
+            if (lightMap.isEmpty() && fading.isEmpty() && emitted.isEmpty()) {
+                ThreadUtil.cancelTimerTask(task);
+                task = null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the current time and moves every light that has expired from the light map to the lights that are
+     * fading out.
+     */
+    private void expireLights() {
         long currentTime = System.currentTimeMillis();
-        List<LightData> lightsToRevert = new ArrayList<>();
-
-        lightMap.forEach((location, lightDataSet) -> {
-            Iterator<LightData> iterator = lightDataSet.iterator();
-            while (iterator.hasNext()) {
-                LightData lightData = iterator.next();
-                if (currentTime >= lightData.expiryTime) {
-                    lightsToRevert.add(lightData);
-                    iterator.remove();
+
+        for (Location location : lightMap.keySet()) {
+            lightMap.computeIfPresent(location, (loc, lights) -> {
+                Iterator<LightData> iterator = lights.iterator();
+                while (iterator.hasNext()) {
+                    LightData lightData = iterator.next();
+                    if (currentTime >= lightData.expiryTime) {
+                        lightData.fading = true;
+                        fading.add(lightData);
+                        iterator.remove();
+                    }
                 }
+                return lights.isEmpty() ? null : lights;
+            });
+        }
+    }
+
+    /**
+     * Decrements the brightness of every fading light by 1. A light stops fading when its brightness reaches 0, which
+     * reverts it, or when a new light was emitted at its location for the same observers.
+     */
+    private void stepFadingLights() {
+        Iterator<LightData> iterator = fading.iterator();
+        while (iterator.hasNext()) {
+            LightData lightData = iterator.next();
+            if (isSuperseded(lightData)) {
+                iterator.remove();
+                continue;
             }
-            if (lightDataSet.isEmpty()) {
-                lightMap.remove(location);
+
+            lightData.fadeBrightness--;
+            queueChange(lightData, lightData.fadeBrightness);
+            if (lightData.fadeBrightness <= 0) {
+                iterator.remove();
             }
-        });
+        }
+    }
+
+    private boolean isSuperseded(LightData lightData) {
+        List<LightData> lights = lightMap.get(lightData.location);
+        if (lights == null) return false;
 
-        for (LightData lightData : lightsToRevert) {
-            fadeLight(lightData);
+        synchronized (lights) {
+            for (LightData other : lights) {
+                if (other.observers.equals(lightData.observers)) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     /**
      * Precomputes light data for levels 1 through 15 by creating a BlockData object for each level
      * with the "LIGHT" material and setting the level using the Levelled interface. It also
      * creates a waterlogged version of each light data object using the Waterlogged interface.
-     * The resulting objects are stored in the lightDataMap and waterloggedLightDataMap maps
-     * respectively. This cuts down on computation time constantly manipulating BlockData.
+     * This cuts down on computation time constantly manipulating BlockData.
      */
     private void precomputeLightData() {
-        BlockData lightData = Bukkit.createBlockData(Material.valueOf("LIGHT"));
+        BlockData light = Bukkit.createBlockData(Material.valueOf("LIGHT"));
 
         for (int level = 1; level <= 15; level++) {
-            ((Levelled) lightData).setLevel(level);
-            lightDataMap.put(level, lightData.clone());
+            ((Levelled) light).setLevel(level);
+            lightData[level] = light.clone();
 
-            BlockData waterloggedLightData = lightData.clone();
-            ((Waterlogged) waterloggedLightData).setWaterlogged(true);
-            waterloggedLightDataMap.put(level, waterloggedLightData);
+            BlockData waterloggedLight = light.clone();
+            ((Waterlogged) waterloggedLight).setWaterlogged(true);
+            waterloggedLightData[level] = waterloggedLight;
         }
     }
 
     /**
-     * Starts the light reverter task by scheduling it to run at a fixed rate of 50 milliseconds, or 1 tick.
-     * If the scheduler is already shut down, a new ScheduledThreadPoolExecutor is created with the number of available processors.
+     * Finds the Paper method that sends several block changes at once. Paper groups the changes into one packet per
+     * chunk section. Spigot doesn't have it, in which case every change is sent on its own.
+     *
+     * @return the method, or null if the server doesn't have it
      */
-    private void startLightReverter() {
-        if (scheduler.isShutdown()) {
-            scheduler = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
-        }
+    private static MethodHandle findMultiBlockChange() {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            return lookup.findVirtual(Player.class, "sendMultiBlockChange", MethodType.methodType(void.class, Map.class));
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {}
+
+        try { // Older Paper versions also want to know if light updates should be suppressed
+            MethodHandle handle = lookup.findVirtual(Player.class, "sendMultiBlockChange", MethodType.methodType(void.class, Map.class, boolean.class));
+            return MethodHandles.insertArguments(handle, 2, false);
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {}
 
-        scheduler.scheduleAtFixedRate(this::revertExpiredLights, 0, 50, TimeUnit.MILLISECONDS);
-        scheduler.scheduleAtFixedRate(this::processBlockChanges, 0, 50, TimeUnit.MILLISECONDS);
+        return null;
     }
 
     /**
-     * Fades out a light by decrementing its brightness by 1. The light will stop fading when its brightness
-     * reaches 0. The fade process is scheduled to run every 50 milliseconds, or 1 tick.
+     * Queues a change of a light for every observer of it. Brightness of 0 indicates that the light should be
+     * reverted.
      *
-     * @param lightData the LightData object containing the light's brightness, location, UUID, and ephemeral flag
+     * @param lightData  the light that changed
+     * @param brightness the brightness level the light has now
      */
-    private void fadeLight(LightData lightData) {
-        int brightness = lightData.brightness;
+    private void queueChange(LightData lightData, int brightness) {
+        Integer level = brightness > 0 ? (brightness << 1 | (lightData.waterlogged ? 1 : 0)) : REVERT;
 
-        class TaskHolder {
-            ScheduledFuture<?> future;
-        }
-        TaskHolder taskHolder = new TaskHolder();
-
-        Runnable task = new Runnable() {
-            private int currentBrightness = brightness;
-
-            @Override
-            public void run() {
-                currentBrightness--;
-                if (currentBrightness > 0) {
-                    ThreadUtil.ensureLocation(lightData.location,
-                            () -> sendLightChange(lightData.location, currentBrightness, lightData.observers));
-                } else {
-                    ThreadUtil.ensureLocation(lightData.location, () -> revertLight(lightData));
-                    taskHolder.future.cancel(false);
-                }
+        for (Player player : lightData.observers) {
+            if (player != null) {
+                changes.computeIfAbsent(player, p -> new HashMap<>()).put(lightData.location, level);
             }
-        };
-
-        taskHolder.future = scheduler.scheduleAtFixedRate(task, 0, 50, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
-     * Sends a block change to the specified location. Brightness of 0 indicates that the light should be reverted.
-     *
-     * @param location   the location where the light change is to be sent
-     * @param brightness the brightness level of the light
-     * @param observers  the list of players who can see the light
+     * Sends the queued changes. Each player gets all of their changes at once, on the thread that owns them.
      */
-    private void sendLightChange(Location location, int brightness, Collection<? extends Player> observers) {
-        BlockData lightData = brightness > 0 ? getLightData(location, brightness) : getCurrentBlockData(location);
-        World targetWorld = location.getWorld();
+    private void flushChanges() {
+        if (changes.isEmpty()) return;
+
         double maxDistanceSquared = Math.pow(Bukkit.getServer().getViewDistance() * 16, 2);
 
-        observers.stream()
-                .filter(player -> player != null && player.isOnline() && !player.isDead() && player.getWorld().equals(targetWorld))
-                .filter(player -> player.getLocation().distanceSquared(location) <= maxDistanceSquared)
-                .forEach(player -> blockChangeQueue.add(new BlockChange(player, location, lightData)));
-    }
+        for (Map.Entry<Player, Map<Location, Integer>> entry : changes.entrySet()) {
+            Player player = entry.getKey();
+            Map<Location, Integer> levels = entry.getValue();
+            if (!player.isOnline()) continue;
 
-    private void processBlockChanges() {
-        BlockChange blockChange;
-        while ((blockChange = blockChangeQueue.poll()) != null) {
-            Player player = blockChange.getPlayer();
-            BlockChange finalBlockChange = blockChange;
-            ThreadUtil.ensureLocation(finalBlockChange.location, () -> {
-                player.sendBlockChange(finalBlockChange.getLocation(), finalBlockChange.getBlockData());
-            });
+            ThreadUtil.ensureEntity(player, () -> sendChanges(player, levels, maxDistanceSquared));
         }
+        changes.clear();
     }
 
     /**
-     * Helper method to revert a light at the specified location by calling sendLightChange with a brightness of 0.
+     * Sends the changes of a tick to a player, leaving out the ones that are too far away for the player to see.
      *
-     * @param lightData the LightData object containing the location, brightness, UUID, and ephemeral flag of the light to be reverted
+     * @param player             the player to send the changes to
+     * @param levels             the new light level of each location, encoded by {@link #queueChange(LightData, int)}
+     * @param maxDistanceSquared how far away the player can see lights, squared
      */
-    private void revertLight(LightData lightData) {
-        sendLightChange(lightData.location, 0, lightData.observers);
+    private void sendChanges(Player player, Map<Location, Integer> levels, double maxDistanceSquared) {
+        if (!player.isOnline() || player.isDead()) return;
+
+        World world = player.getWorld();
+        Location playerLocation = player.getLocation();
+        Map<Location, BlockData> blockChanges = new HashMap<>();
+
+        for (Map.Entry<Location, Integer> entry : levels.entrySet()) {
+            Location location = entry.getKey();
+            if (location.getWorld() != world || playerLocation.distanceSquared(location) > maxDistanceSquared) continue;
+
+            int level = entry.getValue();
+            if (level != REVERT) {
+                blockChanges.put(location, (level & 1) == 1 ? waterloggedLightData[level >> 1] : lightData[level >> 1]);
+            } else if (!ProjectKorra.isFolia() || Bukkit.isOwnedByCurrentRegion(location)) {
+                blockChanges.put(location, getCurrentBlockData(location));
+            } else { // The real block has to be read by the region that owns it
+                ThreadUtil.ensureLocation(location, () -> player.sendBlockChange(location, getCurrentBlockData(location)));
+            }
+        }
+
+        sendBlockChanges(player, blockChanges);
     }
 
-    /**
-     * Returns the BlockData as light for the given Location, based on whether the block is water or air.
-     *
-     * @param location   the Location to get the BlockData for
-     * @param lightLevel the light level to set for the BlockData
-     * @return the BlockData for the given Location
-     */
-    private BlockData getLightData(Location location, int lightLevel) {
-        if (location.getBlock().getType() == Material.WATER) {
-            return waterloggedLightDataMap.get(lightLevel);
-        } else {
-            return lightDataMap.get(lightLevel);
+    private void sendBlockChanges(Player player, Map<Location, BlockData> blockChanges) {
+        if (multiBlockChange != null && blockChanges.size() > 1) {
+            try {
+                multiBlockChange.invoke(player, blockChanges);
+                return;
+            } catch (Throwable ignored) {} // Fall back to sending them one by one
+        }
+
+        for (Map.Entry<Location, BlockData> entry : blockChanges.entrySet()) {
+            player.sendBlockChange(entry.getKey(), entry.getValue());
         }
     }
 
@@ -229,7 +293,8 @@ public class LightManager {
     /**
      * Adds a light at the specified location with the given brightness and expiry.
      * Visible for the specified observers.
-     * Subsequent calls to a location with an active light extends the expiration time for the relevant observers.
+     * Subsequent calls to a location with an active light extends the expiration time for the relevant observers,
+     * and only send the light again if its brightness changed.
      *
      * @param location   the location where the light should be added
      * @param brightness the brightness of the light, 1-15
@@ -239,103 +304,94 @@ public class LightManager {
     private void addLight(Location location, int brightness, long expiry, Collection<? extends Player> observers) {
         if (!modern) return;
 
-        location = location.getBlock().getLocation();
+        Block block = location.getBlock();
+        location = block.getLocation();
         long expiryTime = System.currentTimeMillis() + expiry;
 
-        if (location.getBlock().getLightLevel() >= brightness ||
-                (!location.getBlock().isEmpty() && !location.getBlock().getType().equals(Material.WATER))) return;
+        if (block.getLightLevel() >= brightness ||
+                (!block.isEmpty() && !block.getType().equals(Material.WATER))) return;
 
-        LightData newLightData = new LightData(location, brightness, observers, expiryTime);
+        LightData newLightData = new LightData(location, brightness, observers, expiryTime, block.getType() == Material.WATER);
+        boolean[] changed = new boolean[1];
 
-        Object lock = getLockForLocation(location);
-        synchronized (lock) {
-            ConcurrentSkipListSet<LightData> existingSet = lightMap.computeIfAbsent(location, loc -> new ConcurrentSkipListSet<>());
-            existingSet.removeIf(lightData -> lightData.observers.equals(observers));
-            existingSet.add(newLightData);
-        }
+        lightMap.compute(location, (loc, lights) -> {
+            if (lights == null) {
+                lights = Collections.synchronizedList(new ArrayList<>(1));
+            }
+            synchronized (lights) {
+                for (LightData lightData : lights) {
+                    if (lightData.observers.equals(observers) && lightData.brightness == brightness) {
+                        lightData.expiryTime = Math.max(lightData.expiryTime, expiryTime);
+                        return lights;
+                    }
+                }
+                lights.removeIf(lightData -> lightData.observers.equals(observers));
+                lights.add(newLightData);
+                changed[0] = true;
+            }
+            return lights;
+        });
 
-        sendLightChange(location, brightness, observers);
+        if (changed[0]) {
+            emitted.add(newLightData);
+            startTicking();
+        }
     }
 
     /**
-     * Returns the lock object associated with the given location. The lock object
-     * is used to synchronize access to the light data for the location. The
-     * function calculates the hash code of the location and uses it to determine
-     * the index of the lock object in the locks array. The locks array is
-     * initialized with a fixed number of objects based on the number of available
-     * processors * 2.
-     *
-     * @param location the location for which the lock object is requested
-     * @return the lock object associated with the location
+     * Starts the task that ticks the lights, if it isn't running. The task stops by itself once there are no lights
+     * left, and is also stopped when all tasks of the plugin are cancelled on a reload.
      */
-    private Object getLockForLocation(Location location) {
-        return locks[(location.hashCode() & 0x7FFFFFFF) % locks.length];
+    private void startTicking() {
+        synchronized (taskLock) {
+            if (task == null || ThreadUtil.isTaskCancelled(task)) {
+                task = ThreadUtil.runSyncTimer(this::tick, 1, 1);
+            }
+        }
     }
 
     /**
-     * Reverts all active lights immediately with no fade-out, then restarts the revert scheduler.
+     * Reverts all active lights immediately with no fade-out.
      * This does not normally need to be used as it's already called when ProjectKorra is reloaded.
      */
-    public void restart() {
+    public synchronized void restart() {
         if (!modern) return;
 
-        lightMap.values().forEach(set -> set.forEach(this::revertLight));
-        lightMap.clear();
-
-        scheduler.shutdown();
+        synchronized (taskLock) {
+            ThreadUtil.cancelTimerTask(task);
+            task = null;
+        }
 
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+        lightMap.values().forEach(lights -> {
+            synchronized (lights) {
+                lights.forEach(lightData -> queueChange(lightData, REVERT));
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        });
+        fading.forEach(lightData -> queueChange(lightData, REVERT));
+        lightMap.clear();
+        fading.clear();
+        emitted.clear();
 
-        startLightReverter();
+        flushChanges();
     }
 
-    private static class LightData implements Comparable<LightData> {
+    private static class LightData {
         private final Location location;
         private final int brightness;
         private final Collection<? extends Player> observers;
-        private final long expiryTime;
+        private final boolean waterlogged;
+        private volatile long expiryTime;
+        // Only used by the tick once the light has expired
+        private boolean fading;
+        private int fadeBrightness;
 
-        private LightData(Location location, int brightness, Collection<? extends Player> observers, long expiryTime) {
+        private LightData(Location location, int brightness, Collection<? extends Player> observers, long expiryTime, boolean waterlogged) {
             this.location = location;
             this.brightness = brightness;
             this.observers = observers;
             this.expiryTime = expiryTime;
-        }
-
-        /**
-         * Calculates the hash code for this object. The hash code is based on the
-         * values of the location, brightness, observers, and expiryTime fields.
-         *
-         * @return the hash code of this object
-         */
-        @Override
-        public int hashCode() {
-            return Objects.hash(location, brightness, observers, expiryTime);
-        }
-
-        /**
-         * Checks if this LightData object is equal to another object. Two LightData objects are considered
-         * equal if they have the same brightness, expiryTime, location, and observers.
-         *
-         * @param obj the object to compare this LightData object to
-         * @return true if the objects are equal, false otherwise
-         */
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            LightData that = (LightData) obj;
-            return brightness == that.brightness &&
-                    expiryTime == that.expiryTime &&
-                    location.equals(that.location) &&
-                    observers.equals(that.observers);
+            this.waterlogged = waterlogged;
+            this.fadeBrightness = brightness;
         }
 
         /**
@@ -352,19 +408,6 @@ public class LightManager {
                     ", expiryTime=" + expiryTime +
                     '}';
         }
-
-        /**
-         * Compares this LightData object with another LightData object based on their expiryTime.
-         *
-         * @param other the LightData object to compare to
-         * @return a negative integer, zero, or a positive integer as this object's
-         * expiryTime is less than, equal to, or greater than the other object's
-         * expiryTime.
-         */
-        @Override
-        public int compareTo(LightData other) {
-            return Long.compare(this.expiryTime, other.expiryTime);
-        }
     }
 
     public static class LightBuilder {
@@ -417,28 +460,4 @@ public class LightManager {
             LightManager.get().addLight(location, brightness, timeUntilFade, observers);
         }
     }
-
-    private static class BlockChange {
-        private final Player player;
-        private final Location location;
-        private final BlockData blockData;
-
-        public BlockChange(Player player, Location location, BlockData blockData) {
-            this.player = player;
-            this.location = location;
-            this.blockData = blockData;
-        }
-
-        public Player getPlayer() {
-            return player;
-        }
-
-        public Location getLocation() {
-            return location;
-        }
-
-        public BlockData getBlockData() {
-            return blockData;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,223 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import com.projectkorra.projectkorra.GeneralMethods;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+
+/**
+ * A table of what every {@link Material} is to bending, such as whether it is
+ * earthbendable, transparent or a plant.
+ * <p>
+ * Each material has one long in the table, indexed by its ordinal, and every
+ * trait is a bit in that long. Checking a trait is a single array read, and
+ * several traits can be checked at once:
+ *
+ * <pre>
+ * if (MaterialTraits.hasAny(block.getType(), MaterialTraits.EARTH | MaterialTraits.SAND)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * The traits that depend on the config, such as {@link #EARTH} and
+ * {@link #PLANT}, are read again when the plugin is reloaded. The new table
+ * replaces the old one in one step, so a thread never sees a half built
+ * table.
+ */
+public class MaterialTraits {
+
+	private static final Material[] MATERIALS = Material.values();
+
+	public static final long AIR = 1L;
+	public static final long SOLID = 1L << 1;
+	public static final long OCCLUDING = 1L << 2;
+	/** Neither solid nor occluding, so abilities can pass through it */
+	public static final long TRANSPARENT = 1L << 3;
+	public static final long WATER = 1L << 4;
+	public static final long LAVA = 1L << 5;
+	public static final long FIRE = 1L << 6;
+	public static final long MUD = 1L << 7;
+	/** Listed in {@code Properties.Earth.EarthBlocks} */
+	public static final long EARTH = 1L << 8;
+	/** Listed in {@code Properties.Earth.MetalBlocks} */
+	public static final long METAL = 1L << 9;
+	/** Listed in {@code Properties.Earth.SandBlocks} */
+	public static final long SAND = 1L << 10;
+	/** Listed in {@code Properties.Water.IceBlocks} */
+	public static final long ICE = 1L << 11;
+	/** Listed in {@code Properties.Water.SnowBlocks} */
+	public static final long SNOW = 1L << 12;
+	/** Listed in {@code Properties.Water.PlantBlocks} */
+	public static final long PLANT = 1L << 13;
+
+	/** The traits that never change, built once */
+	private static final long[] BASE = new long[MATERIALS.length];
+	private static final Set<Material> TRANSPARENT_SET;
+	private static final Material[] TRANSPARENT_ARRAY;
+
+	private static volatile long[] traits;
+
+	static {
+		final Material light = Material.getMaterial("LIGHT");
+		final Set<Material> mud = EnumSet.noneOf(Material.class);
+		for (final String name : new String[] { "MUD", "PACKED_MUD", "MUDDY_MANGROVE_ROOTS" }) {
+			final Material material = Material.getMaterial(name);
+			if (material != null) {
+				mud.add(material);
+			}
+		}
+
+		final Set<Material> transparent = EnumSet.noneOf(Material.class);
+		for (final Material material : MATERIALS) {
+			long bits = 0;
+			if (material == Material.AIR || material == Material.CAVE_AIR || material == Material.VOID_AIR || (material == light && GeneralMethods.getMCVersion() >= 1170)) {
+				bits |= AIR;
+			}
+			if (material.isSolid()) {
+				bits |= SOLID;
+			}
+			if (material.isOccluding()) {
+				bits |= OCCLUDING;
+			}
+			if (!material.isSolid() && !material.isOccluding()) {
+				bits |= TRANSPARENT;
+				transparent.add(material);
+			}
+			if (material == Material.WATER || material == Material.SEAGRASS || material == Material.TALL_SEAGRASS || material == Material.KELP_PLANT || material == Material.KELP || material == Material.BUBBLE_COLUMN) {
+				bits |= WATER;
+			}
+			if (material == Material.LAVA) {
+				bits |= LAVA;
+			}
+			if (material == Material.FIRE || material == Material.SOUL_FIRE) {
+				bits |= FIRE;
+			}
+			if (mud.contains(material) && GeneralMethods.getMCVersion() >= 1190) {
+				bits |= MUD;
+			}
+			BASE[material.ordinal()] = bits;
+		}
+		TRANSPARENT_SET = Collections.unmodifiableSet(transparent);
+		TRANSPARENT_ARRAY = transparent.toArray(new Material[0]);
+
+		reload();
+	}
+
+	private MaterialTraits() {}
+
+	/**
+	 * Builds the traits that depend on the config again. Called when the
+	 * plugin is reloaded.
+	 */
+	public static void reload() {
+		final FileConfiguration config = ConfigManager.getConfig();
+		final long[] table = BASE.clone();
+		add(table, EARTH, config.getStringList("Properties.Earth.EarthBlocks"));
+		add(table, METAL, config.getStringList("Properties.Earth.MetalBlocks"));
+		add(table, SAND, config.getStringList("Properties.Earth.SandBlocks"));
+		add(table, ICE, config.getStringList("Properties.Water.IceBlocks"));
+		add(table, SNOW, config.getStringList("Properties.Water.SnowBlocks"));
+		add(table, PLANT, config.getStringList("Properties.Water.PlantBlocks"));
+		traits = table;
+	}
+
+	/**
+	 * Removes the traits that depend on the config until {@link #reload()} is
+	 * called.
+	 */
+	public static void clear() {
+		traits = BASE.clone();
+	}
+
+	/**
+	 * Adds a trait to every material in a config list. Entries that start with
+	 * # are block tags, such as {@code #minecraft:logs}.
+	 */
+	private static void add(final long[] table, final long trait, final List<String> entries) {
+		for (final String entry : entries) {
+			if (entry.startsWith("#")) {
+				final NamespacedKey key = NamespacedKey.fromString(entry.substring(1));
+				final Tag<Material> tag = key == null ? null : Bukkit.getTag(Tag.REGISTRY_BLOCKS, key, Material.class);
+				if (tag != null) {
+					for (final Material material : tag.getValues()) {
+						table[material.ordinal()] |= trait;
+					}
+				}
+			} else {
+				final Material material = Material.getMaterial(entry.toUpperCase());
+				if (material != null) {
+					table[material.ordinal()] |= trait;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param material The material to check
+	 * @param trait The trait to check for
+	 * @return True if the material has the trait, or all of them if more than
+	 *         one is given
+	 */
+	public static boolean has(final Material material, final long trait) {
+		return (traits[material.ordinal()] & trait) == trait;
+	}
+
+	/**
+	 * @param material The material to check
+	 * @param traits The traits to check for
+	 * @return True if the material has at least one of the traits
+	 */
+	public static boolean hasAny(final Material material, final long traits) {
+		return (MaterialTraits.traits[material.ordinal()] & traits) != 0;
+	}
+
+	/**
+	 * @param material The material
+	 * @return All traits of the material
+	 */
+	public static long get(final Material material) {
+		return traits[material.ordinal()];
+	}
+
+	/**
+	 * @param trait The trait
+	 * @return A new list of every material with the trait
+	 */
+	public static List<Material> getMaterials(final long trait) {
+		final long[] table = traits;
+		final List<Material> materials = new ArrayList<>();
+		for (final Material material : MATERIALS) {
+			if ((table[material.ordinal()] & trait) == trait) {
+				materials.add(material);
+			}
+		}
+		return materials;
+	}
+
+	/**
+	 * @return The transparent materials. The set can't be changed, use
+	 *         {@link com.projectkorra.projectkorra.ability.ElementalAbility#getTransparentMaterialSet()}
+	 *         for a copy that can
+	 */
+	public static Set<Material> getTransparentSet() {
+		return TRANSPARENT_SET;
+	}
+
+	/**
+	 * @return A new array of the transparent materials
+	 */
+	public static Material[] getTransparentArray() {
+		return TRANSPARENT_ARRAY.clone();
+	}
+
+}
@@ -0,0 +1,266 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+
+/**
+ * Collects the particles displayed during a tick and sends them to the
+ * players at the end of it, instead of sending every particle to every
+ * player right away.
+ * <p>
+ * The particles are kept in primitive arrays that are reused every tick, so
+ * displaying a particle doesn't allocate anything. When the buffer is sent,
+ * each player only receives the particles within their view distance, and
+ * never more than {@code Properties.Particles.MaxPerPlayer} per tick. If there
+ * are more, every n-th particle is left out so the effects thin out evenly
+ * instead of the last abilities of the tick missing their particles.
+ * Particles that are displayed twice in the same spot in the same tick are
+ * merged into one.
+ * <p>
+ * Batched particles are forced like the ones sent right away, so players
+ * with reduced particle settings and players far away still see them. That
+ * needs the receiver overload of Paper, so particles are only batched on
+ * Paper. Particles displayed off the main thread, and every particle on Spigot
+ * or Folia, are sent right away like before.
+ */
+public class ParticleBatch {
+
+	private static final Particle[] PARTICLES = Particle.values();
+	private static final int DOUBLES = 7; //x, y, z, offsetX, offsetY, offsetZ, extra
+	private static final double POSITION_PRECISION = 16; //Spots closer than 1/16 of a block are merged
+	private static final int IDLE_TICKS = 20;
+
+	private static boolean enabled;
+	private static int maxPerPlayer;
+
+	private static World[] worlds = new World[256];
+	private static int[] particles = new int[256];
+	private static int[] amounts = new int[256];
+	private static double[] doubles = new double[256 * DOUBLES];
+	private static Object[] data = new Object[256];
+	private static int size;
+
+	private static int[] table = new int[512]; //Open addressing table of the index + 1 of each particle
+	private static int[] visible = new int[256];
+	private static final Location PLAYER_LOCATION = new Location(null, 0, 0, 0);
+	private static final List<Player> RECEIVER = new ArrayList<>(1);
+
+	private static Object task;
+	private static int idleTicks;
+	private static boolean warned;
+
+	private ParticleBatch() {}
+
+	/**
+	 * Reads the settings from the config. Called when the plugin is enabled or
+	 * reloaded.
+	 */
+	public static void load() {
+		enabled = ConfigManager.getConfig().getBoolean("Properties.Particles.Batching", true) && ProjectKorra.isPaper() && !ProjectKorra.isFolia();
+		maxPerPlayer = ConfigManager.getConfig().getInt("Properties.Particles.MaxPerPlayer", 1000);
+	}
+
+	/**
+	 * Displays a particle at the end of the tick, or right away if batching is
+	 * not possible.
+	 *
+	 * @param world The world to display the particle in
+	 * @param particle The particle to display
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @param z The z coordinate
+	 * @param amount How many of the particle to display
+	 * @param offsetX Random offset on the x axis
+	 * @param offsetY Random offset on the y axis
+	 * @param offsetZ Random offset on the z axis
+	 * @param extra Extra data for the particle, usually its speed
+	 * @param particleData Data of the particle, or null if it has none
+	 */
+	public static void display(final World world, final Particle particle, final double x, final double y, final double z, final int amount, final double offsetX, final double offsetY, final double offsetZ, final double extra, final Object particleData) {
+		// Data of the wrong type is sent right away, so the error is thrown to the ability that displayed it
+		final boolean validData = particle.getDataType() == Void.class ? particleData == null : particle.getDataType().isInstance(particleData);
+		if (!enabled || !Bukkit.isPrimaryThread() || !validData) {
+			world.spawnParticle(particle, x, y, z, amount, offsetX, offsetY, offsetZ, extra, particleData, true);
+			return;
+		}
+
+		if (size == worlds.length) {
+			grow();
+		}
+
+		final int index = size;
+		final int offset = index * DOUBLES;
+		worlds[index] = world;
+		particles[index] = particle.ordinal();
+		amounts[index] = amount;
+		data[index] = particleData;
+		doubles[offset] = x;
+		doubles[offset + 1] = y;
+		doubles[offset + 2] = z;
+		doubles[offset + 3] = offsetX;
+		doubles[offset + 4] = offsetY;
+		doubles[offset + 5] = offsetZ;
+		doubles[offset + 6] = extra;
+
+		if (!merge(index)) {
+			size++;
+		}
+
+		if (task == null || ThreadUtil.isTaskCancelled(task)) { //Also cancelled when the plugin reloads
+			idleTicks = 0;
+			task = ThreadUtil.runSyncTimer(ParticleBatch::flush, 1, 1);
+		}
+	}
+
+	/**
+	 * Looks for a particle displayed earlier in the tick that is the same as
+	 * the one at the index, and if there is one, merges the new one into it.
+	 *
+	 * @return True if the particle was merged and doesn't need to be sent
+	 */
+	private static boolean merge(final int index) {
+		final int mask = table.length - 1;
+		int slot = hash(index) & mask;
+		int other;
+		while ((other = table[slot] - 1) >= 0) {
+			if (isSame(index, other)) {
+				if (amounts[index] > 0 && amounts[other] > 0) {
+					amounts[other] += amounts[index];
+				}
+				worlds[index] = null;
+				data[index] = null;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = index + 1;
+		return false;
+	}
+
+	private static int hash(final int index) {
+		final int offset = index * DOUBLES;
+		long hash = particles[index];
+		hash = hash * 31 + (long) Math.floor(doubles[offset] * POSITION_PRECISION);
+		hash = hash * 31 + (long) Math.floor(doubles[offset + 1] * POSITION_PRECISION);
+		hash = hash * 31 + (long) Math.floor(doubles[offset + 2] * POSITION_PRECISION);
+		hash ^= hash >>> 32;
+		return (int) (hash ^ (hash >>> 16));
+	}
+
+	private static boolean isSame(final int a, final int b) {
+		if (particles[a] != particles[b] || worlds[a] != worlds[b] || (amounts[a] == 0) != (amounts[b] == 0)) {
+			return false;
+		}
+		final int offsetA = a * DOUBLES;
+		final int offsetB = b * DOUBLES;
+		for (int i = 0; i < 3; i++) {
+			if (Math.floor(doubles[offsetA + i] * POSITION_PRECISION) != Math.floor(doubles[offsetB + i] * POSITION_PRECISION)) {
+				return false;
+			}
+		}
+		for (int i = 3; i < DOUBLES; i++) {
+			if (doubles[offsetA + i] != doubles[offsetB + i]) {
+				return false;
+			}
+		}
+		return Objects.equals(data[a], data[b]);
+	}
+
+	private static void grow() {
+		final int length = worlds.length * 2;
+		worlds = Arrays.copyOf(worlds, length);
+		particles = Arrays.copyOf(particles, length);
+		amounts = Arrays.copyOf(amounts, length);
+		data = Arrays.copyOf(data, length);
+		doubles = Arrays.copyOf(doubles, length * DOUBLES);
+		visible = new int[length];
+
+		table = new int[length * 2];
+		for (int i = 0; i < size; i++) {
+			final int mask = table.length - 1;
+			int slot = hash(i) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i + 1;
+		}
+	}
+
+	/**
+	 * Sends the particles of the tick to the players that can see them. Runs
+	 * at the end of every tick while particles are being displayed.
+	 */
+	private static void flush() {
+		if (size == 0) {
+			if (++idleTicks >= IDLE_TICKS) {
+				ThreadUtil.cancelTimerTask(task);
+				task = null;
+			}
+			return;
+		}
+		idleTicks = 0;
+
+		final boolean profiling = Profiler.start("task", "ParticleBatch");
+		try {
+			final double viewDistance = Bukkit.getViewDistance() * 16;
+			final double maxDistanceSquared = viewDistance * viewDistance;
+			for (final Player player : Bukkit.getOnlinePlayers()) {
+				send(player, maxDistanceSquared);
+			}
+		} finally {
+			RECEIVER.clear();
+			if (profiling) Profiler.stop();
+			Arrays.fill(worlds, 0, size, null);
+			Arrays.fill(data, 0, size, null);
+			Arrays.fill(table, 0);
+			size = 0;
+		}
+	}
+
+	private static void send(final Player player, final double maxDistanceSquared) {
+		final World world = player.getWorld();
+		player.getLocation(PLAYER_LOCATION);
+		final double px = PLAYER_LOCATION.getX(), py = PLAYER_LOCATION.getY(), pz = PLAYER_LOCATION.getZ();
+
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (worlds[i] != world) {
+				continue;
+			}
+			final int offset = i * DOUBLES;
+			final double dx = doubles[offset] - px, dy = doubles[offset + 1] - py, dz = doubles[offset + 2] - pz;
+			if (dx * dx + dy * dy + dz * dz <= maxDistanceSquared) {
+				visible[count++] = i;
+			}
+		}
+
+		RECEIVER.clear();
+		RECEIVER.add(player);
+		final int limit = maxPerPlayer > 0 ? Math.min(count, maxPerPlayer) : count;
+		for (int n = 0; n < limit; n++) {
+			final int i = visible[(int) ((long) n * count / limit)];
+			final int offset = i * DOUBLES;
+			try {
+				world.spawnParticle(PARTICLES[particles[i]], RECEIVER, null, doubles[offset], doubles[offset + 1], doubles[offset + 2], amounts[i],
+						doubles[offset + 3], doubles[offset + 4], doubles[offset + 5], doubles[offset + 6], data[i], true);
+			} catch (final RuntimeException e) { //One bad particle shouldn't stop the rest of the tick from being sent
+				if (!warned) {
+					warned = true;
+					ProjectKorra.log.warning("Failed to send a batched " + PARTICLES[particles[i]] + " particle: " + e);
+				}
+			}
+		}
+	}
+
+}
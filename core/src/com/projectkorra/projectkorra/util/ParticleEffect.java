@@ -111,10 +111,12 @@ public enum ParticleEffect {
 	
 	Particle particle;
 	Class<?> dataClass;
+	boolean hasData;
 	
 	private ParticleEffect(Particle particle) {
 		this.particle = particle;
 		this.dataClass = particle.getDataType();
+		this.hasData = this.dataClass != Void.class;
 	}
 	
 	public Particle getParticle() {
@@ -152,7 +154,7 @@ public enum ParticleEffect {
 	 * @param extra extra data to affect the particle, usually affects speed or does nothing
 	 */
 	public void display(Location loc, int amount, double offsetX, double offsetY, double offsetZ, double extra) {
-		loc.getWorld().spawnParticle(particle, loc, amount, offsetX, offsetY, offsetZ, extra, null, true);
+		ParticleBatch.display(loc.getWorld(), particle, loc.getX(), loc.getY(), loc.getZ(), amount, offsetX, offsetY, offsetZ, extra, null);
 	}
 	
 	/**
@@ -179,10 +181,10 @@ public enum ParticleEffect {
 	 * @param data data to display the particle with, only applicable on several particle types (check the enum)
 	 */
 	public void display(Location loc, int amount, double offsetX, double offsetY, double offsetZ, double extra, Object data) {
-		if (dataClass.isAssignableFrom(Void.class) || data == null || !dataClass.isAssignableFrom(data.getClass())) {
+		if (!hasData || !dataClass.isInstance(data)) {
 			display(loc, amount, offsetX, offsetY, offsetZ, extra);
 		} else {
-			loc.getWorld().spawnParticle(particle, loc, amount, offsetX, offsetY, offsetZ, extra, data, true);
+			ParticleBatch.display(loc.getWorld(), particle, loc.getX(), loc.getY(), loc.getZ(), amount, offsetX, offsetY, offsetZ, extra, data);
 		}
 	}
 }
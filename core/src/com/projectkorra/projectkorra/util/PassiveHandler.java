@@ -12,6 +12,7 @@ import com.projectkorra.projectkorra.airbending.passive.AirSaturation;
 import com.projectkorra.projectkorra.chiblocking.passive.ChiSaturation;
 import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.configuration.ConfigManager;
+import com.projectkorra.projectkorra.configuration.ConfigSnapshot;
 
 public class PassiveHandler {
 	private static final Map<Player, Float> FOOD = new ConcurrentHashMap<>();
@@ -44,7 +45,7 @@ public class PassiveHandler {
 		double air = AirSaturation.getExhaustionFactor();
 		double chi = ChiSaturation.getExhaustionFactor();
 
-		if (ConfigManager.defaultConfig.get().getStringList("Properties.DisabledWorlds").contains(player.getWorld().getName())) {
+		if (ConfigSnapshot.get().isDisabledWorld(player.getWorld())) {
 			return;
 		}
 
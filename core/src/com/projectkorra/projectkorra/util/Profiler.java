@@ -0,0 +1,245 @@
+package com.projectkorra.projectkorra.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how long parts of the plugin take, such as the progress of each
+ * ability class, collision detection, TempBlock reverts, listeners and
+ * storage calls.
+ * <p>
+ * Code that should be measured is wrapped like this:
+ *
+ * <pre>
+ * final boolean profiling = Profiler.start("progress", getName());
+ * try {
+ *     progress();
+ * } finally {
+ *     if (profiling) Profiler.stop();
+ * }
+ * </pre>
+ *
+ * While the profiler is stopped, {@link #start(String, String)} only reads a
+ * volatile field. Sections can be nested; the time of a nested section is
+ * also part of the section around it, and the collapsed stacks written by
+ * {@link #writeCollapsedStacks(File)} show how they nest, so they can be
+ * turned into a flame graph.
+ * <p>
+ * Allocations are estimated with the allocation counter of the current
+ * thread, if the JVM provides one.
+ */
+public class Profiler {
+
+	private static final Map<String, Section> SECTIONS = new ConcurrentHashMap<>();
+	private static final Map<String, AtomicLong> STACKS = new ConcurrentHashMap<>();
+	private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+	private static final com.sun.management.ThreadMXBean THREADS = getThreadBean();
+
+	private static volatile boolean enabled;
+	private static volatile long startedAt;
+	private static volatile long stoppedAt;
+
+	private Profiler() {}
+
+	/**
+	 * Starts recording. Everything recorded before is thrown away.
+	 */
+	public static void enable() {
+		SECTIONS.clear();
+		STACKS.clear();
+		startedAt = System.nanoTime();
+		stoppedAt = 0;
+		enabled = true;
+	}
+
+	/**
+	 * Stops recording. What was recorded is kept until the profiler is
+	 * started again.
+	 */
+	public static void disable() {
+		enabled = false;
+		stoppedAt = System.nanoTime();
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return How long the profiler has been recording, in nanoseconds
+	 */
+	public static long getDuration() {
+		if (startedAt == 0) {
+			return 0;
+		}
+		return (stoppedAt == 0 ? System.nanoTime() : stoppedAt) - startedAt;
+	}
+
+	/**
+	 * Starts measuring a section on the current thread. Every call that
+	 * returns true has to be followed by exactly one call to {@link #stop()}
+	 * on the same thread.
+	 *
+	 * @param category What kind of work the section is, e.g. "progress"
+	 * @param name What is doing the work, e.g. the name of an ability
+	 * @return True if the section is being measured
+	 */
+	public static boolean start(final String category, final String name) {
+		if (!enabled) {
+			return false;
+		}
+		FRAMES.get().push(category + ":" + name, allocatedBytes());
+		return true;
+	}
+
+	/**
+	 * Stops measuring the section that was started last on the current
+	 * thread.
+	 */
+	public static void stop() {
+		final long now = System.nanoTime();
+		final Frames frames = FRAMES.get();
+		if (frames.depth == 0) {
+			return;
+		}
+
+		final int depth = --frames.depth;
+		final long time = now - frames.starts[depth];
+		final long allocated = Math.max(0, allocatedBytes() - frames.allocations[depth]);
+		final String name = frames.names[depth];
+		final String path = frames.paths[depth];
+		final long childTime = frames.childTimes[depth];
+		frames.names[depth] = frames.paths[depth] = null;
+		if (depth > 0) {
+			frames.childTimes[depth - 1] += time;
+		}
+
+		if (!enabled) { //Stopped while the section was running
+			return;
+		}
+
+		final Section section = SECTIONS.computeIfAbsent(name, Section::new);
+		section.time.record(time);
+		section.allocated.addAndGet(allocated);
+		STACKS.computeIfAbsent(path, (k) -> new AtomicLong()).addAndGet(Math.max(0, time - childTime));
+	}
+
+	/**
+	 * @param count The maximum amount of sections to return
+	 * @return The sections that took the most time in total, most first
+	 */
+	public static List<Section> getTopSections(final int count) {
+		final List<Section> sections = new ArrayList<>(SECTIONS.values());
+		sections.sort((a, b) -> Long.compare(b.time.getTotal(), a.time.getTotal()));
+		return sections.size() > count ? sections.subList(0, count) : sections;
+	}
+
+	/**
+	 * Writes the recorded time in the collapsed stack format, with one line
+	 * per stack and the time spent in it in microseconds. The file can be
+	 * read by flame graph tools such as flamegraph.pl or speedscope.
+	 *
+	 * @param file The file to write
+	 * @throws IOException If the file could not be written
+	 */
+	public static void writeCollapsedStacks(final File file) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+			for (final Map.Entry<String, AtomicLong> entry : STACKS.entrySet()) {
+				final long micros = entry.getValue().get() / 1000;
+				if (micros > 0) {
+					writer.println(entry.getKey().replace(' ', '_') + " " + micros);
+				}
+			}
+		}
+	}
+
+	private static long allocatedBytes() {
+		return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		try {
+			final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+				if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+					return threads;
+				}
+			}
+		} catch (final Throwable ignored) {} //Not a HotSpot based JVM
+		return null;
+	}
+
+	/**
+	 * Everything recorded for one section.
+	 */
+	public static class Section {
+
+		private final String name;
+		private final Histogram time = new Histogram();
+		private final AtomicLong allocated = new AtomicLong();
+
+		private Section(final String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return The category and name of the section, separated by a colon
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @return The time each run of the section took, in nanoseconds
+		 */
+		public Histogram getTime() {
+			return this.time;
+		}
+
+		/**
+		 * @return An estimate of the bytes allocated while the section ran
+		 */
+		public long getAllocatedBytes() {
+			return this.allocated.get();
+		}
+	}
+
+	/**
+	 * The sections that are running on a thread.
+	 */
+	private static class Frames {
+
+		private String[] names = new String[8];
+		private String[] paths = new String[8];
+		private long[] starts = new long[8];
+		private long[] allocations = new long[8];
+		private long[] childTimes = new long[8];
+		private int depth;
+
+		private void push(final String name, final long allocated) {
+			if (this.depth == this.names.length) {
+				final int length = this.depth * 2;
+				this.names = Arrays.copyOf(this.names, length);
+				this.paths = Arrays.copyOf(this.paths, length);
+				this.starts = Arrays.copyOf(this.starts, length);
+				this.allocations = Arrays.copyOf(this.allocations, length);
+				this.childTimes = Arrays.copyOf(this.childTimes, length);
+			}
+			this.names[this.depth] = name;
+			this.paths[this.depth] = this.depth == 0 ? "ProjectKorra;" + name : this.paths[this.depth - 1] + ";" + name;
+			this.allocations[this.depth] = allocated;
+			this.childTimes[this.depth] = 0;
+			this.starts[this.depth++] = System.nanoTime();
+		}
+	}
+
+}
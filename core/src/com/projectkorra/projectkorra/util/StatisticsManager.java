@@ -2,12 +2,16 @@ package com.projectkorra.projectkorra.util;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.entity.Player;
 
@@ -16,7 +20,9 @@ import com.projectkorra.projectkorra.ProjectKorra;
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.storage.DBConnection;
 import com.projectkorra.projectkorra.storage.MySQL;
+import com.projectkorra.projectkorra.storage.PlayerProfile;
 import com.projectkorra.projectkorra.storage.SQLite;
+import com.projectkorra.projectkorra.storage.WriteQueue.Write;
 
 public class StatisticsManager extends Manager implements Runnable {
 
@@ -43,6 +49,11 @@ public class StatisticsManager extends Manager implements Runnable {
 	 * to have their stats saved.
 	 */
 	private final Set<UUID> STORAGE = new HashSet<>();
+	/**
+	 * Statistics read with the player's profile while they were logging in,
+	 * used by the next {@link #load(UUID)} instead of reading them again.
+	 */
+	private final Map<UUID, Map<Integer, Long>> PREFETCHED = new ConcurrentHashMap<>();
 	private final int INTERVAL = 5;
 
 	private StatisticsManager() {}
@@ -110,13 +121,61 @@ public class StatisticsManager extends Manager implements Runnable {
 	public void load(final UUID uuid) {
 		this.STATISTICS.put(uuid, new HashMap<>());
 		this.DELTA.put(uuid, new HashMap<>());
-		try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_stats WHERE uuid = '" + uuid.toString() + "'")) {
+		final Map<Integer, Long> prefetched = this.PREFETCHED.remove(uuid);
+		if (prefetched != null) {
+			this.applyLoaded(uuid, prefetched);
+			return;
+		}
+		// Shares the round trip of the player's profile if it is being loaded at the same time, otherwise only reads pk_stats
+		final CompletableFuture<PlayerProfile> profile = PlayerProfile.getLoading(uuid);
+		final CompletableFuture<Map<Integer, Long>> loaded = profile != null ? profile.thenApply(PlayerProfile::getStatistics) : this.query(uuid);
+		loaded.whenComplete((statistics, e) -> {
+			if (e != null) {
+				e.printStackTrace();
+				return;
+			}
+			ThreadUtil.runSync(() -> this.applyLoaded(uuid, statistics));
+		});
+	}
+
+	/**
+	 * Keeps the statistics that were read with the player's profile for the
+	 * next {@link #load(UUID)}.
+	 *
+	 * @param uuid The UUID of the player
+	 * @param statistics The statistic values of the player, by statistic id
+	 */
+	public void prefetch(final UUID uuid, final Map<Integer, Long> statistics) {
+		this.PREFETCHED.put(uuid, statistics);
+	}
+
+	/**
+	 * Reads the statistics of a player from pk_stats.
+	 */
+	private CompletableFuture<Map<Integer, Long>> query(final UUID uuid) {
+		return DBConnection.sql.query("SELECT statId, statValue FROM pk_stats WHERE uuid = ?", (ps) -> ps.setString(1, uuid.toString()), (rs) -> {
+			final Map<Integer, Long> statistics = new HashMap<>();
 			while (rs.next()) {
-				this.STATISTICS.get(uuid).put(rs.getInt("statId"), rs.getLong("statValue"));
-				this.DELTA.get(uuid).put(rs.getInt("statId"), 0L);
+				statistics.put(rs.getInt("statId"), rs.getLong("statValue"));
 			}
-		} catch (final SQLException e) {
-			e.printStackTrace();
+			return statistics;
+		});
+	}
+
+	/**
+	 * Merges the statistics read from the database with anything that was
+	 * recorded while they were loading.
+	 */
+	private void applyLoaded(final UUID uuid, final Map<Integer, Long> loaded) {
+		final Map<Integer, Long> current = this.STATISTICS.get(uuid);
+		final Map<Integer, Long> delta = this.DELTA.get(uuid);
+		if (current == null || delta == null) {
+			return;
+		}
+		for (final Entry<Integer, Long> entry : loaded.entrySet()) {
+			final long recorded = delta.getOrDefault(entry.getKey(), 0L);
+			current.put(entry.getKey(), entry.getValue() + recorded);
+			delta.put(entry.getKey(), recorded);
 		}
 	}
 
@@ -125,18 +184,19 @@ public class StatisticsManager extends Manager implements Runnable {
 			return;
 		}
 		final Map<Integer, Long> stats = this.DELTA.get(uuid);
+		final String insertQuery = (DBConnection.sql instanceof MySQL ? "INSERT IGNORE" : "INSERT OR IGNORE") + " INTO pk_stats (statId, uuid, statValue) VALUES (?, ?, 0)";
+		final List<Write> writes = new ArrayList<>();
 		for (final Entry<Integer, Long> entry : stats.entrySet()) {
 			final int statId = entry.getKey();
 			final long statValue = entry.getValue();
-			try (ResultSet rs = DBConnection.sql.readQuery("SELECT * FROM pk_stats WHERE uuid = '" + uuid.toString() + "' AND statId = " + statId)) {
-				if (!rs.next()) {
-					DBConnection.sql.modifyQuery("INSERT INTO pk_stats (statId, uuid, statValue) VALUES (" + statId + ", '" + uuid.toString() + "', " + statValue + ")", async);
-				} else {
-					DBConnection.sql.modifyQuery("UPDATE pk_stats SET statValue = statValue + " + statValue + " WHERE uuid = '" + uuid.toString() + "' AND statId = " + statId + ";", async);
-				}
-			} catch (final SQLException e) {
-				e.printStackTrace();
-			}
+			// Make sure the row exists, then add the delta to it. This avoids reading every row before writing it.
+			writes.add(new Write(insertQuery, statId, uuid.toString()));
+			writes.add(new Write("UPDATE pk_stats SET statValue = statValue + ? WHERE uuid = ? AND statId = ?", statValue, uuid.toString(), statId));
+		}
+		// The deltas are always relative to the last load, so a newer save replaces a pending one.
+		DBConnection.sql.getWriteQueue().queue("pk_stats", uuid.toString(), writes.toArray(new Write[0]));
+		if (!async) {
+			DBConnection.sql.flush();
 		}
 	}
 
@@ -195,6 +255,7 @@ public class StatisticsManager extends Manager implements Runnable {
 	}
 
 	public void store(final UUID uuid) {
+		this.PREFETCHED.remove(uuid); //Only set after the join if the profile was still loading, so it was never used
 		this.STORAGE.add(uuid);
 	}
 
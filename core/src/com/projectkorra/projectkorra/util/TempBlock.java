@@ -7,13 +7,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.projectkorra.projectkorra.ability.CoreAbility;
 import com.projectkorra.projectkorra.ability.FireAbility;
 import com.projectkorra.projectkorra.ability.WaterAbility;
+import com.projectkorra.projectkorra.configuration.ConfigManager;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -31,20 +32,28 @@ import com.projectkorra.projectkorra.GeneralMethods;
 public class TempBlock {
 
     private static final Map<Block, LinkedList<TempBlock>> instances_ = new HashMap<>();
+    /**
+     * The positions of every block in instances_, by chunk
+     */
+    private static final ChunkBlockIndex CHUNK_INDEX = new ChunkBlockIndex();
     /**
      * Marked for removal. Doesn't do anything right now
      */
     @Deprecated
     public static Map<Block, TempBlock> instances = new ConcurrentHashMap<>();
-    private static final PriorityQueue<TempBlock> REVERT_QUEUE = new PriorityQueue<>(128, (t1, t2) -> (int) (t1.revertTime - t2.revertTime));
-    private static boolean REVERT_TASK_RUNNING;
+    /**
+     * Revert times are tracked in 50ms ticks of wall clock time, so reverts
+     * still happen on time when the server is lagging.
+     */
+    private static final long TICK_LENGTH = 50;
+    private static final TimingWheel<TempBlock> REVERT_WHEEL = new TimingWheel<>(System.currentTimeMillis() / TICK_LENGTH);
 
     private final Block block;
     private BlockData newData;
     private BlockState state;
     private Set<TempBlock> attachedTempBlocks; //Temp Block states that should be reverted as well when the temp block expires (e.g. double blocks)
     private long revertTime;
-    private boolean inRevertQueue;
+    private TimingWheel.Entry<TempBlock> revertEntry;
     private boolean reverted;
     private Runnable revertTask = null;
     private Optional<CoreAbility> ability = Optional.empty(); // If we want this TempBlock to have an assigned ability created from it
@@ -141,6 +150,7 @@ public class TempBlock {
     private static void put(Block block, TempBlock tempBlock) {
         if (!instances_.containsKey(block)) {
             instances_.put(block, new LinkedList<>());
+            CHUNK_INDEX.add(block);
         }
         instances_.get(block).add(tempBlock);
     }
@@ -156,13 +166,17 @@ public class TempBlock {
      * @return True if there is a TempBlock beside it
      */
     public static boolean isTouchingTempBlock(final Block block) {
-        final BlockFace[] faces = { BlockFace.NORTH, BlockFace.SOUTH, BlockFace.EAST, BlockFace.WEST, BlockFace.UP, BlockFace.DOWN };
-        for (final BlockFace face : faces) {
-            if (instances_.containsKey(block.getRelative(face))) {
-                return true;
-            }
-        }
-        return false;
+        return CHUNK_INDEX.isTouching(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+
+    /**
+     * Is there a TempBlock within the radius of a location?
+     * @param location The center of the sphere
+     * @param radius The radius of the sphere
+     * @return True if the center of a TempBlock is within the sphere
+     */
+    public static boolean isTempBlockNearby(final Location location, final double radius) {
+        return CHUNK_INDEX.hasAnyWithin(location.getWorld(), location.getX(), location.getY(), location.getZ(), radius);
     }
 
     /**
@@ -172,7 +186,12 @@ public class TempBlock {
         for (final Block block : new HashSet<>(instances_.keySet())) {
             ThreadUtil.ensureLocation(block.getLocation(), () -> revertBlock(block, Material.AIR));
         }
-        for (final TempBlock tempblock : REVERT_QUEUE) {
+        final List<TempBlock> queued = new ArrayList<>();
+        synchronized (REVERT_WHEEL) {
+            REVERT_WHEEL.clear(queued::add);
+        }
+        for (final TempBlock tempblock : queued) {
+            tempblock.revertEntry = null;
             ThreadUtil.ensureLocation(tempblock.getLocation(), () -> {
                 tempblock.state.update(true, applyPhysics(tempblock.state.getType()));
                 if (tempblock.revertTask != null) {
@@ -180,14 +199,21 @@ public class TempBlock {
                 }
             });
         }
-        REVERT_QUEUE.clear();
     }
 
     public static void removeAllInWorld(World world) {
-        for (final Block block : new HashSet<>(instances_.keySet())) {
-            if (block.getWorld() == world) {
-                revertBlock(block, Material.AIR);
-            }
+        for (final Block block : CHUNK_INDEX.getBlocks(world)) {
+            revertBlock(block, Material.AIR);
+        }
+    }
+
+    /**
+     * Revert all TempBlocks in a chunk. Done when the chunk unloads, so the TempBlocks aren't saved with it
+     * @param chunk The chunk
+     */
+    public static void removeAllInChunk(Chunk chunk) {
+        for (final Block block : CHUNK_INDEX.getBlocks(chunk.getWorld(), chunk.getX(), chunk.getZ())) {
+            revertBlock(block, Material.AIR);
         }
     }
 
@@ -196,8 +222,8 @@ public class TempBlock {
      * @param block The block location
      */
     public static void removeBlock(final Block block) {
-        instances_.get(block).forEach(t -> {
-            REVERT_QUEUE.remove(t);
+        new ArrayList<>(instances_.get(block)).forEach(t -> {
+            t.cancelRevert();
             remove(t);
         });
     }
@@ -211,6 +237,7 @@ public class TempBlock {
             instances_.get(tempBlock.block).remove(tempBlock);
             if (instances_.get(tempBlock.block).size() == 0) {
                 instances_.remove(tempBlock.block);
+                CHUNK_INDEX.remove(tempBlock.block);
             }
         }
     }
@@ -300,9 +327,25 @@ public class TempBlock {
             return;
         }
         this.revertTime = revertTime + System.currentTimeMillis();
-        if (!this.inRevertQueue) {
-            this.inRevertQueue = true;
-            REVERT_QUEUE.add(this);
+        final long deadline = (this.revertTime + TICK_LENGTH - 1) / TICK_LENGTH;
+        synchronized (REVERT_WHEEL) {
+            if (this.revertEntry == null) {
+                this.revertEntry = REVERT_WHEEL.schedule(this, deadline);
+            } else { //Move it, so a changed revert time is respected even if it was already queued
+                REVERT_WHEEL.reschedule(this.revertEntry, deadline);
+            }
+        }
+    }
+
+    /**
+     * Stop this TempBlock from reverting automatically
+     */
+    private void cancelRevert() {
+        synchronized (REVERT_WHEEL) {
+            if (this.revertEntry != null) {
+                REVERT_WHEEL.cancel(this.revertEntry);
+                this.revertEntry = null;
+            }
         }
     }
 
@@ -339,8 +382,8 @@ public class TempBlock {
             PaperLib.getChunkAtAsync(this.block.getLocation()).thenAccept(result -> revertState());
         }
 
-        if (removeFromQueue) { //Remove from the queue if it's in there. We only do this when required because it is an intensive action due to the collection type
-            REVERT_QUEUE.remove(this);
+        if (removeFromQueue) { //Remove from the queue if it's in there
+            cancelRevert();
         }
         if (this.revertTask != null) {
             this.revertTask.run();
@@ -500,20 +543,43 @@ public class TempBlock {
                 '}';
     }
 
+    /**
+     * @return The amount of TempBlocks waiting to be reverted automatically
+     */
+    public static int getQueuedReverts() {
+        synchronized (REVERT_WHEEL) {
+            return REVERT_WHEEL.size();
+        }
+    }
+
     public static class TempBlockRevertTask implements Runnable {
         @Override
         public void run() {
-            final long currentTime = System.currentTimeMillis();
-            while (!REVERT_QUEUE.isEmpty()) {
-                final TempBlock tempBlock = REVERT_QUEUE.peek(); //Check if the top TempBlock is ready for reverting
-                if (currentTime >= tempBlock.getRevertTime()) {
-                    REVERT_QUEUE.poll();
-                    if (!tempBlock.reverted) {
-                        remove(tempBlock);
-                        ThreadUtil.ensureLocation(tempBlock.getLocation(), () -> tempBlock.trueRevertBlock(false)); //It's already been removed from the poll(), so don't try remove it again
-                    }
-                } else {
-                    break;
+            final boolean profiling = Profiler.start("tempblock", "revert");
+            try {
+                this.revertExpired();
+            } finally {
+                if (profiling) Profiler.stop();
+            }
+        }
+
+        private void revertExpired() {
+            //Blocks that expire at the same time are spread over multiple runs if there are too many
+            final int budget = ConfigManager.getConfig().getInt("Properties.TempBlock.MaxRevertsPerTick");
+            final List<TempBlock> expired = new ArrayList<>();
+            synchronized (REVERT_WHEEL) {
+                REVERT_WHEEL.advance(System.currentTimeMillis() / TICK_LENGTH);
+                TempBlock tempBlock;
+                while ((budget <= 0 || expired.size() < budget) && (tempBlock = REVERT_WHEEL.poll()) != null) {
+                    tempBlock.revertEntry = null;
+                    expired.add(tempBlock);
+                }
+            }
+
+            for (final TempBlock tempBlock : expired) {
+                if (!tempBlock.reverted) {
+                    remove(tempBlock);
+                    ThreadUtil.ensureLocation(tempBlock.getLocation(), () -> tempBlock.trueRevertBlock(false)); //It's already been removed from the wheel, so don't try remove it again
                 }
             }
         }
@@ -0,0 +1,292 @@
+package com.projectkorra.projectkorra.util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel. Scheduling and cancelling are O(1), and expired
+ * entries are collected per tick instead of being sorted.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. The first
+ * level holds entries that expire within {@value #SLOTS} ticks, one slot per
+ * tick. Every level above covers {@value #SLOTS} times the span of the level
+ * below it, and its slots are moved down a level when the lower level wraps
+ * around. Entries further in the future than the wheel can hold are parked
+ * in the last slot of the top level and rescheduled from there.
+ * <p>
+ * Expired entries are moved to a due list in the order they expired and can
+ * then be polled in batches, so a large amount of entries expiring on the
+ * same tick can be spread over several ticks. This class is not thread safe.
+ *
+ * @param <T> The type of the scheduled values
+ */
+public class TimingWheel<T> {
+
+	private static final int BITS = 6;
+	private static final int SLOTS = 1 << BITS;
+	private static final int MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+	private static final long SPAN = 1L << (BITS * LEVELS);
+
+	private final Bucket<T>[][] wheels;
+	private final Bucket<T> due = new Bucket<>();
+	private long tick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(final long currentTick) {
+		this.tick = currentTick;
+		this.wheels = new Bucket[LEVELS][SLOTS];
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				this.wheels[level][slot] = new Bucket<>();
+			}
+		}
+	}
+
+	/**
+	 * Schedules a value to expire on the given tick.
+	 *
+	 * @param value The value to schedule
+	 * @param deadline The tick the value expires on. Ticks that have already
+	 *            passed expire on the next call to {@link #advance(long)}.
+	 * @return The entry of the value, which can be used to cancel or reschedule
+	 *         it
+	 */
+	public Entry<T> schedule(final T value, final long deadline) {
+		final Entry<T> entry = new Entry<>(value);
+		this.reschedule(entry, deadline);
+		return entry;
+	}
+
+	/**
+	 * Moves an entry to a new deadline. The entry is scheduled again if it was
+	 * cancelled or had already expired.
+	 *
+	 * @param entry An entry returned by {@link #schedule(Object, long)}
+	 * @param deadline The tick the value expires on
+	 */
+	public void reschedule(final Entry<T> entry, final long deadline) {
+		if (entry.bucket != null) {
+			entry.bucket.unlink(entry);
+		} else {
+			this.size++;
+		}
+		entry.deadline = deadline;
+		this.place(entry);
+	}
+
+	/**
+	 * Removes an entry from the wheel, whether it expired already or not.
+	 *
+	 * @param entry An entry returned by {@link #schedule(Object, long)}
+	 * @return True if the entry was still scheduled
+	 */
+	public boolean cancel(final Entry<T> entry) {
+		if (entry.bucket == null) {
+			return false;
+		}
+		entry.bucket.unlink(entry);
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Moves the wheel forward to the given tick, moving every entry whose
+	 * deadline has passed to the due list.
+	 *
+	 * @param currentTick The current tick
+	 */
+	public void advance(final long currentTick) {
+		while (this.tick < currentTick) {
+			this.tick++;
+
+			// Move the next slot of each higher level down once the level below it
+			// has wrapped around.
+			for (int level = 1; level < LEVELS; level++) {
+				if ((this.tick & ((1L << (BITS * level)) - 1)) != 0) {
+					break;
+				}
+				this.cascade(this.wheels[level][(int) ((this.tick >>> (BITS * level)) & MASK)]);
+			}
+
+			this.due.transferFrom(this.wheels[0][(int) (this.tick & MASK)]);
+		}
+	}
+
+	/**
+	 * Removes the value that expired first from the due list.
+	 *
+	 * @return The value, or null if nothing is due
+	 */
+	public T poll() {
+		final Entry<T> entry = this.due.head;
+		if (entry == null) {
+			return null;
+		}
+		this.due.unlink(entry);
+		this.size--;
+		return entry.value;
+	}
+
+	/**
+	 * Removes every scheduled and due value from the wheel.
+	 *
+	 * @param consumer Receives every removed value
+	 */
+	public void clear(final Consumer<T> consumer) {
+		for (final Bucket<T>[] wheel : this.wheels) {
+			for (final Bucket<T> bucket : wheel) {
+				bucket.clear(consumer);
+			}
+		}
+		this.due.clear(consumer);
+		this.size = 0;
+	}
+
+	/**
+	 * @return True if any value is waiting in the due list
+	 */
+	public boolean hasDue() {
+		return this.due.head != null;
+	}
+
+	/**
+	 * @return The amount of scheduled and due values
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	public long getTick() {
+		return this.tick;
+	}
+
+	private void place(final Entry<T> entry) {
+		final long delay = entry.deadline - this.tick;
+		if (delay <= 0) {
+			this.due.add(entry);
+			return;
+		}
+
+		for (int level = 0; level < LEVELS; level++) {
+			if (delay < 1L << (BITS * (level + 1))) {
+				this.wheels[level][(int) ((entry.deadline >>> (BITS * level)) & MASK)].add(entry);
+				return;
+			}
+		}
+
+		// Too far in the future, park it in the furthest slot and place it again
+		// once that slot is cascaded.
+		final int topShift = BITS * (LEVELS - 1);
+		this.wheels[LEVELS - 1][(int) (((this.tick + SPAN - 1) >>> topShift) & MASK)].add(entry);
+	}
+
+	private void cascade(final Bucket<T> bucket) {
+		Entry<T> entry = bucket.head;
+		bucket.head = bucket.tail = null;
+		while (entry != null) {
+			final Entry<T> next = entry.next;
+			entry.prev = entry.next = null;
+			entry.bucket = null;
+			this.place(entry);
+			entry = next;
+		}
+	}
+
+	/**
+	 * A value scheduled in a {@link TimingWheel}.
+	 */
+	public static class Entry<T> {
+
+		private final T value;
+		private long deadline;
+		private Bucket<T> bucket;
+		private Entry<T> prev;
+		private Entry<T> next;
+
+		private Entry(final T value) {
+			this.value = value;
+		}
+
+		public T getValue() {
+			return this.value;
+		}
+
+		/**
+		 * @return The tick the value expires on
+		 */
+		public long getDeadline() {
+			return this.deadline;
+		}
+
+		/**
+		 * @return True if the entry is scheduled or due
+		 */
+		public boolean isScheduled() {
+			return this.bucket != null;
+		}
+	}
+
+	private static class Bucket<T> {
+
+		private Entry<T> head;
+		private Entry<T> tail;
+
+		private void add(final Entry<T> entry) {
+			entry.bucket = this;
+			entry.prev = this.tail;
+			entry.next = null;
+			if (this.tail == null) {
+				this.head = entry;
+			} else {
+				this.tail.next = entry;
+			}
+			this.tail = entry;
+		}
+
+		private void unlink(final Entry<T> entry) {
+			if (entry.prev == null) {
+				this.head = entry.next;
+			} else {
+				entry.prev.next = entry.next;
+			}
+			if (entry.next == null) {
+				this.tail = entry.prev;
+			} else {
+				entry.next.prev = entry.prev;
+			}
+			entry.prev = entry.next = null;
+			entry.bucket = null;
+		}
+
+		private void transferFrom(final Bucket<T> other) {
+			for (Entry<T> entry = other.head; entry != null; entry = entry.next) {
+				entry.bucket = this;
+			}
+			if (other.head == null) {
+				return;
+			}
+			if (this.tail == null) {
+				this.head = other.head;
+			} else {
+				this.tail.next = other.head;
+				other.head.prev = this.tail;
+			}
+			this.tail = other.tail;
+			other.head = other.tail = null;
+		}
+
+		private void clear(final Consumer<T> consumer) {
+			Entry<T> entry = this.head;
+			this.head = this.tail = null;
+			while (entry != null) {
+				final Entry<T> next = entry.next;
+				entry.prev = entry.next = null;
+				entry.bucket = null;
+				consumer.accept(entry.value);
+				entry = next;
+			}
+		}
+	}
+
+}
@@ -30,6 +30,7 @@ import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.firebending.FireBlast;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.ClickType;
+import com.projectkorra.projectkorra.util.MaterialTraits;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
@@ -195,7 +196,7 @@ public class SurgeWall extends WaterAbility {
 
 	public void moveWater() {
 		if (this.sourceBlock != null) {
-			this.targetDestination = this.player.getTargetBlock(getTransparentMaterialSet(), (int) this.range).getLocation();
+			this.targetDestination = this.player.getTargetBlock(MaterialTraits.getTransparentSet(), (int) this.range).getLocation();
 
 			if (this.targetDestination.distanceSquared(this.location) <= 1) {
 				this.progressing = false;
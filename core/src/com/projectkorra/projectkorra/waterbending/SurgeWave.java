@@ -31,6 +31,7 @@ import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.firebending.FireBlast;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.ClickType;
+import com.projectkorra.projectkorra.util.MaterialTraits;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
@@ -224,7 +225,7 @@ public class SurgeWave extends WaterAbility {
 
 			final Entity target = GeneralMethods.getTargetedEntity(this.player, this.range);
 			if (target == null) {
-				this.targetDestination = this.player.getTargetBlock(getTransparentMaterialSet(), (int) this.range).getLocation();
+				this.targetDestination = this.player.getTargetBlock(MaterialTraits.getTransparentSet(), (int) this.range).getLocation();
 			} else {
 				this.targetDestination = ((LivingEntity) target).getEyeLocation();
 			}
@@ -31,6 +31,7 @@ import com.projectkorra.projectkorra.command.Commands;
 import com.projectkorra.projectkorra.util.BlockSource;
 import com.projectkorra.projectkorra.util.ClickType;
 import com.projectkorra.projectkorra.util.DamageHandler;
+import com.projectkorra.projectkorra.util.MaterialTraits;
 import com.projectkorra.projectkorra.util.ParticleEffect;
 import com.projectkorra.projectkorra.util.TempBlock;
 import com.projectkorra.projectkorra.waterbending.plant.PlantRegrowth;
@@ -380,7 +381,7 @@ public class Torrent extends WaterAbility {
 		}
 
 		final Entity target = GeneralMethods.getTargetedEntity(this.player, this.range, this.hurtEntities);
-		Location targetLoc = this.player.getTargetBlock(getTransparentMaterialSet(), (int) this.range).getLocation();
+		Location targetLoc = this.player.getTargetBlock(MaterialTraits.getTransparentSet(), (int) this.range).getLocation();
 		if (target != null) {
 			targetLoc = target.getLocation();
 		}
@@ -7,6 +7,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 import com.projectkorra.projectkorra.attribute.markers.DayNightFactor;
+import com.projectkorra.projectkorra.util.BlockNeighbourhood;
 import com.projectkorra.projectkorra.util.ThreadUtil;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -294,7 +295,7 @@ public class WaterSpoutWave extends WaterAbility {
 				double currentSpeed = this.speed - (this.speed * (System.currentTimeMillis() - this.time) / this.flightDuration);
 
 				GeneralMethods.setVelocity(this, this.player, this.player.getEyeLocation().getDirection().normalize().multiply(currentSpeed));
-				for (final Block block : GeneralMethods.getBlocksAroundPoint(this.player.getLocation().add(0, -1, 0), this.waveRadius)) {
+				BlockNeighbourhood.forEach(this.player.getLocation().add(0, -1, 0), this.waveRadius, (block) -> {
 					if (ElementalAbility.isAir(block.getType()) && !RegionProtection.isRegionProtected(this, block.getLocation())) {
 						if (this.iceWave) {
 							this.createBlockDelay(block, Material.ICE, 2L);
@@ -302,7 +303,7 @@ public class WaterSpoutWave extends WaterAbility {
 							this.createBlock(block, Material.WATER);
 						}
 					}
-				}
+				});
 
 				if (this.iceWave && this.progressCounter % 3 == 0) {
 					for (final Entity entity : GeneralMethods.getEntitiesAroundPoint(this.player.getLocation().add(0, -1, 0), this.waveRadius * 1.5)) {
@@ -31,6 +31,7 @@ import com.projectkorra.projectkorra.ability.BloodAbility;
 import com.projectkorra.projectkorra.attribute.Attribute;
 import com.projectkorra.projectkorra.object.HorizontalVelocityTracker;
 import com.projectkorra.projectkorra.util.DamageHandler;
+import com.projectkorra.projectkorra.util.EntityIndex;
 import com.projectkorra.projectkorra.util.TempPotionEffect;
 
 public class Bloodbending extends BloodAbility {
@@ -105,6 +106,14 @@ public class Bloodbending extends BloodAbility {
 				}
 			}
 		} else {
+			// A step can only find an entity within 1.7 blocks on every axis of the line of sight
+			final Location eye = player.getEyeLocation();
+			final List<Entity> nearby = EntityIndex.getEntitiesInCapsule(eye, eye.clone().add(eye.getDirection().multiply(this.range)), 1.7 * Math.sqrt(3));
+			nearby.removeIf(e -> e.equals(player) || !(e instanceof LivingEntity) || e instanceof ArmorStand);
+			if (nearby.isEmpty()) {
+				return;
+			}
+
 			List<Entity> entities = new CopyOnWriteArrayList<Entity>();
 			for (int i = 0; i < this.range; i++) {
 				final Location location = GeneralMethods.getTargetedLocation(player, i, getTransparentMaterials());
@@ -1,6 +1,7 @@
 package com.projectkorra.projectkorra.waterbending.util;
 
 import com.projectkorra.projectkorra.ProjectKorra;
+import com.projectkorra.projectkorra.ability.util.TickBudget;
 import com.projectkorra.projectkorra.waterbending.Torrent;
 import com.projectkorra.projectkorra.waterbending.WaterSpoutWave;
 import com.projectkorra.projectkorra.waterbending.multiabilities.WaterArms;
@@ -8,6 +9,7 @@ import com.projectkorra.projectkorra.waterbending.multiabilities.WaterArms;
 public class WaterbendingManager implements Runnable {
 
 	public ProjectKorra plugin;
+	private final TickBudget.Deferral deferral = new TickBudget.Deferral(TickBudget.Priority.NORMAL);
 
 	public WaterbendingManager(final ProjectKorra plugin) {
 		this.plugin = plugin;
@@ -15,6 +17,9 @@ public class WaterbendingManager implements Runnable {
 
 	@Override
 	public void run() {
+		if (!this.deferral.shouldRun()) {
+			return;
+		}
 		// WaterPassive.handlePassive(); # Fast Swim is now managed in FastSwim.java.
 		Torrent.progressAllCleanup(); //Folia compatible now
 		WaterArms.progressAllCleanup();